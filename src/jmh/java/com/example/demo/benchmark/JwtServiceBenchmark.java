@@ -0,0 +1,89 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.Role;
+import com.example.demo.entity.User;
+import com.example.demo.service.JwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuance and verification in JwtService, against the previous per-call key derivation
+ * and parser construction ("legacy" methods).
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec}, or {@code -Dbenchmark=JwtServiceBenchmark.validate}
+ * to select methods.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKey1234567890123456789012345678901234567890123456789012";
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "activeKid", "default");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3600);
+        ReflectionTestUtils.setField(jwtService, "jwtRefreshExpiration", 604800);
+        jwtService.init();
+
+        user = new User("benchmark", "benchmark@example.com", "unused", Role.USER);
+        user.setId(42L);
+        token = jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean validateTokenContended() {
+        return jwtService.validateToken(token);
+    }
+
+    @Benchmark
+    public String legacyGenerateAccessToken() {
+        Date issuedAt = new Date();
+        return Jwts.builder()
+                .claim("userId", user.getId())
+                .claim("username", user.getUsername())
+                .claim("role", user.getRole().toString())
+                .claim("email", user.getEmail())
+                .setSubject(user.getEmail())
+                .setIssuedAt(issuedAt)
+                .setExpiration(new Date(issuedAt.getTime() + 3600_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    @Benchmark
+    public Object legacyValidateToken() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token);
+    }
+}
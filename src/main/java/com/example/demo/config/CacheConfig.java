@@ -0,0 +1,236 @@
+package com.example.demo.config;
+
+import com.example.demo.service.CacheAccessTracker;
+import com.example.demo.service.CacheTagService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.internal.statistics.DefaultStatisticsService;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tiered Ehcache 3 caches: a small on-heap tier in front of an off-heap tier and an optional
+ * disk tier, so large regions (e.g. 200k tasks) live outside the Java heap.
+ *
+ * Sizes are per profile, under {@code app.cache.regions.<name>.{heap-entries, offheap-mb, disk-mb, ttl}}
+ * with {@code app.cache.defaults.*} as fallback. Off-heap memory counts against
+ * {@code -XX:MaxDirectMemorySize}, which must cover the sum of all off-heap tiers.
+ *
+ * Entries are kept for {@code ttl + stale-while-revalidate}: during that window a
+ * {@code @Cacheable(sync = true)} read still gets the old value while one background load on the
+ * refresh pool replaces it (see {@link TieredCache}).
+ *
+ * With {@code app.cache.near.enabled} each region becomes a {@link NearCache}: writes and evictions
+ * are broadcast so other instances drop their copies, which makes long TTLs safe. A shared L2 is
+ * used when a {@link SharedCacheStore} bean exists; {@code app.cache.near.l2: in-memory} registers
+ * the single-JVM stand-in.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.tiered.enabled", havingValue = "true")
+public class CacheConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheConfig.class);
+
+    // Region -> default TTL and heap entries; the values the former ehcache.xml used
+    private static final Map<String, Duration> REGION_TTL = new LinkedHashMap<>();
+    private static final Map<String, Long> REGION_HEAP_ENTRIES = new LinkedHashMap<>();
+
+    static {
+        region("users", 30, 1000);
+        region("user", 15, 500);
+        region("projects", 20, 500);
+        region("project", 10, 300);
+        region("tasks", 15, 800);
+        region("task", 10, 400);
+        region("taskStatistics", 5, 200);
+        region("comments", 25, 600);
+        region("comment", 15, 300);
+    }
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.cache.defaults.offheap-mb:16}")
+    private long defaultOffHeapMb;
+
+    @Value("${app.cache.defaults.disk-mb:0}")
+    private long defaultDiskMb;
+
+    @Value("${app.cache.disk.directory:${java.io.tmpdir}/task-service-cache}")
+    private String diskDirectory;
+
+    @Value("${app.cache.refresh.stale-while-revalidate:60s}")
+    private Duration defaultStaleWhileRevalidate;
+
+    @Value("${app.cache.refresh.beta:1.0}")
+    private double refreshBeta;
+
+    @Value("${app.cache.refresh.threads:4}")
+    private int refreshThreads;
+
+    @Value("${app.cache.refresh.queue-capacity:256}")
+    private int refreshQueueCapacity;
+
+    @Value("${app.cache.near.enabled:false}")
+    private boolean nearCacheEnabled;
+
+    private ExecutorService refreshExecutor;
+
+    private static void region(String name, long ttlMinutes, long heapEntries) {
+        REGION_TTL.put(name, Duration.ofMinutes(ttlMinutes));
+        REGION_HEAP_ENTRIES.put(name, heapEntries);
+    }
+
+    @Bean
+    public StatisticsService ehcacheStatisticsService() {
+        return new DefaultStatisticsService();
+    }
+
+    @Bean(destroyMethod = "close")
+    public org.ehcache.CacheManager ehcacheManager(StatisticsService ehcacheStatisticsService) {
+        Map<String, CacheConfiguration<Object, Object>> configurations = new LinkedHashMap<>();
+        boolean usesDisk = false;
+
+        for (String region : REGION_TTL.keySet()) {
+            long heapEntries = regionProperty(region, "heap-entries", REGION_HEAP_ENTRIES.get(region));
+            long offHeapMb = regionProperty(region, "offheap-mb", defaultOffHeapMb);
+            long diskMb = regionProperty(region, "disk-mb", defaultDiskMb);
+            Duration ttl = regionTtl(region);
+            Duration stale = environment.getProperty("app.cache.regions." + region + ".stale-while-revalidate",
+                    Duration.class, defaultStaleWhileRevalidate);
+
+            ResourcePoolsBuilder pools = ResourcePoolsBuilder.heap(heapEntries);
+            if (offHeapMb > 0) {
+                pools = pools.offheap(offHeapMb, MemoryUnit.MB);
+            }
+            if (diskMb > 0) {
+                pools = pools.disk(diskMb, MemoryUnit.MB, false);
+                usesDisk = true;
+            }
+
+            configurations.put(region, CacheConfigurationBuilder
+                    .newCacheConfigurationBuilder(Object.class, Object.class, pools)
+                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl.plus(stale)))
+                    // Spring cache keys (Long, String, SimpleKey) are all Serializable
+                    .withKeySerializer(new PlainJavaSerializer<>(CacheConfig.class.getClassLoader()))
+                    .withValueSerializer(new CacheValueSerializer(objectMapper.copy()))
+                    .build());
+            logger.info("Cache region {}: heap={} entries, offheap={}MB, disk={}MB, ttl={}, stale-while-revalidate={}",
+                    region, heapEntries, offHeapMb, diskMb, ttl, stale);
+        }
+
+        CacheManagerBuilder<org.ehcache.CacheManager> builder =
+                CacheManagerBuilder.newCacheManagerBuilder().using(ehcacheStatisticsService);
+        org.ehcache.CacheManager manager = usesDisk
+                ? builder.with(CacheManagerBuilder.persistence(new File(diskDirectory))).build(true)
+                : builder.build(true);
+        configurations.forEach(manager::createCache);
+        return manager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.near.l2", havingValue = "in-memory")
+    public SharedCacheStore inMemorySharedCacheStore(@Value("${app.cache.near.l2-ttl:10m}") Duration ttl) {
+        return new InMemorySharedCacheStore(ttl);
+    }
+
+    @Bean
+    public CacheManager cacheManager(org.ehcache.CacheManager ehcacheManager,
+                                     ObjectProvider<SharedCacheStore> sharedCacheStore,
+                                     @Lazy CacheInvalidationPublisher invalidationPublisher,
+                                     CacheAccessTracker accessTracker) {
+        // Background refreshes; when the queue is full a refresh is skipped and the current entry keeps being served.
+        // Not a bean, so Boot's applicationTaskExecutor is still auto-configured.
+        AtomicInteger threadNumber = new AtomicInteger();
+        refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(refreshQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "cache-refresh-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        SharedCacheStore shared = sharedCacheStore.getIfAvailable();
+        List<Cache> caches = new ArrayList<>();
+        for (String region : REGION_TTL.keySet()) {
+            TieredCache tiered = new TieredCache(region, ehcacheManager.getCache(region, Object.class, Object.class),
+                    regionTtl(region), refreshBeta, refreshExecutor);
+            if (CacheAccessTracker.TRACKED_REGIONS.contains(region)) {
+                tiered.setAccessListener(key -> accessTracker.record(region, key));
+            }
+            caches.add(nearCacheEnabled
+                    ? new NearCache(tiered, shared, key -> !CacheTagService.isVersionedKey(key), invalidationPublisher)
+                    : tiered);
+        }
+        logger.info("Near cache {}, shared L2: {}", nearCacheEnabled ? "enabled" : "disabled",
+                shared != null ? shared.getClass().getSimpleName() : "none");
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+
+    /**
+     * Lets the actuator cache metrics registrar bind cache.* and cache.tier.* meters for every region
+     */
+    @Bean
+    public CacheMeterBinderProvider<TieredCache> tieredCacheMeterBinderProvider(StatisticsService ehcacheStatisticsService) {
+        return (cache, tags) -> new TieredCacheMetrics(cache,
+                ehcacheStatisticsService.getCacheStatistics(cache.getName()), tags);
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<NearCache> nearCacheMeterBinderProvider(StatisticsService ehcacheStatisticsService) {
+        return (cache, tags) -> cache.getLocal() instanceof TieredCache tiered
+                ? new TieredCacheMetrics(tiered, ehcacheStatisticsService.getCacheStatistics(tiered.getName()), tags)
+                : null;
+    }
+
+    @PreDestroy
+    public void shutdownRefreshExecutor() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    private Duration regionTtl(String region) {
+        return environment.getProperty("app.cache.regions." + region + ".ttl", Duration.class, REGION_TTL.get(region));
+    }
+
+    private long regionProperty(String region, String key, long defaultValue) {
+        return environment.getProperty("app.cache.regions." + region + "." + key, Long.class, defaultValue);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.config;
+
+/**
+ * Tells the other instances that an entry or a whole cache changed, so they drop their local copies
+ */
+public interface CacheInvalidationPublisher {
+
+    void evicted(String cacheName, Object key);
+
+    void cleared(String cacheName);
+}
@@ -0,0 +1,160 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.ehcache.spi.serialization.Serializer;
+import org.ehcache.spi.serialization.SerializerException;
+import org.springframework.cache.support.NullValue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Ehcache value serializer for the off-heap and disk tiers.
+ *
+ * The cached DTOs are records that are not {@code Serializable}, and Java serialization
+ * would be far larger anyway, so values are stored as compact JSON behind a small header:
+ * a type byte and the class name of the value (or of the list elements). A map is stored as
+ * [keyType, key, valueType, value] entries, so e.g. Long values come back as Long rather than
+ * as whatever JSON number type fits. Only classes from the DTO package and java.lang are
+ * ever instantiated when reading back, and maps holding anything else are refused on write.
+ * A {@link TieredCache.Entry} is written as its load timestamps followed by the wrapped value.
+ */
+public class CacheValueSerializer implements Serializer<Object> {
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte OBJECT = 1;
+    private static final byte LIST = 2;
+    private static final byte MAP = 3;
+    private static final byte ENTRY = 4;
+
+    private static final List<String> ALLOWED_PREFIXES = List.of("com.example.demo.dto.", "java.lang.");
+
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<String, JavaType> types = new ConcurrentHashMap<>();
+
+    public CacheValueSerializer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ByteBuffer serialize(Object value) throws SerializerException {
+        try {
+            if (value instanceof TieredCache.Entry entry) {
+                ByteBuffer wrapped = serialize(entry.value());
+                ByteBuffer buffer = ByteBuffer.allocate(17 + wrapped.remaining());
+                buffer.put(ENTRY).putLong(entry.loadedAt()).putLong(entry.loadMillis()).put(wrapped);
+                return buffer.flip();
+            }
+            if (value instanceof NullValue) {
+                return ByteBuffer.wrap(new byte[] { NULL_VALUE });
+            }
+            if (value instanceof List<?> list) {
+                Object first = list.isEmpty() ? null : list.get(0);
+                return encode(LIST, first != null ? first.getClass().getName() : "", objectMapper.writeValueAsBytes(list));
+            }
+            if (value instanceof Map<?, ?> map) {
+                List<Object[]> entries = new ArrayList<>(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    entries.add(new Object[] { typeOf(entry.getKey()), entry.getKey(), typeOf(entry.getValue()), entry.getValue() });
+                }
+                return encode(MAP, "", objectMapper.writeValueAsBytes(entries));
+            }
+            return encode(OBJECT, value.getClass().getName(), objectMapper.writeValueAsBytes(value));
+        } catch (IOException e) {
+            throw new SerializerException("Could not serialize cached " + value.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object read(ByteBuffer binary) throws SerializerException {
+        byte kind = binary.get();
+        if (kind == NULL_VALUE) {
+            return NullValue.INSTANCE;
+        }
+        if (kind == ENTRY) {
+            long loadedAt = binary.getLong();
+            long loadMillis = binary.getLong();
+            return new TieredCache.Entry(read(binary), loadedAt, loadMillis);
+        }
+        byte[] name = new byte[binary.getShort()];
+        binary.get(name);
+        String className = new String(name, StandardCharsets.UTF_8);
+
+        byte[] json = new byte[binary.remaining()];
+        binary.get(json);
+        try {
+            return switch (kind) {
+                case LIST -> className.isEmpty()
+                        ? new ArrayList<>()
+                        : objectMapper.readValue(json, types.computeIfAbsent("list:" + className,
+                                n -> objectMapper.getTypeFactory().constructCollectionType(ArrayList.class, resolve(className))));
+                case MAP -> readMap(json);
+                case OBJECT -> objectMapper.readValue(json, type(className));
+                default -> throw new SerializerException("Unknown cached value type " + kind);
+            };
+        } catch (IOException e) {
+            throw new SerializerException("Could not read cached " + className, e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object object, ByteBuffer binary) throws SerializerException {
+        return Objects.equals(object, read(binary));
+    }
+
+    private Map<Object, Object> readMap(byte[] json) throws IOException {
+        Map<Object, Object> map = new LinkedHashMap<>();
+        for (JsonNode entry : objectMapper.readTree(json)) {
+            map.put(readTyped(entry.get(0), entry.get(1)), readTyped(entry.get(2), entry.get(3)));
+        }
+        return map;
+    }
+
+    private Object readTyped(JsonNode type, JsonNode value) throws IOException {
+        return type.isNull() ? null : objectMapper.treeToValue(value, type(type.asText()));
+    }
+
+    private JavaType type(String className) {
+        return types.computeIfAbsent(className, n -> objectMapper.getTypeFactory().constructType(resolve(className)));
+    }
+
+    // Checked on write, so a map the reader would refuse never reaches the off-heap tier
+    private static String typeOf(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String className = value.getClass().getName();
+        if (ALLOWED_PREFIXES.stream().noneMatch(className::startsWith)) {
+            throw new SerializerException("Cannot cache a map holding " + className);
+        }
+        return className;
+    }
+
+    private static ByteBuffer encode(byte kind, String className, byte[] json) {
+        byte[] name = className.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(3 + name.length + json.length);
+        buffer.put(kind).putShort((short) name.length).put(name).put(json);
+        return buffer.flip();
+    }
+
+    private static Class<?> resolve(String className) {
+        if (ALLOWED_PREFIXES.stream().noneMatch(className::startsWith)) {
+            throw new SerializerException("Refusing to read cached value of type " + className);
+        }
+        try {
+            return Class.forName(className, false, CacheValueSerializer.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new SerializerException("Unknown cached value type " + className, e);
+        }
+    }
+}
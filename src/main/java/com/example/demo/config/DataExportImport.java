@@ -3,48 +3,125 @@ package com.example.demo.config;
 import com.example.demo.entity.User;
 import com.example.demo.entity.Project;
 import com.example.demo.entity.Task;
-import com.example.demo.repository.UserRepository;
-import com.example.demo.repository.ProjectRepository;
-import com.example.demo.repository.TaskRepository;
+import com.example.demo.service.BulkExportService;
+import com.example.demo.service.BulkExportService.ExportFormat;
+import com.example.demo.service.BulkExportService.ExportTable;
+import com.example.demo.service.BulkImportService;
+import com.example.demo.service.NegativeLookupCache;
+import com.example.demo.service.SnapshotService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.FileWriter;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
 @Component
 @Profile({"dev", "test"})
 public class DataExportImport {
     @Autowired
-    private UserRepository userRepository;
+    private BulkExportService bulkExportService;
     @Autowired
-    private ProjectRepository projectRepository;
+    private BulkImportService bulkImportService;
     @Autowired
-    private TaskRepository taskRepository;
+    private SnapshotService snapshotService;
+    @Autowired
+    private NegativeLookupCache negativeLookups;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Multiple of hibernate.jdbc.batch_size
+    private static final int IMPORT_CHUNK_SIZE = 500;
 
+    /**
+     * Single-file dump of every table as NDJSON sections, streamed row by row
+     */
     public void exportData(String filePath) throws IOException {
-        try (FileWriter writer = new FileWriter(filePath)) {
-            writer.write("-- Users --\n");
-            for (User user : userRepository.findAll()) {
-                writer.write(user.toString() + "\n");
-            }
-            writer.write("-- Projects --\n");
-            for (Project project : projectRepository.findAll()) {
-                writer.write(project.toString() + "\n");
-            }
-            writer.write("-- Tasks --\n");
-            for (Task task : taskRepository.findAll()) {
-                writer.write(task.toString() + "\n");
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(Path.of(filePath)), 65536)) {
+            for (ExportTable table : ExportTable.values()) {
+                output.write(("-- " + table.getTableName() + " --\n").getBytes(StandardCharsets.UTF_8));
+                bulkExportService.exportTable(table, ExportFormat.NDJSON, 0, output);
             }
         }
     }
 
-    // Import logic would parse a file and save entities
+    /**
+     * One file per table in {@code directory}, exported in parallel, see {@link BulkExportService}
+     */
+    public List<BulkExportService.ExportResult> exportData(Path directory, ExportFormat format, boolean gzip) throws IOException {
+        return bulkExportService.exportAll(directory, format, gzip);
+    }
+
+    /**
+     * Binary snapshot of users, projects, tasks and comments for cloning environments, see {@link SnapshotService}
+     */
+    public List<SnapshotService.SnapshotResult> createSnapshot(Path directory) throws IOException {
+        return snapshotService.createSnapshot(directory);
+    }
+
+    public List<SnapshotService.SnapshotResult> restoreSnapshot(Path directory, boolean replace) throws IOException {
+        return snapshotService.restoreSnapshot(directory, replace);
+    }
+
+    /**
+     * Streaming user import from an NDJSON or CSV file, see {@link BulkImportService}
+     */
+    public BulkImportService.ImportResult importUsers(Path file, BulkImportService.ImportFormat format) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return bulkImportService.importUsers(input, format);
+        }
+    }
+
+    /**
+     * Streaming project import from an NDJSON or CSV file, see {@link BulkImportService}
+     */
+    public BulkImportService.ImportResult importProjects(Path file, BulkImportService.ImportFormat format) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return bulkImportService.importProjects(input, format);
+        }
+    }
+
+    /**
+     * Streaming task import from an NDJSON or CSV file, see {@link BulkImportService}
+     */
+    public BulkImportService.ImportResult importTasks(Path file, BulkImportService.ImportFormat format) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return bulkImportService.importTasks(input, format);
+        }
+    }
+
+    // For entity graphs already in memory (fixtures); files go through the streaming imports above.
+    // Entities are flushed and detached every chunk, so the persistence context
+    // (and its dirty checking) never holds more than one chunk of rows
+    @Transactional
     public void importData(List<User> users, List<Project> projects, List<Task> tasks) {
-        userRepository.saveAll(users);
-        projectRepository.saveAll(projects);
-        taskRepository.saveAll(tasks);
+        persistInChunks(users);
+        persistInChunks(projects);
+        persistInChunks(tasks);
+        // Applied once the import commits
+        negativeLookups.clear(NegativeLookupCache.USER_EMAIL);
+        negativeLookups.clear(NegativeLookupCache.PROJECT);
+        negativeLookups.clear(NegativeLookupCache.TASK);
+    }
+
+    private void persistInChunks(List<?> entities) {
+        for (int i = 0; i < entities.size(); i++) {
+            entityManager.persist(entities.get(i));
+            if ((i + 1) % IMPORT_CHUNK_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
     }
 }
@@ -10,6 +10,8 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 @Profile({"dev", "test"})
 public class DataLoader implements CommandLineRunner {
@@ -28,19 +30,16 @@ public class DataLoader implements CommandLineRunner {
         // Sample Users
         User user1 = new User("alice", "alice@example.com", "password");
         User user2 = new User("bob", "bob@example.com", "password");
-        userRepository.save(user1);
-        userRepository.save(user2);
+        userRepository.saveAll(List.of(user1, user2));
 
         // Sample Projects
         Project project1 = new Project("Project Alpha", "First project", user1);
         Project project2 = new Project("Project Beta", "Second project", user2);
-        projectRepository.save(project1);
-        projectRepository.save(project2);
+        projectRepository.saveAll(List.of(project1, project2));
 
         // Sample Tasks
         Task task1 = new Task("Design DB", "Design the database schema", project1, user1);
         Task task2 = new Task("Implement API", "Develop REST API", project2, user2);
-        taskRepository.save(task1);
-        taskRepository.save(task2);
+        taskRepository.saveAll(List.of(task1, task2));
     }
 }
@@ -60,6 +60,9 @@ public class DatabaseIndexConfig {
         // Composite index for owner_id and created_at (for recent projects queries)
         executeSql("CREATE INDEX IF NOT EXISTS idx_projects_owner_created ON projects(owner_id, created_at DESC)");
         
+        // Keyset pagination index: seek on (created_at, id) within an owner
+        executeSql("CREATE INDEX IF NOT EXISTS idx_projects_owner_created_id ON projects(owner_id, created_at DESC, id DESC)");
+        
         // Index for name search (if using LIKE queries)
         executeSql("CREATE INDEX IF NOT EXISTS idx_projects_name ON projects(name)");
         
@@ -89,12 +92,20 @@ public class DatabaseIndexConfig {
         // Composite index for project and due date
         executeSql("CREATE INDEX IF NOT EXISTS idx_tasks_project_due_date ON tasks(project_id, due_date)");
         
+        // Keyset pagination indexes: seek on (due_date, id) without a sort step
+        executeSql("CREATE INDEX IF NOT EXISTS idx_tasks_project_due_date_id ON tasks(project_id, due_date, id)");
+        executeSql("CREATE INDEX IF NOT EXISTS idx_tasks_assignee_due_date_id ON tasks(assignee_id, due_date, id)");
+        executeSql("CREATE INDEX IF NOT EXISTS idx_tasks_due_date_id ON tasks(due_date, id)");
+        
         // Title search index (if using LIKE queries)
         executeSql("CREATE INDEX IF NOT EXISTS idx_tasks_title ON tasks(title)");
         
         // Updated_at index for synchronization
         executeSql("CREATE INDEX IF NOT EXISTS idx_tasks_updated ON tasks(updated_at DESC)");
         
+        // Created_at index for listings sorted by creation time
+        executeSql("CREATE INDEX IF NOT EXISTS idx_tasks_created ON tasks(created_at DESC)");
+        
         logger.debug("Task table indexes created");
     }
 
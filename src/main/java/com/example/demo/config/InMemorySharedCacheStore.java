@@ -0,0 +1,65 @@
+package com.example.demo.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local stand-in for the shared store, for tests and single-node development.
+ * Every {@link NearCache} in the JVM that is given this instance shares its entries.
+ * Entries expire {@code ttl} after they were written, so a missed invalidation cannot keep a
+ * stale value forever.
+ */
+public class InMemorySharedCacheStore implements SharedCacheStore {
+
+    private record Stored(Object value, long expiresAtNanos) {
+    }
+
+    private final Map<String, Map<Object, Stored>> caches = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+
+    public InMemorySharedCacheStore() {
+        this(Duration.ofMinutes(10));
+    }
+
+    public InMemorySharedCacheStore(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public Object get(String cacheName, Object key) {
+        Map<Object, Stored> cache = caches.get(cacheName);
+        Stored stored = cache != null ? cache.get(key) : null;
+        if (stored == null) {
+            return null;
+        }
+        if (System.nanoTime() - stored.expiresAtNanos() >= 0) {
+            cache.remove(key, stored);
+            return null;
+        }
+        return stored.value();
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value) {
+        Map<Object, Stored> cache = caches.computeIfAbsent(cacheName, name -> new ConcurrentHashMap<>());
+        long now = System.nanoTime();
+        cache.put(key, new Stored(value, now + ttlNanos));
+        if (cache.size() % 1024 == 0) {
+            cache.values().removeIf(stored -> now - stored.expiresAtNanos() >= 0);
+        }
+    }
+
+    @Override
+    public void evict(String cacheName, Object key) {
+        Map<Object, Stored> cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.remove(key);
+        }
+    }
+
+    @Override
+    public void clear(String cacheName) {
+        caches.remove(cacheName);
+    }
+}
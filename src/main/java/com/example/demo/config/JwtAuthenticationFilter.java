@@ -1,13 +1,15 @@
 package com.example.demo.config;
 
 import com.example.demo.entity.User;
-import com.example.demo.service.AuthService;
+import com.example.demo.service.JwtClaimsCache;
 import com.example.demo.service.JwtService;
+import com.example.demo.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,11 +23,18 @@ import java.util.Collections;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
+    @Autowired
+    private JwtClaimsCache jwtClaimsCache;
+    
     @Autowired
     private JwtService jwtService;
     
     @Autowired
-    private AuthService authService;
+    private TokenRevocationService tokenRevocationService;
+    
+    // Build the principal from the verified claims instead of loading the user
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean stateless;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -46,17 +55,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
         
         try {
-            // Extract user email from JWT token
-            userEmail = jwtService.getUsernameFromToken(jwt);
+            // Verify signature and expiry once, then reuse the claims for this token until the cache entry expires
+            JwtClaimsCache.VerifiedToken token = jwtClaimsCache.verify(jwt);
+            userEmail = token.subject();
             
             // If user email is extracted and no authentication is set in context
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null
+                    && !isRevoked(token)) {
                 
-                // Get user details from token
-                User user = authService.getUserFromToken(jwt);
+                // Get user details from the claims (stateless) or the short-lived principal cache
+                User user = stateless ? jwtService.getUserFromClaims(token.claims()) : jwtClaimsCache.principal(userEmail);
                 
-                // Validate token with user details
-                if (user != null && jwtService.validateToken(jwt, user)) {
+                // Token is verified and unexpired; it must still belong to this user
+                if (user != null && userEmail.equals(user.getEmail())) {
                     // Create authentication token
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             user,
@@ -80,6 +91,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * Tokens issued before the user's last logout from all devices, credential change or deletion
+     */
+    private boolean isRevoked(JwtClaimsCache.VerifiedToken token) {
+        boolean revoked = tokenRevocationService.isRevoked(
+                token.claims().get("userId", Long.class), token.claims().getIssuedAt());
+        if (revoked) {
+            logger.debug("Rejected revoked token for " + token.subject());
+        }
+        return revoked;
+    }
+    
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         String path = request.getRequestURI();
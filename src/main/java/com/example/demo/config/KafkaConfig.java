@@ -60,7 +60,7 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, Envelope> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
         factory.setConcurrency(4);
-        factory.getContainers().forEach(container -> container.setPollTimeout(3000));
+        factory.getContainerProperties().setPollTimeout(3000);
         return factory;
     }
 }
@@ -0,0 +1,69 @@
+package com.example.demo.config;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Hashes new passwords with the configured algorithm and cost ({@code app.security.password.*}),
+ * and verifies hashes of either supported format, told apart by their prefix ({@code $2a$}/{@code $2b$}/{@code $2y$}
+ * for BCrypt, {@code $argon2id$} for Argon2). {@link #upgradeEncoding} is true for any hash not made with
+ * the current algorithm and cost, lower or higher, so a changed setting is applied as users log in.
+ */
+public class MigratingPasswordEncoder implements PasswordEncoder {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+
+    private final String algorithm;
+    private final int bcryptStrength;
+    private final String argon2Parameters;
+    private final BCryptPasswordEncoder bcrypt;
+    private final Argon2PasswordEncoder argon2;
+
+    public MigratingPasswordEncoder(String algorithm, int bcryptStrength,
+                                    int argon2MemoryKb, int argon2Iterations, int argon2Parallelism) {
+        if (!BCRYPT.equals(algorithm) && !ARGON2.equals(algorithm)) {
+            throw new IllegalStateException("app.security.password.algorithm must be bcrypt or argon2, not " + algorithm);
+        }
+        this.algorithm = algorithm;
+        this.bcryptStrength = bcryptStrength;
+        this.argon2Parameters = "m=" + argon2MemoryKb + ",t=" + argon2Iterations + ",p=" + argon2Parallelism;
+        this.bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        this.argon2 = new Argon2PasswordEncoder(16, 32, argon2Parallelism, argon2MemoryKb, argon2Iterations);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ARGON2.equals(algorithm) ? argon2.encode(rawPassword) : bcrypt.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        return isArgon2(encodedPassword)
+                ? argon2.matches(rawPassword, encodedPassword)
+                : bcrypt.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        if (ARGON2.equals(algorithm)) {
+            // $argon2id$v=19$m=19456,t=2,p=1$salt$hash
+            String[] parts = encodedPassword.split("\\$");
+            return !isArgon2(encodedPassword) || parts.length < 4 || !argon2Parameters.equals(parts[3]);
+        }
+        // $2a$10$salthash
+        return isArgon2(encodedPassword) || encodedPassword.length() < 7
+                || !encodedPassword.startsWith(String.format("%02d$", bcryptStrength), 4);
+    }
+
+    private static boolean isArgon2(String encodedPassword) {
+        return encodedPassword.startsWith("$argon2");
+    }
+}
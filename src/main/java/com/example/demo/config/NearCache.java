@@ -0,0 +1,197 @@
+package com.example.demo.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+
+/**
+ * Near cache: the instance's own cache (L1) in front of an optional {@link SharedCacheStore} (L2).
+ *
+ * Reads fall through L1, then L2, then the loader, filling the levels above on the way back.
+ * Every write or eviction is applied to both levels and published, so the other instances drop
+ * their L1 copy instead of serving it until its TTL. Inside a transaction the L2 write and the
+ * invalidation happen after commit, and evictions are repeated then: an instance that reloaded the
+ * old row before the commit would otherwise put it back. Invalidations received from other instances
+ * only touch L1 ({@link #evictLocal}, {@link #clearLocal}) and are not published again.
+ * Keys rejected by {@code sharedKeys} stay in L1 only.
+ */
+public class NearCache implements Cache {
+
+    private final Cache local;
+    private final SharedCacheStore shared;
+    private final Predicate<Object> sharedKeys;
+    private final CacheInvalidationPublisher publisher;
+
+    public NearCache(Cache local, SharedCacheStore shared, Predicate<Object> sharedKeys, CacheInvalidationPublisher publisher) {
+        this.local = local;
+        this.shared = shared;
+        this.sharedKeys = sharedKeys;
+        this.publisher = publisher;
+    }
+
+    public Cache getLocal() {
+        return local;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper cached = local.get(key);
+        if (cached != null || !isShared(key)) {
+            return cached;
+        }
+        Object stored = shared.get(getName(), key);
+        if (stored == null) {
+            return null;
+        }
+        Object value = fromStoreValue(stored);
+        local.put(key, value);
+        return new SimpleValueWrapper(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // L1 keeps its single-flight and refresh behaviour; its loader reads through L2
+        return local.get(key, () -> loadThroughShared(key, valueLoader));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        local.put(key, value);
+        afterCommit(() -> {
+            if (isShared(key)) {
+                shared.put(getName(), key, toStoreValue(value));
+            }
+            publisher.evicted(getName(), key);
+        });
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = local.putIfAbsent(key, value);
+        if (existing == null) {
+            afterCommit(() -> {
+                if (isShared(key)) {
+                    shared.put(getName(), key, toStoreValue(value));
+                }
+                publisher.evicted(getName(), key);
+            });
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictBothLevels(key);
+        // Again after commit, in case the old value was reloaded in the meantime
+        afterCommit(() -> {
+            evictBothLevels(key);
+            publisher.evicted(getName(), key);
+        });
+    }
+
+    @Override
+    public void clear() {
+        clearBothLevels();
+        // Again after commit, in case the old value was reloaded in the meantime
+        afterCommit(() -> {
+            clearBothLevels();
+            publisher.cleared(getName());
+        });
+    }
+
+    /**
+     * Apply an eviction published by another instance
+     */
+    public void evictLocal(Object key) {
+        local.evict(key);
+    }
+
+    /**
+     * Apply a clear published by another instance
+     */
+    public void clearLocal() {
+        local.clear();
+    }
+
+    private void evictBothLevels(Object key) {
+        local.evict(key);
+        if (isShared(key)) {
+            shared.evict(getName(), key);
+        }
+    }
+
+    private void clearBothLevels() {
+        local.clear();
+        if (shared != null) {
+            shared.clear(getName());
+        }
+    }
+
+    /**
+     * Run once the current transaction has committed, or now if there is none
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T loadThroughShared(Object key, Callable<T> valueLoader) throws Exception {
+        if (!isShared(key)) {
+            return valueLoader.call();
+        }
+        Object stored = shared.get(getName(), key);
+        if (stored != null) {
+            return (T) fromStoreValue(stored);
+        }
+        T value = valueLoader.call();
+        shared.put(getName(), key, toStoreValue(value));
+        return value;
+    }
+
+    private boolean isShared(Object key) {
+        return shared != null && sharedKeys.test(key);
+    }
+
+    private static Object toStoreValue(Object value) {
+        return value != null ? value : NullValue.INSTANCE;
+    }
+
+    private static Object fromStoreValue(Object stored) {
+        return stored == NullValue.INSTANCE ? null : stored;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.demo.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -9,7 +10,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -28,8 +28,13 @@ public class SecurityConfig {
     private JwtAuthenticationFilter jwtAuthenticationFilter;
     
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.security.password.algorithm:bcrypt}") String algorithm,
+            @Value("${app.security.password.bcrypt.strength:10}") int bcryptStrength,
+            @Value("${app.security.password.argon2.memory-kb:19456}") int argon2MemoryKb,
+            @Value("${app.security.password.argon2.iterations:2}") int argon2Iterations,
+            @Value("${app.security.password.argon2.parallelism:1}") int argon2Parallelism) {
+        return new MigratingPasswordEncoder(algorithm, bcryptStrength, argon2MemoryKb, argon2Iterations, argon2Parallelism);
     }
     
     @Bean
@@ -76,6 +81,10 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.PUT, "/api/tasks/{id}").hasAnyRole("ADMIN", "PROJECT_MANAGER", "DEVELOPER")
                 .requestMatchers(HttpMethod.DELETE, "/api/tasks/{id}").hasAnyRole("ADMIN", "PROJECT_MANAGER")
                 
+                // Batch job and bulk data endpoints
+                .requestMatchers("/api/batch/**").hasRole("ADMIN")
+                .requestMatchers("/api/data/**").hasRole("ADMIN")
+                
                 // Comment endpoints
                 .requestMatchers(HttpMethod.GET, "/api/comments/**").authenticated()
                 .requestMatchers(HttpMethod.POST, "/api/comments").authenticated()
@@ -0,0 +1,21 @@
+package com.example.demo.config;
+
+/**
+ * Shared second-level store behind each instance's local caches in near-cache mode.
+ * Values are what Spring stores in a cache, with nulls as {@code NullValue}. Implementations
+ * should expire entries, since an entry written from a stale read is only corrected by the next
+ * write or eviction of the same key.
+ */
+public interface SharedCacheStore {
+
+    /**
+     * @return the stored value, or null when the key is not present
+     */
+    Object get(String cacheName, Object key);
+
+    void put(String cacheName, Object key, Object value);
+
+    void evict(String cacheName, Object key);
+
+    void clear(String cacheName);
+}
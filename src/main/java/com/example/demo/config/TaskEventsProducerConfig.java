@@ -0,0 +1,22 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.messaging.SubscribableChannel;
+
+@Configuration
+public class TaskEventsProducerConfig {
+
+    public static final String TASK_OUTPUT_RESULTS = "taskOutputResults";
+
+    /**
+     * The Kafka binder sends every task event here once the broker has acknowledged it, with the
+     * RecordMetadata in a header (record-metadata-channel of the taskOutput binding);
+     * KafkaMessageProducerService completes the matching send from it.
+     */
+    @Bean(TASK_OUTPUT_RESULTS)
+    public SubscribableChannel taskOutputResults() {
+        return new DirectChannel();
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Spring {@link org.springframework.cache.Cache} over a native Ehcache 3 cache, so regions
+ * can use heap, off-heap and disk tiers and expose Ehcache's per-tier statistics.
+ * Nulls are stored as Spring's {@code NullValue}, which {@link CacheValueSerializer} understands.
+ *
+ * Reads through {@code @Cacheable(sync = true)} are protected against stampedes:
+ * <ul>
+ *   <li>concurrent misses on a key wait for a single loader (single-flight)</li>
+ *   <li>a fresh entry is refreshed in the background slightly before it expires, with a probability
+ *       that grows as expiry nears and with how long the entry took to load (XFetch, scaled by {@code beta})</li>
+ *   <li>an entry past its TTL but within the stale-while-revalidate window is still served
+ *       while one background load replaces it</li>
+ * </ul>
+ * Plain {@code @Cacheable} reads have no loader to refresh with, so they treat stale entries as misses.
+ */
+public class TieredCache extends AbstractValueAdaptingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TieredCache.class);
+
+    /**
+     * What is stored in Ehcache: the value plus when and how fast it was loaded
+     */
+    public record Entry(Object value, long loadedAt, long loadMillis) {
+    }
+
+    private final String name;
+    private final org.ehcache.Cache<Object, Object> cache;
+    private final long freshMillis;
+    private final double beta;
+    private final Executor refresher;
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+
+    private volatile Consumer<Object> accessListener;
+
+    /**
+     * Cache with single-flight loading only; entries stay fresh until Ehcache expires them
+     */
+    public TieredCache(String name, org.ehcache.Cache<Object, Object> cache) {
+        this(name, cache, null, 0, null);
+    }
+
+    /**
+     * @param ttl       how long an entry is fresh; Ehcache's own expiry must add the stale window on top
+     * @param beta      XFetch aggressiveness, 0 disables early refresh
+     * @param refresher runs background refreshes
+     */
+    public TieredCache(String name, org.ehcache.Cache<Object, Object> cache, Duration ttl, double beta, Executor refresher) {
+        super(true);
+        this.name = name;
+        this.cache = cache;
+        this.freshMillis = ttl != null && refresher != null ? ttl.toMillis() : 0;
+        this.beta = beta;
+        this.refresher = refresher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public org.ehcache.Cache<Object, Object> getNativeCache() {
+        return cache;
+    }
+
+    /**
+     * Called with the key of every read, hit or miss
+     */
+    public void setAccessListener(Consumer<Object> accessListener) {
+        this.accessListener = accessListener;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        recordAccess(key);
+        Entry entry = (Entry) cache.get(key);
+        if (entry == null || isStale(entry, System.currentTimeMillis())) {
+            return null;
+        }
+        return entry.value();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        recordAccess(key);
+        Entry entry = (Entry) cache.get(key);
+        if (entry != null) {
+            long now = System.currentTimeMillis();
+            if (isStale(entry, now)) {
+                staleHits.increment();
+                refreshAsync(key, entry, valueLoader);
+            } else if (shouldRefreshEarly(entry, now)) {
+                earlyRefreshes.increment();
+                refreshAsync(key, entry, valueLoader);
+            }
+            return (T) fromStoreValue(entry.value());
+        }
+        return (T) fromStoreValue(load(key, valueLoader));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        cache.put(key, new Entry(toStoreValue(value), System.currentTimeMillis(), 0));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        Entry previous = (Entry) cache.putIfAbsent(key, new Entry(toStoreValue(value), System.currentTimeMillis(), 0));
+        return previous != null ? toValueWrapper(previous.value()) : null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        cache.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        cache.clear();
+    }
+
+    public long getCoalescedLoads() {
+        return coalescedLoads.sum();
+    }
+
+    public long getEarlyRefreshes() {
+        return earlyRefreshes.sum();
+    }
+
+    public long getStaleHits() {
+        return staleHits.sum();
+    }
+
+    /**
+     * Load on a miss; a caller that finds a load already running for the key waits for its result
+     */
+    private Object load(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            coalescedLoads.increment();
+            return await(running, key, valueLoader);
+        }
+        try {
+            // A flight that finished between our miss and putIfAbsent has already stored the value
+            Entry stored = (Entry) cache.get(key);
+            Entry loaded = stored != null ? stored : loadEntry(valueLoader);
+            if (stored == null) {
+                cache.put(key, loaded);
+            }
+            flight.complete(loaded.value());
+            return loaded.value();
+        } catch (Throwable ex) {
+            flight.completeExceptionally(ex);
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Replace {@code current} in the background, unless a load for the key is already running.
+     * The new entry only replaces {@code current}, so a concurrent evict or put wins over the refresh.
+     */
+    private void refreshAsync(Object key, Entry current, Callable<?> valueLoader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, flight) != null) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    Entry loaded = loadEntry(valueLoader);
+                    cache.replace(key, current, loaded);
+                    flight.complete(loaded.value());
+                } catch (Throwable ex) {
+                    logger.warn("Background refresh of {} in cache {} failed: {}", key, name, ex.getMessage());
+                    flight.complete(current.value());
+                } finally {
+                    inFlight.remove(key, flight);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // Refresh pool saturated: keep serving the current entry, a later read retries
+            inFlight.remove(key, flight);
+            flight.complete(current.value());
+        }
+    }
+
+    private Entry loadEntry(Callable<?> valueLoader) throws Exception {
+        long start = System.nanoTime();
+        Object value = toStoreValue(valueLoader.call());
+        return new Entry(value, System.currentTimeMillis(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private Object await(CompletableFuture<Object> flight, Object key, Callable<?> valueLoader) {
+        try {
+            return flight.get();
+        } catch (ExecutionException ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+    }
+
+    private void recordAccess(Object key) {
+        Consumer<Object> listener = accessListener;
+        if (listener != null) {
+            listener.accept(key);
+        }
+    }
+
+    private boolean isStale(Entry entry, long now) {
+        return freshMillis > 0 && now - entry.loadedAt() >= freshMillis;
+    }
+
+    /**
+     * XFetch: refresh when -loadMillis * beta * ln(random) reaches the time left until expiry
+     */
+    private boolean shouldRefreshEarly(Entry entry, long now) {
+        if (freshMillis <= 0 || beta <= 0 || entry.loadMillis() <= 0) {
+            return false;
+        }
+        long remaining = entry.loadedAt() + freshMillis - now;
+        double gap = -entry.loadMillis() * beta * Math.log(ThreadLocalRandom.current().nextDouble());
+        return gap >= remaining;
+    }
+}
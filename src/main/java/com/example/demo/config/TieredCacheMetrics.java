@@ -0,0 +1,103 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.core.statistics.TierStatistics;
+
+import java.util.Map;
+
+/**
+ * Standard cache.gets / cache.puts / cache.evictions / cache.size meters for a {@link TieredCache},
+ * plus per-tier meters tagged with tier=OnHeap|OffHeap|Disk:
+ * cache.tier.gets (result=hit|miss), cache.tier.evictions, cache.tier.entries and cache.tier.bytes.
+ * Stampede protection is visible as cache.loads.coalesced and cache.refreshes (trigger=early|stale).
+ */
+public class TieredCacheMetrics extends CacheMeterBinder<TieredCache> {
+
+    private final CacheStatistics statistics;
+
+    public TieredCacheMetrics(TieredCache cache, CacheStatistics statistics, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+        this.statistics = statistics;
+    }
+
+    @Override
+    protected Long size() {
+        // The lowest (authoritative) tier holds every mapping
+        return statistics.getTierStatistics().values().stream()
+                .mapToLong(TierStatistics::getMappings)
+                .max()
+                .orElse(0);
+    }
+
+    @Override
+    protected long hitCount() {
+        return statistics.getCacheHits();
+    }
+
+    @Override
+    protected Long missCount() {
+        return statistics.getCacheMisses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return statistics.getCacheEvictions();
+    }
+
+    @Override
+    protected long putCount() {
+        return statistics.getCachePuts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TieredCache cache = getCache();
+        if (cache != null) {
+            FunctionCounter.builder("cache.loads.coalesced", cache, TieredCache::getCoalescedLoads)
+                    .tags(getTagsWithCacheName())
+                    .description("Misses that waited for a load already running for the same key")
+                    .register(registry);
+            FunctionCounter.builder("cache.refreshes", cache, TieredCache::getEarlyRefreshes)
+                    .tags(getTagsWithCacheName()).tag("trigger", "early")
+                    .description("Background refreshes started before the entry expired")
+                    .register(registry);
+            FunctionCounter.builder("cache.refreshes", cache, TieredCache::getStaleHits)
+                    .tags(getTagsWithCacheName()).tag("trigger", "stale")
+                    .description("Stale entries served while being refreshed in the background")
+                    .register(registry);
+        }
+
+        for (Map.Entry<String, TierStatistics> tier : statistics.getTierStatistics().entrySet()) {
+            Tags tags = Tags.of(getTagsWithCacheName()).and("tier", tier.getKey());
+            TierStatistics tierStatistics = tier.getValue();
+
+            FunctionCounter.builder("cache.tier.gets", tierStatistics, TierStatistics::getHits)
+                    .tags(tags).tag("result", "hit")
+                    .description("Lookups answered by this tier")
+                    .register(registry);
+            FunctionCounter.builder("cache.tier.gets", tierStatistics, TierStatistics::getMisses)
+                    .tags(tags).tag("result", "miss")
+                    .description("Lookups this tier could not answer")
+                    .register(registry);
+            FunctionCounter.builder("cache.tier.evictions", tierStatistics, TierStatistics::getEvictions)
+                    .tags(tags)
+                    .description("Entries evicted from this tier")
+                    .register(registry);
+            Gauge.builder("cache.tier.entries", tierStatistics, TierStatistics::getMappings)
+                    .tags(tags)
+                    .description("Entries held by this tier")
+                    .register(registry);
+            Gauge.builder("cache.tier.bytes", tierStatistics, TierStatistics::getOccupiedByteSize)
+                    .tags(tags)
+                    .baseUnit("bytes")
+                    .description("Bytes occupied by this tier, -1 for entry-sized heap tiers")
+                    .register(registry);
+        }
+    }
+}
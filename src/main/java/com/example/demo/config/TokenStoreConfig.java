@@ -9,6 +9,7 @@ public class TokenStoreConfig {
     
     /**
      * Database-based token storage is configured automatically via @Service annotation
-     * on DatabaseTokenStoreService. Scheduling is enabled for automatic token cleanup.
+     * on DatabaseTokenStoreService; app.token.store.type=memory puts InMemoryTokenStoreService
+     * in front of it. Scheduling is enabled for automatic token cleanup.
      */
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.example.demo.dto.response.ApiResponse;
 import com.example.demo.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -35,8 +36,9 @@ public class AuthController {
      */
     @PostMapping("/login")
     @Operation(summary = "Login user", description = "Authenticate user with email and password")
-    public ResponseEntity<ApiResponse<AuthResponseDTO>> login(@Valid @RequestBody AuthLoginDTO loginDTO) {
-        AuthResponseDTO authResponse = authService.login(loginDTO);
+    public ResponseEntity<ApiResponse<AuthResponseDTO>> login(@Valid @RequestBody AuthLoginDTO loginDTO,
+                                                              HttpServletRequest request) {
+        AuthResponseDTO authResponse = authService.login(loginDTO, request.getRemoteAddr());
         ApiResponse<AuthResponseDTO> response = ApiResponse.success(authResponse, "Login successful");
         return ResponseEntity.ok(response);
     }
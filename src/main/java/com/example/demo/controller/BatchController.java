@@ -0,0 +1,47 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.response.ApiResponse;
+import com.example.demo.entity.TaskStatus;
+import com.example.demo.service.BatchProcessingService;
+import com.example.demo.service.BatchProcessingService.BatchProcessingResult;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/batch/projects")
+@Tag(name = "Batch Operations", description = "Partitioned bulk updates over a project's tasks")
+public class BatchController {
+
+    @Autowired
+    private BatchProcessingService batchProcessingService;
+
+    /**
+     * PUT /api/batch/projects/{projectId}/tasks/status - Set the status of every task in a project
+     */
+    @PutMapping("/{projectId}/tasks/status")
+    @Operation(summary = "Update project task status", description = "Updates every task of the project in parallel id-range partitions, each committed chunk by chunk")
+    public ResponseEntity<ApiResponse<BatchProcessingResult>> updateTaskStatus(
+            @PathVariable Long projectId,
+            @RequestParam TaskStatus status,
+            @Parameter(description = "Partitions to split the id range into; 0 = one per batch worker") @RequestParam(defaultValue = "0") int partitions) {
+        BatchProcessingResult result = batchProcessingService.updateTaskStatusInParallel(projectId, status, partitions);
+        return ResponseEntity.ok(ApiResponse.success(result, String.format("Updated %d tasks", result.getTotalUpdated())));
+    }
+
+    /**
+     * PUT /api/batch/projects/{projectId}/tasks/assignee - Reassign every task in a project
+     */
+    @PutMapping("/{projectId}/tasks/assignee")
+    @Operation(summary = "Reassign project tasks", description = "Assigns every task of the project to one user in parallel id-range partitions")
+    public ResponseEntity<ApiResponse<BatchProcessingResult>> reassignTasks(
+            @PathVariable Long projectId,
+            @RequestParam Long assigneeId,
+            @Parameter(description = "Partitions to split the id range into; 0 = one per batch worker") @RequestParam(defaultValue = "0") int partitions) {
+        BatchProcessingResult result = batchProcessingService.reassignProjectTasksInParallel(projectId, assigneeId, partitions);
+        return ResponseEntity.ok(ApiResponse.success(result, String.format("Reassigned %d tasks", result.getTotalUpdated())));
+    }
+}
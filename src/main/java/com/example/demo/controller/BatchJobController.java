@@ -0,0 +1,64 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.BatchJobDTO;
+import com.example.demo.dto.response.ApiResponse;
+import com.example.demo.entity.BatchJobStatus;
+import com.example.demo.service.BatchJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/batch/jobs")
+@Tag(name = "Batch Jobs", description = "Resumable batch job endpoints")
+public class BatchJobController {
+    
+    @Autowired
+    private BatchJobService batchJobService;
+    
+    /**
+     * POST /api/batch/jobs/{jobType} - Submit a batch job
+     */
+    @PostMapping("/{jobType}")
+    @Operation(summary = "Submit batch job", description = "Queues a checkpointed batch job (overdue-tasks, status-update, timestamp-refresh)")
+    public ResponseEntity<ApiResponse<BatchJobDTO>> submitJob(@PathVariable String jobType,
+                                                             @RequestBody(required = false) Map<String, String> parameters) {
+        BatchJobDTO job = batchJobService.submit(jobType, parameters);
+        return new ResponseEntity<>(ApiResponse.success(job, "Batch job submitted"), HttpStatus.ACCEPTED);
+    }
+    
+    /**
+     * GET /api/batch/jobs - List recent jobs, optionally by status
+     */
+    @GetMapping
+    @Operation(summary = "List batch jobs", description = "Lists recent batch jobs, optionally filtered by status")
+    public ResponseEntity<ApiResponse<List<BatchJobDTO>>> getJobs(@RequestParam(required = false) BatchJobStatus status) {
+        List<BatchJobDTO> jobs = batchJobService.getJobs(status);
+        return ResponseEntity.ok(ApiResponse.success(jobs, String.format("Retrieved %d batch jobs", jobs.size())));
+    }
+    
+    /**
+     * GET /api/batch/jobs/{id} - Job status, checkpoint and throughput
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Get batch job", description = "Returns status, last checkpoint and throughput of a batch job")
+    public ResponseEntity<ApiResponse<BatchJobDTO>> getJob(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(batchJobService.getJob(id)));
+    }
+    
+    /**
+     * POST /api/batch/jobs/{id}/restart - Resume a failed job from its checkpoint
+     */
+    @PostMapping("/{id}/restart")
+    @Operation(summary = "Restart batch job", description = "Resumes a failed batch job after its last checkpointed id")
+    public ResponseEntity<ApiResponse<BatchJobDTO>> restartJob(@PathVariable Long id) {
+        BatchJobDTO job = batchJobService.restart(id);
+        return new ResponseEntity<>(ApiResponse.success(job, "Batch job restarted"), HttpStatus.ACCEPTED);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.response.ApiResponse;
+import com.example.demo.service.BulkExportService;
+import com.example.demo.service.BulkImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/data")
+@Tag(name = "Data Transfer", description = "Bulk import and export endpoints")
+public class DataTransferController {
+    
+    @Autowired
+    private BulkImportService bulkImportService;
+    
+    @Autowired
+    private BulkExportService bulkExportService;
+    
+    /**
+     * POST /api/data/import/users - Stream users from an NDJSON or CSV request body
+     */
+    @PostMapping("/import/users")
+    @Operation(summary = "Bulk import users", description = "Imports users (username, email, password, role) from an NDJSON or CSV (with header) request body")
+    public ResponseEntity<ApiResponse<BulkImportService.ImportResult>> importUsers(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) throws IOException {
+        return imported(bulkImportService.importUsers(request.getInputStream(), BulkImportService.ImportFormat.from(format)));
+    }
+    
+    /**
+     * POST /api/data/import/projects - Stream projects from an NDJSON or CSV request body
+     */
+    @PostMapping("/import/projects")
+    @Operation(summary = "Bulk import projects", description = "Imports projects (name, description, ownerId) from an NDJSON or CSV (with header) request body")
+    public ResponseEntity<ApiResponse<BulkImportService.ImportResult>> importProjects(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) throws IOException {
+        return imported(bulkImportService.importProjects(request.getInputStream(), BulkImportService.ImportFormat.from(format)));
+    }
+    
+    /**
+     * POST /api/data/import/tasks - Stream tasks from an NDJSON or CSV request body
+     * The body is read incrementally, it is never buffered as a whole.
+     */
+    @PostMapping("/import/tasks")
+    @Operation(summary = "Bulk import tasks", description = "Imports tasks from an NDJSON or CSV (with header) request body")
+    public ResponseEntity<ApiResponse<BulkImportService.ImportResult>> importTasks(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) throws IOException {
+        return imported(bulkImportService.importTasks(request.getInputStream(), BulkImportService.ImportFormat.from(format)));
+    }
+    
+    private static ResponseEntity<ApiResponse<BulkImportService.ImportResult>> imported(BulkImportService.ImportResult result) {
+        return ResponseEntity.ok(ApiResponse.success(result, String.format(
+                "Imported %d of %d rows (%.0f rows/sec)", result.rowsImported(), result.rowsRead(), result.rowsPerSecond())));
+    }
+    
+    /**
+     * GET /api/data/export/{table} - Stream a table as NDJSON or CSV, optionally gzipped
+     * Rows are written to the response as they are read. An interrupted download is resumed
+     * with afterId set to the id of the last complete row received.
+     */
+    @GetMapping("/export/{table}")
+    @Operation(summary = "Bulk export a table", description = "Streams users, projects, tasks or comments in id order; resumable via afterId")
+    public void exportTable(
+            @PathVariable String table,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(defaultValue = "0") long afterId,
+            HttpServletResponse response) throws IOException {
+        BulkExportService.ExportTable exportTable = BulkExportService.ExportTable.from(table);
+        BulkExportService.ExportFormat exportFormat = BulkExportService.ExportFormat.from(format);
+        
+        response.setContentType(gzip ? "application/gzip" : exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + BulkExportService.fileName(exportTable, exportFormat, gzip) + "\"");
+        
+        OutputStream output = response.getOutputStream();
+        if (gzip) {
+            GZIPOutputStream compressed = new GZIPOutputStream(output, 8192);
+            bulkExportService.exportTable(exportTable, exportFormat, afterId, compressed);
+            compressed.finish();
+        } else {
+            bulkExportService.exportTable(exportTable, exportFormat, afterId, output);
+        }
+        output.flush();
+    }
+}
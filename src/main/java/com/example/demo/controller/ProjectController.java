@@ -2,6 +2,7 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.*;
 import com.example.demo.dto.response.ApiResponse;
+import com.example.demo.dto.response.CursorPage;
 import com.example.demo.service.ProjectService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -77,6 +78,20 @@ public class ProjectController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * GET /api/projects/owner/{ownerId}/cursor - Keyset-paginated projects for an owner
+     */
+    @GetMapping("/owner/{ownerId}/cursor")
+    @Operation(summary = "List owner projects with a cursor", description = "Newest projects first; pass nextCursor as 'after' to continue")
+    public ResponseEntity<ApiResponse<CursorPage<ProjectDTO>>> getProjectsByOwnerCursor(
+            @PathVariable Long ownerId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<ProjectDTO> page = projectService.getProjectsByOwnerAfter(ownerId, after, limit);
+        ApiResponse<CursorPage<ProjectDTO>> response = ApiResponse.success(page, "Retrieved projects page");
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * PUT /api/projects/{id} - Full update of project
      */
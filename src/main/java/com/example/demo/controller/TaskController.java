@@ -2,6 +2,7 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.*;
 import com.example.demo.dto.response.ApiResponse;
+import com.example.demo.dto.response.CursorPage;
 import com.example.demo.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -25,21 +26,42 @@ public class TaskController {
     private TaskService taskService;
     
     @GetMapping
-    @Operation(summary = "Get all tasks", description = "Retrieves all tasks with optional filters")
+    @Operation(summary = "Get all tasks", description = "Retrieves tasks with optional filters, up to app.tasks.list.max-results; use /cursor to page through more")
     @io.swagger.v3.oas.annotations.responses.ApiResponses({
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Tasks retrieved")
     })
-    public ResponseEntity<ApiResponse<List<TaskDTO>>> getAllTasks(
+    public ResponseEntity<ApiResponse<List<TaskSummaryDTO>>> getAllTasks(
             @Parameter(description = "Assignee ID") @RequestParam(required = false) Long assigneeId,
             @Parameter(description = "Project ID") @RequestParam(required = false) Long projectId,
             @Parameter(description = "Task status") @RequestParam(required = false) String status,
-            @Parameter(description = "Task priority") @RequestParam(required = false) String priority) {
+            @Parameter(description = "Task priority") @RequestParam(required = false) String priority,
+            @Parameter(description = "Sort field (dueDate, priority, status, createdAt, updatedAt, title)") @RequestParam(defaultValue = "dueDate") String sortBy,
+            @Parameter(description = "Sort direction (ASC or DESC)") @RequestParam(defaultValue = "ASC") String direction) {
         
-    List<TaskDTO> tasks = taskService.getAllTasks(assigneeId, projectId, status, priority);
-    ApiResponse<List<TaskDTO>> response = ApiResponse.success(tasks, "Retrieved all tasks");
+    List<TaskSummaryDTO> tasks = taskService.getAllTasks(assigneeId, projectId, status, priority, sortBy, direction);
+    ApiResponse<List<TaskSummaryDTO>> response = ApiResponse.success(tasks, "Retrieved all tasks");
     return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/cursor")
+    @Operation(summary = "List tasks with a cursor", description = "Keyset-paginated task listing ordered by due date; pass nextCursor as 'after' to continue")
+    @io.swagger.v3.oas.annotations.responses.ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Tasks retrieved"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor or filter")
+    })
+    public ResponseEntity<ApiResponse<CursorPage<TaskSummaryDTO>>> getTasksByCursor(
+            @Parameter(description = "Assignee ID") @RequestParam(required = false) Long assigneeId,
+            @Parameter(description = "Project ID") @RequestParam(required = false) Long projectId,
+            @Parameter(description = "Task status") @RequestParam(required = false) String status,
+            @Parameter(description = "Task priority") @RequestParam(required = false) String priority,
+            @Parameter(description = "Opaque cursor from the previous page") @RequestParam(required = false) String after,
+            @Parameter(description = "Page size (max 500)") @RequestParam(required = false) Integer limit) {
+        
+        CursorPage<TaskSummaryDTO> page = taskService.getTasksAfter(assigneeId, projectId, status, priority, after, limit);
+        ApiResponse<CursorPage<TaskSummaryDTO>> response = ApiResponse.success(page, "Retrieved tasks page");
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get task by ID", description = "Retrieves a task by its ID")
     @io.swagger.v3.oas.annotations.responses.ApiResponses({
@@ -0,0 +1,26 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Status of a batch job, including the last checkpoint and current-run throughput
+ */
+public record BatchJobDTO(
+    Long id,
+    String jobType,
+    String status,
+    Map<String, String> parameters,
+    Long lastProcessedId,
+    Long processedCount,
+    Long updatedCount,
+    Integer chunksCompleted,
+    Integer attempt,
+    String errorMessage,
+    LocalDateTime createdAt,
+    LocalDateTime startedAt,
+    LocalDateTime heartbeatAt,
+    LocalDateTime completedAt,
+    double rowsPerSecond
+) {
+}
@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Cache invalidation broadcast to every instance over the cache-invalidations topic.
+ * EVICT carries an encoded key, CLEAR drops a whole cache, TAGS bumps list-cache tags.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CacheInvalidationMessageDTO(String origin, String action, String cacheName, String key, List<String> tags) {
+
+    public static final String EVICT = "EVICT";
+    public static final String CLEAR = "CLEAR";
+    public static final String TAGS = "TAGS";
+}
@@ -0,0 +1,12 @@
+package com.example.demo.dto;
+
+/**
+ * One project row as read from an NDJSON or CSV import file.
+ * Values are kept as text, see {@link TaskImportDTO}.
+ */
+public record ProjectImportDTO(
+    String name,
+    String description,
+    String ownerId
+) {
+}
@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+/**
+ * One task row as read from an NDJSON or CSV import file.
+ * Values are kept as text so a malformed field is reported against its row
+ * instead of aborting the whole file; conversion happens during validation.
+ */
+public record TaskImportDTO(
+    String title,
+    String description,
+    String status,
+    String priority,
+    String dueDate,
+    String projectId,
+    String assigneeId
+) {
+}
@@ -0,0 +1,32 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Priority;
+import com.example.demo.entity.TaskStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight read-only projection of a task used by list endpoints.
+ * Built directly from a constructor expression so no Task entity is hydrated.
+ */
+public record TaskSummaryDTO(
+    Long id,
+    String title,
+    String status,
+    String priority,
+    LocalDateTime dueDate,
+    Long projectId,
+    Long assigneeId,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {
+
+    // Constructor used by the criteria query (enum columns are converted here)
+    public TaskSummaryDTO(Long id, String title, TaskStatus status, Priority priority, LocalDateTime dueDate,
+                          Long projectId, Long assigneeId, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, title,
+             status != null ? status.name() : null,
+             priority == Priority.CRITICAL ? "URGENT" : (priority != null ? priority.name() : null),
+             dueDate, projectId, assigneeId, createdAt, updatedAt);
+    }
+}
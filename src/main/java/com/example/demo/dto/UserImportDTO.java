@@ -0,0 +1,13 @@
+package com.example.demo.dto;
+
+/**
+ * One user row as read from an NDJSON or CSV import file.
+ * Values are kept as text, see {@link TaskImportDTO}; the password is hashed during validation.
+ */
+public record UserImportDTO(
+    String username,
+    String email,
+    String password,
+    String role
+) {
+}
@@ -0,0 +1,142 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Persistent record of a batch job run.
+ * Every committed chunk advances {@code lastProcessedId}, so a job interrupted by a
+ * restart or failure resumes after the last checkpoint instead of starting over.
+ * {@code attempt} is bumped whenever a worker claims the job and fences checkpoints
+ * written by a previous, stale worker.
+ */
+@Entity
+@Table(name = "batch_jobs", indexes = {
+    @Index(name = "idx_batch_jobs_status_heartbeat", columnList = "status, heartbeat_at"),
+    @Index(name = "idx_batch_jobs_type_status", columnList = "job_type, status")
+})
+public class BatchJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "job_type", nullable = false, length = 64)
+    private String jobType;
+    
+    @Column(name = "parameters", length = 2000)
+    private String parameters;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private BatchJobStatus status = BatchJobStatus.PENDING;
+    
+    @Column(name = "last_processed_id", nullable = false)
+    private Long lastProcessedId = 0L;
+    
+    @Column(name = "processed_count", nullable = false)
+    private Long processedCount = 0L;
+    
+    // processedCount when the current attempt started, used for per-run throughput
+    @Column(name = "processed_at_start", nullable = false)
+    private Long processedAtStart = 0L;
+    
+    @Column(name = "updated_count", nullable = false)
+    private Long updatedCount = 0L;
+    
+    @Column(name = "chunks_completed", nullable = false)
+    private Integer chunksCompleted = 0;
+    
+    @Column(name = "attempt", nullable = false)
+    private Integer attempt = 0;
+    
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    // Constructors
+    public BatchJob() {
+        this.createdAt = LocalDateTime.now();
+        this.heartbeatAt = this.createdAt;
+    }
+    
+    public BatchJob(String jobType, String parameters) {
+        this();
+        this.jobType = jobType;
+        this.parameters = parameters;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getJobType() { return jobType; }
+    public void setJobType(String jobType) { this.jobType = jobType; }
+    
+    public String getParameters() { return parameters; }
+    public void setParameters(String parameters) { this.parameters = parameters; }
+    
+    public BatchJobStatus getStatus() { return status; }
+    public void setStatus(BatchJobStatus status) { this.status = status; }
+    
+    public Long getLastProcessedId() { return lastProcessedId; }
+    public void setLastProcessedId(Long lastProcessedId) { this.lastProcessedId = lastProcessedId; }
+    
+    public Long getProcessedCount() { return processedCount; }
+    public void setProcessedCount(Long processedCount) { this.processedCount = processedCount; }
+    
+    public Long getProcessedAtStart() { return processedAtStart; }
+    public void setProcessedAtStart(Long processedAtStart) { this.processedAtStart = processedAtStart; }
+    
+    public Long getUpdatedCount() { return updatedCount; }
+    public void setUpdatedCount(Long updatedCount) { this.updatedCount = updatedCount; }
+    
+    public Integer getChunksCompleted() { return chunksCompleted; }
+    public void setChunksCompleted(Integer chunksCompleted) { this.chunksCompleted = chunksCompleted; }
+    
+    public Integer getAttempt() { return attempt; }
+    public void setAttempt(Integer attempt) { this.attempt = attempt; }
+    
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    
+    public LocalDateTime getHeartbeatAt() { return heartbeatAt; }
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) { this.heartbeatAt = heartbeatAt; }
+    
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+    
+    // Utility methods
+    public boolean isFinished() {
+        return status == BatchJobStatus.COMPLETED || status == BatchJobStatus.FAILED;
+    }
+    
+    @Override
+    public String toString() {
+        return "BatchJob{" +
+                "id=" + id +
+                ", jobType='" + jobType + '\'' +
+                ", status=" + status +
+                ", lastProcessedId=" + lastProcessedId +
+                ", processedCount=" + processedCount +
+                ", attempt=" + attempt +
+                '}';
+    }
+}
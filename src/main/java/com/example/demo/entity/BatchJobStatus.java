@@ -0,0 +1,8 @@
+package com.example.demo.entity;
+
+public enum BatchJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,96 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Persisted access frequency of a cached entity, used to pick the keys preloaded at startup.
+ * {@code score} is a decayed hit count: once per snapshot interval the score is halved (by default),
+ * and every snapshot adds the hits seen since, so keys that stopped being read drop out over time.
+ * {@code updated_at} is when the score was last decayed.
+ * Rows are written with plain JDBC by {@code CacheAccessTracker}; the entity defines the schema.
+ */
+@Entity
+@Table(name = "cache_access_stats", indexes = {
+    @Index(name = "idx_cache_access_stats_region_score", columnList = "region, score")
+})
+@IdClass(CacheAccessStat.Key.class)
+public class CacheAccessStat {
+
+    @Id
+    @Column(name = "region", length = 32)
+    private String region;
+
+    @Id
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(name = "score", nullable = false)
+    private Double score;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public CacheAccessStat() {
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public static class Key implements Serializable {
+
+        private String region;
+        private Long entityId;
+
+        public Key() {
+        }
+
+        public Key(String region, Long entityId) {
+            this.region = region;
+            this.entityId = entityId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(region, key.region) && Objects.equals(entityId, key.entityId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(region, entityId);
+        }
+    }
+}
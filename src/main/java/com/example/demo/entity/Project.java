@@ -43,7 +43,8 @@ import java.util.List;
 public class Project {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_seq")
+    @SequenceGenerator(name = "project_seq", sequenceName = "projects_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Project name is required")
@@ -0,0 +1,37 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Access tokens of a user issued before {@code revokedBefore} are no longer accepted.
+ * Written on logout from all devices, password or role changes and deletion; kept in memory
+ * by {@code TokenRevocationService} so checking a token needs no database access.
+ */
+@Entity
+@Table(name = "token_revocations", indexes = {
+    @Index(name = "idx_token_revocations_revoked_before", columnList = "revoked_before")
+})
+public class TokenRevocation {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "revoked_before", nullable = false)
+    private LocalDateTime revokedBefore;
+
+    public TokenRevocation() {
+    }
+
+    public TokenRevocation(Long userId, LocalDateTime revokedBefore) {
+        this.userId = userId;
+        this.revokedBefore = revokedBefore;
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public LocalDateTime getRevokedBefore() { return revokedBefore; }
+    public void setRevokedBefore(LocalDateTime revokedBefore) { this.revokedBefore = revokedBefore; }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.exception;
+
+/**
+ * Exception thrown when a bounded resource is saturated and the request is refused
+ * rather than queued; the client may retry shortly
+ * Typically results in HTTP 503 status
+ */
+public class ServiceBusyException extends BaseException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
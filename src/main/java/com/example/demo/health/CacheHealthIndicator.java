@@ -5,6 +5,7 @@ import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.CacheManager;
+import com.example.demo.service.CacheWarmupService;
 
 import java.util.Objects;
 
@@ -17,6 +18,9 @@ public class CacheHealthIndicator implements HealthIndicator {
     @Autowired(required = false)
     private CacheManager cacheManager;
 
+    @Autowired(required = false)
+    private CacheWarmupService cacheWarmupService;
+
     @Override
     public Health health() {
         if (cacheManager == null) {
@@ -26,6 +30,14 @@ public class CacheHealthIndicator implements HealthIndicator {
                     .build();
         }
 
+        // Keep the instance out of rotation until the startup warm-up has finished or timed out
+        if (cacheWarmupService != null && !cacheWarmupService.isComplete()) {
+            return Health.outOfService()
+                    .withDetail("cache", "warming_up")
+                    .withDetail("warmup_state", cacheWarmupService.getState())
+                    .build();
+        }
+
         try {
             // Get cache names to verify cache manager is working
             var cacheNames = cacheManager.getCacheNames();
@@ -53,6 +65,16 @@ public class CacheHealthIndicator implements HealthIndicator {
                 status.withDetail("warning", "Some expected caches are not available");
             }
             
+            if (cacheWarmupService != null) {
+                status.withDetail("warmup_state", cacheWarmupService.getState());
+                CacheWarmupService.WarmupResult warmup = cacheWarmupService.getLastResult();
+                if (warmup != null) {
+                    status.withDetail("warmup_loaded", warmup.loaded())
+                          .withDetail("warmup_duration_ms", warmup.durationMillis())
+                          .withDetail("warmup_timed_out", warmup.timedOut());
+                }
+            }
+
             return status.build();
             
         } catch (Exception e) {
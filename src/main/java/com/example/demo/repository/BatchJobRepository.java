@@ -0,0 +1,59 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.BatchJob;
+import com.example.demo.entity.BatchJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BatchJobRepository extends JpaRepository<BatchJob, Long> {
+    
+    List<BatchJob> findByStatusOrderByCreatedAtDesc(BatchJobStatus status);
+    
+    List<BatchJob> findTop50ByOrderByCreatedAtDesc();
+    
+    /**
+     * Unfinished jobs whose worker has stopped sending heartbeats (e.g. the pod was restarted)
+     */
+    @Query("SELECT j FROM BatchJob j WHERE j.status IN :statuses AND j.heartbeatAt < :staleBefore ORDER BY j.id")
+    List<BatchJob> findStaleJobs(@Param("statuses") Collection<BatchJobStatus> statuses, 
+                                 @Param("staleBefore") LocalDateTime staleBefore);
+    
+    /**
+     * Take ownership of a job. Succeeds for exactly one caller per observed attempt.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE BatchJob j SET j.status = 'RUNNING', j.attempt = j.attempt + 1, j.startedAt = :now, " +
+           "j.heartbeatAt = :now, j.processedAtStart = j.processedCount, j.errorMessage = NULL, j.completedAt = NULL " +
+           "WHERE j.id = :id AND j.attempt = :attempt AND j.status = :expectedStatus")
+    int claim(@Param("id") Long id, @Param("attempt") Integer attempt, 
+              @Param("expectedStatus") BatchJobStatus expectedStatus, @Param("now") LocalDateTime now);
+    
+    /**
+     * Record a committed chunk. Returns 0 when another worker has claimed the job since.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE BatchJob j SET j.lastProcessedId = :lastId, j.processedCount = j.processedCount + :processed, " +
+           "j.updatedCount = j.updatedCount + :updated, j.chunksCompleted = j.chunksCompleted + 1, " +
+           "j.heartbeatAt = :now WHERE j.id = :id AND j.attempt = :attempt")
+    int checkpoint(@Param("id") Long id, @Param("attempt") Integer attempt, @Param("lastId") Long lastId,
+                   @Param("processed") long processed, @Param("updated") long updated, 
+                   @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE BatchJob j SET j.status = :status, j.errorMessage = :errorMessage, j.completedAt = :now, " +
+           "j.heartbeatAt = :now WHERE j.id = :id AND j.attempt = :attempt")
+    int finish(@Param("id") Long id, @Param("attempt") Integer attempt, @Param("status") BatchJobStatus status,
+               @Param("errorMessage") String errorMessage, @Param("now") LocalDateTime now);
+}
@@ -2,6 +2,8 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.Comment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import org.springframework.data.domain.Page;
@@ -21,5 +23,8 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     
     List<Comment> findByTaskId(Long taskId);
     
+    @Query("SELECT DISTINCT c.task.id FROM Comment c WHERE c.user.id = :userId")
+    List<Long> findTaskIdsByUserId(@Param("userId") Long userId);
+    
     void deleteByTaskId(Long taskId);
 }
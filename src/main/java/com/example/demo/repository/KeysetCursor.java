@@ -0,0 +1,51 @@
+package com.example.demo.repository;
+
+import com.example.demo.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row returned by a keyset query, as (sort value, id).
+ * Encoded as an opaque URL-safe string so clients cannot depend on its layout.
+ * A null sort value marks rows whose sort column is NULL (sorted last).
+ */
+public record KeysetCursor(LocalDateTime sortValue, Long id) {
+
+    private static final String NULL_MARKER = "~";
+    private static final char SEPARATOR = '|';
+
+    public KeysetCursor {
+        if (id == null) {
+            throw new IllegalArgumentException("Cursor id cannot be null");
+        }
+    }
+
+    public String encode() {
+        String raw = (sortValue != null ? sortValue.toString() : NULL_MARKER) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode()}; null or blank means "first page"
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new ValidationException("Invalid cursor: " + cursor);
+            }
+            String sortPart = raw.substring(0, separator);
+            LocalDateTime sortValue = NULL_MARKER.equals(sortPart) ? null : LocalDateTime.parse(sortPart);
+            return new KeysetCursor(sortValue, Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
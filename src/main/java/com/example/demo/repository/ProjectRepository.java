@@ -10,6 +10,8 @@ import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,6 +55,20 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     @Query("SELECT p FROM Project p WHERE p.owner.id = :ownerId ORDER BY p.createdAt DESC")
     Page<Project> findRecentProjectsByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
     
+    // Keyset (seek) pagination on (createdAt, id) - use PageRequest.of(0, size) so no OFFSET or COUNT is issued
+    @EntityGraph(value = "Project.withOwner", type = EntityGraph.EntityGraphType.LOAD)
+    @Query("SELECT p FROM Project p WHERE p.owner.id = :ownerId ORDER BY p.createdAt DESC, p.id DESC")
+    List<Project> findRecentProjectsByOwnerIdFirst(@Param("ownerId") Long ownerId, Pageable pageable);
+    
+    @EntityGraph(value = "Project.withOwner", type = EntityGraph.EntityGraphType.LOAD)
+    @Query("SELECT p FROM Project p WHERE p.owner.id = :ownerId AND " +
+           "(p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Project> findRecentProjectsByOwnerIdAfter(@Param("ownerId") Long ownerId,
+                                                   @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("id") Long id,
+                                                   Pageable pageable);
+    
     @Query("SELECT p FROM Project p WHERE p.owner.id = :ownerId AND p.name LIKE %:searchTerm%")
     Page<Project> searchProjectsByOwnerId(@Param("ownerId") Long ownerId, 
                                          @Param("searchTerm") String searchTerm, 
@@ -61,4 +77,10 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     // Bulk operations
     @Query("UPDATE Project p SET p.updatedAt = CURRENT_TIMESTAMP WHERE p.id IN :ids")
     int updateTimestampsForProjects(@Param("ids") List<Long> ids);
+    
+    /**
+     * Which of the given ids exist, used to validate foreign keys of imported rows in one query
+     */
+    @Query("SELECT p.id FROM Project p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -59,6 +60,22 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     @Query("UPDATE RefreshToken rt SET rt.isRevoked = true WHERE rt.token = :token")
     int revokeToken(@Param("token") String token);
     
+    /**
+     * Revoke a batch of refresh tokens
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken rt SET rt.isRevoked = true WHERE rt.token IN :tokens")
+    int revokeTokens(@Param("tokens") Collection<String> tokens);
+    
+    /**
+     * Revoke all refresh tokens of a batch of users
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken rt SET rt.isRevoked = true WHERE rt.userId IN :userIds AND rt.isRevoked = false")
+    int revokeAllTokensForUsers(@Param("userIds") Collection<Long> userIds);
+    
     /**
      * Delete expired tokens (cleanup job)
      */
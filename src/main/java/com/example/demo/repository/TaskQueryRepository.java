@@ -0,0 +1,28 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.TaskSummaryDTO;
+import com.example.demo.entity.Task;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Custom repository fragment for projection queries built with the Criteria API
+ */
+public interface TaskQueryRepository {
+
+    /**
+     * Find at most {@code limit} task summaries matching the specification.
+     * Filtering and ordering are executed in SQL and only the projected columns are selected;
+     * priority is ordered by rank (LOW to CRITICAL), not by its stored name.
+     */
+    List<TaskSummaryDTO> findSummaries(Specification<Task> specification, Sort sort, int limit);
+
+    /**
+     * Keyset (seek) variant ordered by (dueDate, id) with NULL due dates last.
+     * Returns at most {@code limit} rows positioned strictly after the cursor;
+     * a null cursor starts from the beginning. No COUNT query is issued.
+     */
+    List<TaskSummaryDTO> findSummariesAfter(Specification<Task> specification, KeysetCursor after, int limit);
+}
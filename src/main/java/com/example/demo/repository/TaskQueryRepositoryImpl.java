@@ -0,0 +1,147 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.TaskSummaryDTO;
+import com.example.demo.entity.Priority;
+import com.example.demo.entity.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria API implementation of {@link TaskQueryRepository}.
+ * Selects into {@link TaskSummaryDTO} with a constructor expression, so the
+ * persistence context stays empty and no associations are initialized.
+ */
+public class TaskQueryRepositoryImpl implements TaskQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TaskSummaryDTO> findSummaries(Specification<Task> specification, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskSummaryDTO> query = cb.createQuery(TaskSummaryDTO.class);
+        Root<Task> task = query.from(Task.class);
+        selectSummary(query, task, cb);
+        applyPredicates(query, cb, toPredicate(specification, task, query, cb));
+
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Expression<?> key = "priority".equals(order.getProperty())
+                    ? priorityRank(task, cb) : task.get(order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(key) : cb.desc(key));
+        }
+        // Always finish with the primary key so the ordering is deterministic
+        if (sort.getOrderFor("id") == null) {
+            orders.add(cb.asc(task.get("id")));
+        }
+        query.orderBy(orders);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Priority is stored by name, which would sort CRITICAL < HIGH < LOW < MEDIUM
+    private static Expression<Integer> priorityRank(Root<Task> task, CriteriaBuilder cb) {
+        CriteriaBuilder.SimpleCase<Priority, Integer> rank = cb.selectCase(task.get("priority"));
+        for (Priority priority : Priority.values()) {
+            rank.when(priority, priority.ordinal());
+        }
+        return rank.otherwise(Priority.values().length);
+    }
+
+    @Override
+    public List<TaskSummaryDTO> findSummariesAfter(Specification<Task> specification, KeysetCursor after, int limit) {
+        List<TaskSummaryDTO> rows = new ArrayList<>(limit);
+
+        // Phase 1: rows with a due date, seeking on (due_date, id)
+        if (after == null || after.sortValue() != null) {
+            rows.addAll(seek(specification, after, limit, false));
+        }
+
+        // Phase 2: rows without a due date, seeking on id only
+        if (rows.size() < limit) {
+            KeysetCursor nullPhaseCursor = (after != null && after.sortValue() == null) ? after : null;
+            rows.addAll(seek(specification, nullPhaseCursor, limit - rows.size(), true));
+        }
+        return rows;
+    }
+
+    private List<TaskSummaryDTO> seek(Specification<Task> specification, KeysetCursor after, int limit, boolean nullDueDates) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskSummaryDTO> query = cb.createQuery(TaskSummaryDTO.class);
+        Root<Task> task = query.from(Task.class);
+        selectSummary(query, task, cb);
+
+        Path<LocalDateTime> dueDate = task.get("dueDate");
+        Path<Long> id = task.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(toPredicate(specification, task, query, cb));
+        if (nullDueDates) {
+            predicates.add(cb.isNull(dueDate));
+            if (after != null) {
+                predicates.add(cb.greaterThan(id, after.id()));
+            }
+            query.orderBy(cb.asc(id));
+        } else {
+            predicates.add(cb.isNotNull(dueDate));
+            if (after != null) {
+                // (due_date, id) > (:dueDate, :id), expanded for portability across databases
+                predicates.add(cb.or(
+                        cb.greaterThan(dueDate, after.sortValue()),
+                        cb.and(cb.equal(dueDate, after.sortValue()), cb.greaterThan(id, after.id()))));
+            }
+            query.orderBy(cb.asc(dueDate), cb.asc(id));
+        }
+        applyPredicates(query, cb, predicates.toArray(new Predicate[0]));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private void selectSummary(CriteriaQuery<TaskSummaryDTO> query, Root<Task> task, CriteriaBuilder cb) {
+        // project.id / assignee.id resolve to the foreign key columns, so no joins are added
+        query.select(cb.construct(TaskSummaryDTO.class,
+                task.get("id"),
+                task.get("title"),
+                task.get("status"),
+                task.get("priority"),
+                task.get("dueDate"),
+                task.get("project").get("id"),
+                task.get("assignee").get("id"),
+                task.get("createdAt"),
+                task.get("updatedAt")));
+    }
+
+    private Predicate toPredicate(Specification<Task> specification, Root<Task> task,
+                                  CriteriaQuery<?> query, CriteriaBuilder cb) {
+        return specification != null ? specification.toPredicate(task, query, cb) : null;
+    }
+
+    private void applyPredicates(CriteriaQuery<?> query, CriteriaBuilder cb, Predicate... predicates) {
+        List<Predicate> nonNull = new ArrayList<>();
+        for (Predicate predicate : predicates) {
+            if (predicate != null) {
+                nonNull.add(predicate);
+            }
+        }
+        if (!nonNull.isEmpty()) {
+            query.where(cb.and(nonNull.toArray(new Predicate[0])));
+        }
+    }
+}
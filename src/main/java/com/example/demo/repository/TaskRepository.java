@@ -6,6 +6,7 @@ import com.example.demo.entity.Priority;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -21,7 +22,7 @@ import java.util.Optional;
  * Provides basic CRUD operations and custom query methods with advanced JPA optimizations
  */
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskQueryRepository {
     
     // Basic pagination support
     Page<Task> findByProjectId(Long projectId, Pageable pageable);
@@ -101,6 +102,23 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     int updateTaskStatusInBulk(@Param("taskIds") List<Long> taskIds, 
                               @Param("newStatus") TaskStatus newStatus);
     
+    // Lock the rows a bulk UPDATE is about to change, so the ids returned are exactly the ids it matches
+    @Query(value = "SELECT id FROM tasks WHERE id IN (:taskIds) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockTaskIds(@Param("taskIds") List<Long> taskIds);
+    
+    @Query(value = "SELECT id FROM tasks WHERE id IN (:taskIds) AND due_date < :currentDate ORDER BY id FOR UPDATE",
+           nativeQuery = true)
+    List<Long> lockOverdueTaskIds(@Param("taskIds") List<Long> taskIds, 
+                                  @Param("currentDate") LocalDateTime currentDate);
+    
+    // Re-checks the due date so a task rescheduled since its id was read is left alone
+    @Modifying
+    @Query("UPDATE Task t SET t.status = :newStatus, t.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE t.id IN :taskIds AND t.dueDate < :currentDate")
+    int markOverdueTasksInBulk(@Param("taskIds") List<Long> taskIds, 
+                              @Param("currentDate") LocalDateTime currentDate, 
+                              @Param("newStatus") TaskStatus newStatus);
+    
     @Modifying
     @Query("UPDATE Task t SET t.assignee.id = :assigneeId WHERE t.id IN :taskIds")
     int reassignTasksInBulk(@Param("taskIds") List<Long> taskIds, 
@@ -127,4 +145,45 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT t FROM Task t WHERE t.project.id = :projectId ORDER BY t.id")
     List<Task> findTasksByProjectIdForBatchProcessing(@Param("projectId") Long projectId, 
                                                      Pageable pageable);
+    
+    // Keyset chunking for batch jobs - seek on the last processed id, use PageRequest.of(0, chunkSize)
+    @Query("SELECT t.id FROM Task t WHERE t.project.id = :projectId AND t.id > :lastId ORDER BY t.id")
+    List<Long> findTaskIdsByProjectIdAfterId(@Param("projectId") Long projectId, 
+                                            @Param("lastId") Long lastId, 
+                                            Pageable pageable);
+    
+    @Query("SELECT t.id FROM Task t WHERE t.dueDate < :currentDate AND t.id > :lastId ORDER BY t.id")
+    List<Long> findOverdueTaskIdsAfterId(@Param("currentDate") LocalDateTime currentDate, 
+                                        @Param("lastId") Long lastId, 
+                                        Pageable pageable);
+    
+    // Id bounds and range-bounded chunks for partitioned (parallel) batch jobs
+    @Query("SELECT DISTINCT t.assignee.id FROM Task t WHERE t.project.id = :projectId AND t.assignee IS NOT NULL")
+    List<Long> findAssigneeIdsByProjectId(@Param("projectId") Long projectId);
+    
+    @Query("SELECT DISTINCT t.assignee.id FROM Task t WHERE t.project.owner.id = :ownerId AND t.assignee IS NOT NULL")
+    List<Long> findAssigneeIdsByProjectOwnerId(@Param("ownerId") Long ownerId);
+    
+    @Query("SELECT MIN(t.id) FROM Task t WHERE t.project.id = :projectId")
+    Long findMinTaskIdByProjectId(@Param("projectId") Long projectId);
+    
+    @Query("SELECT MAX(t.id) FROM Task t WHERE t.project.id = :projectId")
+    Long findMaxTaskIdByProjectId(@Param("projectId") Long projectId);
+    
+    @Query("SELECT t.id FROM Task t WHERE t.project.id = :projectId AND t.id > :lastId AND t.id <= :upperId ORDER BY t.id")
+    List<Long> findTaskIdsByProjectIdInRange(@Param("projectId") Long projectId, 
+                                            @Param("lastId") Long lastId, 
+                                            @Param("upperId") Long upperId, 
+                                            Pageable pageable);
+    
+    @Query("SELECT t.id FROM Task t WHERE t.updatedAt < :cutoffDate AND t.id > :lastId ORDER BY t.id")
+    List<Long> findTaskIdsUpdatedBeforeAfterId(@Param("cutoffDate") LocalDateTime cutoffDate, 
+                                              @Param("lastId") Long lastId, 
+                                              Pageable pageable);
+    
+    // Re-checks the cutoff so rows touched since they were read are left alone
+    @Modifying
+    @Query("UPDATE Task t SET t.updatedAt = CURRENT_TIMESTAMP WHERE t.id IN :taskIds AND t.updatedAt < :cutoffDate")
+    int updateTimestampsForTasksUpdatedBefore(@Param("taskIds") List<Long> taskIds, 
+                                             @Param("cutoffDate") LocalDateTime cutoffDate);
 }
@@ -0,0 +1,48 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Priority;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.TaskStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Reusable Specification building blocks for Task queries.
+ * Each filter is null-safe: a null argument produces no predicate, so any
+ * combination of filters collapses into a single WHERE clause.
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    /**
+     * Combine all optional filters into one specification
+     */
+    public static Specification<Task> withFilters(Long assigneeId, Long projectId, TaskStatus status, Priority priority) {
+        return Specification.where(inProject(projectId))
+                .and(assignedTo(assigneeId))
+                .and(hasStatus(status))
+                .and(hasPriority(priority));
+    }
+
+    public static Specification<Task> inProject(Long projectId) {
+        // Compares the foreign key column directly, no join on projects
+        return (root, query, cb) -> projectId == null ? null
+                : cb.equal(root.get("project").get("id"), projectId);
+    }
+
+    public static Specification<Task> assignedTo(Long assigneeId) {
+        return (root, query, cb) -> assigneeId == null ? null
+                : cb.equal(root.get("assignee").get("id"), assigneeId);
+    }
+
+    public static Specification<Task> hasStatus(TaskStatus status) {
+        return (root, query, cb) -> status == null ? null
+                : cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Task> hasPriority(Priority priority) {
+        return (root, query, cb) -> priority == null ? null
+                : cb.equal(root.get("priority"), priority);
+    }
+}
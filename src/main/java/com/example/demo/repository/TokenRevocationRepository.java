@@ -0,0 +1,29 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    /**
+     * Revocations that can still affect an unexpired access token
+     */
+    List<TokenRevocation> findByRevokedBeforeAfter(LocalDateTime cutoff);
+
+    /**
+     * Delete revocations older than any access token still in circulation (cleanup job)
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TokenRevocation tr WHERE tr.revokedBefore < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
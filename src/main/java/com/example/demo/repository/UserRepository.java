@@ -5,10 +5,13 @@ import com.example.demo.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -67,4 +70,51 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT u FROM User u WHERE u.email IS NOT NULL AND u.email != ''")
     List<User> findActiveUsers();
+    
+    /**
+     * Swap the password hash only if it is still the one the caller verified against
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :currentHash")
+    int replacePasswordHash(@Param("id") Long id, @Param("currentHash") String currentHash, @Param("newHash") String newHash);
+    
+    /**
+     * Count a failed login without loading the user: the counter restarts at 1 when the previous
+     * failure is older than windowStart, and the lock flag follows the new count
+     */
+    @Modifying
+    @Query("UPDATE User u SET "
+            + "u.failedLoginAttempts = CASE WHEN u.lastFailedLogin >= :windowStart THEN u.failedLoginAttempts + 1 ELSE 1 END, "
+            + "u.accountLocked = CASE WHEN u.lastFailedLogin >= :windowStart AND u.failedLoginAttempts + 1 >= :maxAttempts THEN true "
+            + "WHEN 1 >= :maxAttempts THEN true ELSE false END, "
+            + "u.lastFailedLogin = :now "
+            + "WHERE u.id = :id")
+    int recordFailedLogin(@Param("id") Long id, @Param("now") LocalDateTime now,
+                          @Param("windowStart") LocalDateTime windowStart, @Param("maxAttempts") int maxAttempts);
+    
+    /**
+     * Clear failed logins and the lock flag, only touching rows that have something to clear
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.failedLoginAttempts = 0, u.accountLocked = false "
+            + "WHERE u.id = :id AND (u.failedLoginAttempts > 0 OR u.accountLocked = true)")
+    int resetFailedLogins(@Param("id") Long id);
+    
+    /**
+     * Which of the given ids exist, used to validate foreign keys of imported rows in one query
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Which of the given usernames are taken, used to reject imported users in one query
+     */
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * Which of the given emails are taken, used to reject imported users in one query
+     */
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
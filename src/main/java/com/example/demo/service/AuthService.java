@@ -7,15 +7,16 @@ import com.example.demo.entity.User;
 import com.example.demo.exception.BusinessException;
 import com.example.demo.exception.ResourceAlreadyExistsException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.exception.ServiceBusyException;
 import com.example.demo.mapper.UserMapper;
-import com.google.common.util.concurrent.RateLimiter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.UUID;
 
 @Service
 public class AuthService {
@@ -27,16 +28,19 @@ public class AuthService {
     private UserMapper userMapper;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashing;
     
     @Autowired
     private JwtService jwtService;
     
     @Autowired
-    private DatabaseTokenStoreService databaseTokenStoreService;
+    private RefreshTokenStore refreshTokenStore;
     
-    // Rate limiting: 5 login attempts per minute per email
-    private final RateLimiter loginRateLimiter = RateLimiter.create(5.0 / 60.0);
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
     
     @Value("${app.max.failed.attempts:5}")
     private int maxFailedAttempts;
@@ -44,6 +48,9 @@ public class AuthService {
     @Value("${app.account.lockout.duration:900}") // 15 minutes in seconds
     private int accountLockoutDuration;
     
+    // Hash of a random password with the configured settings, compared against for unknown emails
+    private volatile String dummyHash;
+    
     /**
      * Register a new user with proper security measures
      */
@@ -57,7 +64,7 @@ public class AuthService {
         User user = new User();
         user.setUsername(registerDTO.getUsername());
         user.setEmail(registerDTO.getEmail());
-        user.setPassword(passwordEncoder.encode(registerDTO.getPassword()));
+        user.setPassword(passwordHashing.encode(registerDTO.getPassword()));
         user.setRole(registerDTO.getRole());
         user.setFailedLoginAttempts(0); // Initialize failed attempts counter
         user.setAccountLocked(false);
@@ -71,46 +78,61 @@ public class AuthService {
         String refreshToken = jwtService.generateRefreshToken(savedUser);
         
         // 5. Store refresh token for validation
-        databaseTokenStoreService.storeRefreshToken(savedUser.getId(), refreshToken);
+        refreshTokenStore.storeRefreshToken(savedUser.getId(), refreshToken);
         
         return new AuthResponseDTO(accessToken, refreshToken, userDTO);
     }
     
     /**
-     * Login user with security measures and rate limiting
+     * Login user with security measures and rate limiting (per email only)
      */
     public AuthResponseDTO login(AuthLoginDTO loginDTO) {
+        return login(loginDTO, null);
+    }
+    
+    /**
+     * Login user with security measures and rate limiting per email and client IP
+     */
+    public AuthResponseDTO login(AuthLoginDTO loginDTO, String clientIp) {
         // 1. Check rate limiting
-        if (!loginRateLimiter.tryAcquire()) {
-            throw new BusinessException("Too many login attempts. Please try again later.");
-        }
+        loginRateLimiter.checkLogin(loginDTO.getEmail(), clientIp);
         
-        // 2. Find user by email
-        User user = userService.findByEmail(loginDTO.getEmail());
+        // 2. Find user by email; an unknown email gets the same answer as a wrong password
+        User user;
+        try {
+            user = userService.findByEmail(loginDTO.getEmail());
+        } catch (ResourceNotFoundException e) {
+            user = null;
+        }
         
-        // 3. Validate credentials
-        if (user == null || !passwordEncoder.matches(loginDTO.getPassword(), user.getPassword())) {
-            // Log failed attempt
-            if (user != null) {
-                incrementFailedLoginAttempts(user);
-            }
+        // 3. A locked account gets the generic answer whatever the password, without hashing it
+        //    or counting another failure, so the lock neither tests passwords nor extends itself
+        if (user != null && isLocked(user)) {
             throw new BusinessException("Invalid email or password");
         }
         
-        // 4. Check if account is locked
-        if (user.getFailedLoginAttempts() >= maxFailedAttempts) {
-            throw new BusinessException("Account is temporarily locked due to too many failed attempts. Please try again later.");
+        // 4. Validate credentials; an unknown email is checked against a dummy hash so it takes as long
+        if (user == null) {
+            passwordHashing.matches(loginDTO.getPassword(), dummyHash());
+            throw new BusinessException("Invalid email or password");
+        }
+        if (!passwordHashing.matches(loginDTO.getPassword(), user.getPassword())) {
+            incrementFailedLoginAttempts(user);
+            throw new BusinessException("Invalid email or password");
         }
         
         // 5. Reset failed attempts on successful login
         resetFailedLoginAttempts(user);
         
-        // 6. Generate JWT tokens
+        // 6. Re-hash with the configured algorithm and cost while the plain password is at hand
+        rehashPasswordIfNeeded(user, loginDTO.getPassword());
+        
+        // 7. Generate JWT tokens
         String accessToken = jwtService.generateAccessToken(user);
         String refreshToken = jwtService.generateRefreshToken(user);
         
-        // 7. Store refresh token
-        databaseTokenStoreService.storeRefreshToken(user.getId(), refreshToken);
+        // 8. Store refresh token
+        refreshTokenStore.storeRefreshToken(user.getId(), refreshToken);
         
         UserDTO userDTO = userMapper.toDTO(user);
         return new AuthResponseDTO(accessToken, refreshToken, userDTO);
@@ -126,7 +148,7 @@ public class AuthService {
         }
         
         // 2. Check if refresh token exists in our store
-        Long userId = databaseTokenStoreService.validateRefreshToken(refreshDTO.getRefreshToken());
+        Long userId = refreshTokenStore.validateRefreshToken(refreshDTO.getRefreshToken());
         if (userId == null) {
             throw new BusinessException("Refresh token not found or expired");
         }
@@ -140,14 +162,14 @@ public class AuthService {
         }
         
         // 4. Revoke the old refresh token (prevent reuse)
-        databaseTokenStoreService.revokeRefreshToken(refreshDTO.getRefreshToken());
+        refreshTokenStore.revokeRefreshToken(refreshDTO.getRefreshToken());
 
         // 5. Generate new tokens
         String newAccessToken = jwtService.generateAccessToken(user);
         String newRefreshToken = jwtService.generateRefreshToken(user);
 
         // 6. Store the new refresh token
-        databaseTokenStoreService.storeRefreshToken(user.getId(), newRefreshToken);        UserDTO userDTO = userMapper.toDTO(user);
+        refreshTokenStore.storeRefreshToken(user.getId(), newRefreshToken);        UserDTO userDTO = userMapper.toDTO(user);
         return new AuthResponseDTO(newAccessToken, newRefreshToken, userDTO);
     }
     
@@ -156,7 +178,7 @@ public class AuthService {
      */
     public void logout(String refreshToken) {
         if (jwtService.validateToken(refreshToken)) {
-            databaseTokenStoreService.revokeRefreshToken(refreshToken);
+            refreshTokenStore.revokeRefreshToken(refreshToken);
         }
     }
 
@@ -164,7 +186,8 @@ public class AuthService {
      * Logout from all devices by revoking all refresh tokens for user
      */
     public void logoutAllDevices(Long userId) {
-        databaseTokenStoreService.revokeAllRefreshTokensForUser(userId);
+        refreshTokenStore.revokeAllRefreshTokensForUser(userId);
+        tokenRevocationService.revokeAll(userId);
     }    /**
      * Validate access token for protected endpoints
      */
@@ -194,15 +217,29 @@ public class AuthService {
         return jwtService.getTokenExpirationTime(accessToken);
     }
     
+    /**
+     * Locked while maxFailedAttempts failures are recorded and the last one is within the lockout duration
+     */
+    private String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = passwordHashing.encode(UUID.randomUUID().toString());
+            dummyHash = hash;
+        }
+        return hash;
+    }
+    
+    private boolean isLocked(User user) {
+        return user.getFailedLoginAttempts() >= maxFailedAttempts
+                && user.getLastFailedLogin() != null
+                && user.getLastFailedLogin().isAfter(LocalDateTime.now().minusSeconds(accountLockoutDuration));
+    }
+    
     /**
      * Increment failed login attempts for user
      */
     private void incrementFailedLoginAttempts(User user) {
-        int currentAttempts = user.getFailedLoginAttempts() + 1;
-        user.setFailedLoginAttempts(currentAttempts);
-        
-        // Update last failed attempt timestamp if needed
-        userService.save(user);
+        userService.recordFailedLogin(user.getId(), maxFailedAttempts, Duration.ofSeconds(accountLockoutDuration));
     }
     
     /**
@@ -210,9 +247,24 @@ public class AuthService {
      */
     private void resetFailedLoginAttempts(User user) {
         if (user.getFailedLoginAttempts() > 0) {
-            user.setFailedLoginAttempts(0);
-            user.setAccountLocked(false);
-            userService.save(user);
+            userService.resetFailedLogins(user.getId());
+        }
+    }
+    
+    /**
+     * Replace a hash made with an older algorithm or cost; skipped when hashing is saturated, the next login retries
+     */
+    private void rehashPasswordIfNeeded(User user, String rawPassword) {
+        if (!passwordHashing.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            String rehashed = passwordHashing.encode(rawPassword);
+            if (userService.replacePasswordHash(user.getId(), user.getPassword(), rehashed)) {
+                user.setPassword(rehashed);
+            }
+        } catch (ServiceBusyException e) {
+            // Keep the current hash, it is still valid
         }
     }
     
@@ -234,7 +286,7 @@ public class AuthService {
      * Get user's active refresh token count (for monitoring/analytics)
      */
     public Long getUserRefreshTokenCount(Long userId) {
-        return databaseTokenStoreService.getUserRefreshTokenCount(userId);
+        return refreshTokenStore.getUserRefreshTokenCount(userId);
     }
     
     /**
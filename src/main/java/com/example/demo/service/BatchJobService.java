@@ -0,0 +1,316 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BatchJobDTO;
+import com.example.demo.entity.BatchJob;
+import com.example.demo.entity.BatchJobStatus;
+import com.example.demo.entity.TaskStatus;
+import com.example.demo.exception.BusinessException;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.exception.ValidationException;
+import com.example.demo.repository.BatchJobRepository;
+import com.example.demo.service.BatchProcessingService.ChunkSteps;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Registry and runner for resumable batch jobs.
+ * Jobs are persisted in {@code batch_jobs}; each chunk commits together with its
+ * checkpoint, so a job interrupted by a deploy resumes after the last committed id.
+ * Unfinished jobs whose heartbeat has gone stale are picked up again by a periodic sweep.
+ * Chunks are read and written by the {@link BatchProcessingService} steps, including their events.
+ */
+@Service
+public class BatchJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchJobService.class);
+
+    public static final String OVERDUE_TASKS = "overdue-tasks";
+    public static final String STATUS_UPDATE = "status-update";
+    public static final String TIMESTAMP_REFRESH = "timestamp-refresh";
+
+    private static final Set<String> JOB_TYPES = Set.of(OVERDUE_TASKS, STATUS_UPDATE, TIMESTAMP_REFRESH);
+
+    @Autowired
+    private BatchJobRepository batchJobRepository;
+
+    @Autowired
+    private BatchProcessingService batchProcessingService;
+
+    @Autowired
+    private ChunkedBatchExecutor chunkedBatchExecutor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${app.batch.jobs.concurrency.default:1}")
+    private int defaultConcurrency;
+
+    @Value("${app.batch.jobs.stale-after:PT5M}")
+    private Duration staleAfter;
+
+    private final ExecutorService jobExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Semaphore> permitsByType = new ConcurrentHashMap<>();
+    // Jobs queued or running in this instance, so the sweep does not dispatch them twice
+    private final Set<Long> localJobs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Persist a new job and queue it for execution
+     */
+    public BatchJobDTO submit(String jobType, Map<String, String> parameters) {
+        Map<String, String> prepared = prepareParameters(jobType, parameters);
+        buildSteps(jobType, prepared);
+
+        BatchJob job = batchJobRepository.save(new BatchJob(jobType, writeParameters(prepared)));
+        logger.info("Submitted batch job {} ({}) with parameters {}", job.getId(), jobType, prepared);
+        dispatch(job.getId(), job.getAttempt(), BatchJobStatus.PENDING);
+        return toDTO(job);
+    }
+
+    /**
+     * Persist a new job and run it on the calling thread; returns the job once it has completed or failed
+     */
+    public BatchJobDTO run(String jobType, Map<String, String> parameters) {
+        Map<String, String> prepared = prepareParameters(jobType, parameters);
+        buildSteps(jobType, prepared);
+
+        BatchJob job = batchJobRepository.save(new BatchJob(jobType, writeParameters(prepared)));
+        logger.info("Running batch job {} ({}) with parameters {}", job.getId(), jobType, prepared);
+        localJobs.add(job.getId());
+        try {
+            run(job.getId(), job.getAttempt(), BatchJobStatus.PENDING);
+        } finally {
+            localJobs.remove(job.getId());
+        }
+        return getJob(job.getId());
+    }
+
+    /**
+     * Restart a failed job from its last checkpoint
+     */
+    public BatchJobDTO restart(Long jobId) {
+        BatchJob job = findJob(jobId);
+        if (job.getStatus() != BatchJobStatus.FAILED) {
+            throw new BusinessException("Only failed jobs can be restarted, job " + jobId + " is " + job.getStatus());
+        }
+        logger.info("Restarting batch job {} after id {}", jobId, job.getLastProcessedId());
+        dispatch(jobId, job.getAttempt(), BatchJobStatus.FAILED);
+        return toDTO(job);
+    }
+
+    public BatchJobDTO getJob(Long jobId) {
+        return toDTO(findJob(jobId));
+    }
+
+    public List<BatchJobDTO> getJobs(BatchJobStatus status) {
+        List<BatchJob> jobs = status != null
+                ? batchJobRepository.findByStatusOrderByCreatedAtDesc(status)
+                : batchJobRepository.findTop50ByOrderByCreatedAtDesc();
+        return jobs.stream().map(this::toDTO).toList();
+    }
+
+    /**
+     * Pick up jobs whose worker disappeared, e.g. because the pod was restarted mid-run
+     */
+    @Scheduled(fixedDelayString = "${app.batch.jobs.sweep-interval-ms:60000}")
+    public void resumeStaleJobs() {
+        List<BatchJob> stale = batchJobRepository.findStaleJobs(
+                List.of(BatchJobStatus.PENDING, BatchJobStatus.RUNNING), LocalDateTime.now().minus(staleAfter));
+        for (BatchJob job : stale) {
+            if (!localJobs.contains(job.getId())) {
+                logger.info("Resuming stale batch job {} ({}) after id {}", job.getId(), job.getJobType(), job.getLastProcessedId());
+                dispatch(job.getId(), job.getAttempt(), job.getStatus());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Running chunks roll back on interrupt; the checkpoint keeps the job resumable
+        jobExecutor.shutdownNow();
+    }
+
+    private void dispatch(Long jobId, int observedAttempt, BatchJobStatus observedStatus) {
+        if (localJobs.add(jobId)) {
+            jobExecutor.submit(() -> {
+                try {
+                    run(jobId, observedAttempt, observedStatus);
+                } finally {
+                    localJobs.remove(jobId);
+                }
+            });
+        }
+    }
+
+    private void run(Long jobId, int observedAttempt, BatchJobStatus observedStatus) {
+        BatchJob job = batchJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        Semaphore permits = permitsFor(job.getJobType());
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            if (batchJobRepository.claim(jobId, observedAttempt, observedStatus, LocalDateTime.now()) == 0) {
+                logger.info("Batch job {} was already claimed by another worker", jobId);
+                return;
+            }
+            execute(jobId, observedAttempt + 1);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void execute(Long jobId, int attempt) {
+        BatchJob job = findJob(jobId);
+        String jobName = job.getJobType() + "#" + jobId;
+        try {
+            ChunkSteps steps = buildSteps(job.getJobType(), readParameters(job.getParameters()));
+            chunkedBatchExecutor.execute(jobName, job.getLastProcessedId(), chunkedBatchExecutor.getChunkSize(),
+                    steps.reader(), steps.writer(),
+                    (lastId, processed, updated) -> {
+                        if (batchJobRepository.checkpoint(jobId, attempt, lastId, processed, updated, LocalDateTime.now()) == 0) {
+                            // Rolls back the chunk: another worker owns the job now
+                            throw new BusinessException("Batch job " + jobId + " was taken over by another worker");
+                        }
+                    });
+            batchJobRepository.finish(jobId, attempt, BatchJobStatus.COMPLETED, null, LocalDateTime.now());
+            logger.info("Batch job {} completed", jobName);
+        } catch (RuntimeException e) {
+            logger.error("Batch job {} failed, it can be restarted from its last checkpoint", jobName, e);
+            String message = e.getMessage() != null && e.getMessage().length() > 1000
+                    ? e.getMessage().substring(0, 1000) : e.getMessage();
+            batchJobRepository.finish(jobId, attempt, BatchJobStatus.FAILED, message, LocalDateTime.now());
+        }
+    }
+
+    private Semaphore permitsFor(String jobType) {
+        return permitsByType.computeIfAbsent(jobType, type -> new Semaphore(Math.max(1,
+                environment.getProperty("app.batch.jobs.concurrency." + type, Integer.class, defaultConcurrency))));
+    }
+
+    /**
+     * Validate parameters and pin time-dependent ones, so a resumed run selects the same rows
+     */
+    private Map<String, String> prepareParameters(String jobType, Map<String, String> parameters) {
+        if (!JOB_TYPES.contains(jobType)) {
+            throw new ValidationException("Unknown batch job type: " + jobType + ". Allowed: " + JOB_TYPES);
+        }
+        Map<String, String> prepared = new LinkedHashMap<>(parameters != null ? parameters : Map.of());
+        if (OVERDUE_TASKS.equals(jobType)) {
+            prepared.putIfAbsent("asOf", LocalDateTime.now().toString());
+        }
+        return prepared;
+    }
+
+    private ChunkSteps buildSteps(String jobType, Map<String, String> parameters) {
+        return switch (jobType) {
+            case OVERDUE_TASKS -> batchProcessingService.overdueTasks(dateParameter(parameters, "asOf"));
+            case STATUS_UPDATE -> batchProcessingService.statusUpdate(
+                    longParameter(parameters, "projectId"), statusParameter(parameters, "status"));
+            case TIMESTAMP_REFRESH -> batchProcessingService.timestampRefresh(dateParameter(parameters, "cutoffDate"));
+            default -> throw new ValidationException("Unknown batch job type: " + jobType);
+        };
+    }
+
+    private static String requiredParameter(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null || value.isBlank()) {
+            throw new ValidationException("Missing batch job parameter: " + name);
+        }
+        return value;
+    }
+
+    private static Long longParameter(Map<String, String> parameters, String name) {
+        try {
+            return Long.valueOf(requiredParameter(parameters, name));
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid batch job parameter " + name + ": " + parameters.get(name));
+        }
+    }
+
+    private static LocalDateTime dateParameter(Map<String, String> parameters, String name) {
+        try {
+            return LocalDateTime.parse(requiredParameter(parameters, name));
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Invalid batch job parameter " + name + ": " + parameters.get(name));
+        }
+    }
+
+    private static TaskStatus statusParameter(Map<String, String> parameters, String name) {
+        try {
+            return TaskStatus.valueOf(requiredParameter(parameters, name).toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid batch job parameter " + name + ": " + parameters.get(name));
+        }
+    }
+
+    private String writeParameters(Map<String, String> parameters) {
+        try {
+            return objectMapper.writeValueAsString(parameters);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Batch job parameters cannot be serialized", e);
+        }
+    }
+
+    private Map<String, String> readParameters(String json) {
+        if (json == null || json.isBlank()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<Map<String, String>>() {});
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Stored batch job parameters are unreadable", e);
+        }
+    }
+
+    private BatchJob findJob(Long jobId) {
+        return batchJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("BatchJob", jobId));
+    }
+
+    private BatchJobDTO toDTO(BatchJob job) {
+        return new BatchJobDTO(job.getId(), job.getJobType(), job.getStatus().name(), readParameters(job.getParameters()),
+                job.getLastProcessedId(), job.getProcessedCount(), job.getUpdatedCount(), job.getChunksCompleted(),
+                job.getAttempt(), job.getErrorMessage(), job.getCreatedAt(), job.getStartedAt(), job.getHeartbeatAt(),
+                job.getCompletedAt(), rowsPerSecond(job));
+    }
+
+    // Throughput of the current (or last) attempt, so a resumed job is not credited with earlier runs
+    private static double rowsPerSecond(BatchJob job) {
+        if (job.getStartedAt() == null) {
+            return 0.0;
+        }
+        LocalDateTime end = job.getCompletedAt() != null ? job.getCompletedAt() : LocalDateTime.now();
+        long millis = Duration.between(job.getStartedAt(), end).toMillis();
+        long rows = job.getProcessedCount() - job.getProcessedAtStart();
+        return millis > 0 ? rows * 1000.0 / millis : 0.0;
+    }
+}
@@ -1,27 +1,29 @@
 package com.example.demo.service;
 
-import com.example.demo.entity.Task;
 import com.example.demo.entity.TaskStatus;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.repository.ProjectRepository;
 import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Service for handling batch processing operations on large datasets
  * Demonstrates efficient processing of large numbers of records
+ *
+ * Chunks are driven by {@link ChunkedBatchExecutor}: each one seeks on the last
+ * processed id and commits on its own, so there is no class-level transaction.
  */
 @Service
-@Transactional
 public class BatchProcessingService {
 
     private static final Logger logger = LoggerFactory.getLogger(BatchProcessingService.class);
@@ -29,105 +31,211 @@ public class BatchProcessingService {
     @Autowired
     private TaskRepository taskRepository;
 
-    private static final int BATCH_SIZE = 100; // Process 100 records at a time
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheTagService cacheTags;
+
+    @Autowired
+    private ChunkedBatchExecutor chunkedBatchExecutor;
+
+    @Autowired
+    private PartitionedBatchExecutor partitionedBatchExecutor;
+
+    @Autowired
+    private TaskUpdatePublisher taskUpdatePublisher;
+
+    /**
+     * Reader and writer of one chunked run; {@link BatchJobService} runs the same steps with checkpoints
+     */
+    record ChunkSteps(ChunkedBatchExecutor.ChunkReader reader, ChunkedBatchExecutor.ChunkWriter writer) {
+    }
+
+    /**
+     * Applies a bulk change to one chunk and returns the ids it actually changed
+     */
+    @FunctionalInterface
+    private interface TaskUpdate {
+        List<Long> apply(List<Long> taskIds);
+    }
 
     /**
      * Batch update task status for all tasks in a project
-     * Uses pagination to process large datasets efficiently
+     * Walks the project's task ids in keyset chunks and bulk-updates each chunk
      */
     public BatchProcessingResult updateTaskStatusInBatch(Long projectId, com.example.demo.entity.TaskStatus newStatus) {
         logger.info("Starting batch status update for project {} to status {}", projectId, newStatus);
-        int totalProcessed = 0;
-        int totalUpdated = 0;
-        int pageNumber = 0;
-        List<Long> processedTaskIds = new ArrayList<>();
-        while (true) {
-            Pageable pageable = PageRequest.of(pageNumber, BATCH_SIZE);
-            List<Task> taskList = taskRepository.findTasksByProjectIdForBatchProcessing(projectId, pageable);
-            List<Long> taskIds = taskList.stream()
-                    .map(Task::getId)
-                    .toList();
-            if (!taskIds.isEmpty()) {
-                int updatedCount = taskRepository.updateTaskStatusInBulk(taskIds, newStatus);
-                totalUpdated += updatedCount;
-                processedTaskIds.addAll(taskIds);
-                logger.debug("Processed batch {}: {} tasks, {} updated", pageNumber, taskIds.size(), updatedCount);
-                totalProcessed += taskIds.size();
-                pageNumber++;
-            } else {
-                break;
-            }
-        }
-        BatchProcessingResult result = new BatchProcessingResult(totalProcessed, totalUpdated, processedTaskIds);
+        ChunkSteps steps = statusUpdate(projectId, newStatus);
+        BatchProcessingResult result = chunkedBatchExecutor.execute("status-update", steps.reader(), steps.writer());
         logger.info("Batch status update completed: {}", result);
         return result;
     }
 
     /**
      * Batch update timestamps for tasks that haven't been updated recently
+     * The cutoff is evaluated in SQL, both when selecting a chunk and when updating it
      */
     public BatchProcessingResult refreshTaskTimestampsInBatch(LocalDateTime cutoffDate) {
         logger.info("Starting batch timestamp refresh for tasks older than {}", cutoffDate);
+        ChunkSteps steps = timestampRefresh(cutoffDate);
+        BatchProcessingResult result = chunkedBatchExecutor.execute("timestamp-refresh", steps.reader(), steps.writer());
+        logger.info("Batch timestamp refresh completed: {}", result);
+        return result;
+    }
 
-        int totalProcessed = 0;
-        int totalUpdated = 0;
-        int pageNumber = 0;
-        List<Long> processedTaskIds = new ArrayList<>();
-
-        while (true) {
-            Pageable pageable = PageRequest.of(pageNumber, BATCH_SIZE);
-            Page<Task> taskPage = taskRepository.findAll(pageable);
-
-            List<Long> taskIds = taskPage.getContent().stream()
-                    .filter(task -> task.getUpdatedAt().isBefore(cutoffDate))
-                    .map(Task::getId)
-                    .toList();
-
-            if (!taskIds.isEmpty()) {
-                int updatedCount = taskRepository.updateTimestampsForTasks(taskIds);
-                totalUpdated += updatedCount;
-                processedTaskIds.addAll(taskIds);
-                logger.debug("Processed timestamp batch {}: {} tasks, {} updated", pageNumber, taskIds.size(), updatedCount);
-            }
-
-            totalProcessed += taskPage.getNumberOfElements();
-            pageNumber++;
-
-            if (pageNumber >= taskPage.getTotalPages()) {
-                break;
-            }
+    /**
+     * Parallel variant of {@link #updateTaskStatusInBatch}: the project's id range is split
+     * into partitions that run concurrently, each one chunked and committed independently
+     */
+    public BatchProcessingResult updateTaskStatusInParallel(Long projectId, TaskStatus newStatus, int partitions) {
+        if (!projectRepository.existsById(projectId)) {
+            throw ResourceNotFoundException.project(projectId);
         }
+        logger.info("Starting parallel status update for project {} to status {}", projectId, newStatus);
+        BatchProcessingResult result = runOverProjectTasks("parallel-status-update", projectId, partitions,
+                publishingUpdates(taskIds -> updateStatus(taskIds, newStatus), newStatus, null));
+        cacheTags.invalidate(CacheTagService.project(projectId));
+        return result;
+    }
 
-        BatchProcessingResult result = new BatchProcessingResult(totalProcessed, totalUpdated, processedTaskIds);
-        logger.info("Batch timestamp refresh completed: {}", result);
-
+    /**
+     * Reassign every task of a project to another user, partitioned across the worker pool
+     */
+    public BatchProcessingResult reassignProjectTasksInParallel(Long projectId, Long assigneeId, int partitions) {
+        if (!projectRepository.existsById(projectId)) {
+            throw ResourceNotFoundException.project(projectId);
+        }
+        if (!userRepository.existsById(assigneeId)) {
+            throw ResourceNotFoundException.user(assigneeId);
+        }
+        logger.info("Starting parallel reassignment of project {} tasks to user {}", projectId, assigneeId);
+        List<Long> previousAssignees = taskRepository.findAssigneeIdsByProjectId(projectId);
+        BatchProcessingResult result = runOverProjectTasks("parallel-reassign", projectId, partitions,
+                publishingUpdates(taskIds -> reassign(taskIds, assigneeId), null, assigneeId));
+        cacheTags.invalidate(CacheTagService.project(projectId), CacheTagService.assignee(assigneeId));
+        cacheTags.invalidate(previousAssignees.stream().map(CacheTagService::assignee).toArray(String[]::new));
         return result;
     }
 
+    private BatchProcessingResult runOverProjectTasks(String jobName, Long projectId, int partitions,
+                                                      ChunkedBatchExecutor.ChunkWriter writer) {
+        Long minId = taskRepository.findMinTaskIdByProjectId(projectId);
+        Long maxId = taskRepository.findMaxTaskIdByProjectId(projectId);
+        if (minId == null || maxId == null) {
+            logger.info("{}: project {} has no tasks", jobName, projectId);
+            return new BatchProcessingResult(0, 0);
+        }
+        return partitionedBatchExecutor.execute(jobName, minId, maxId, partitions,
+                (lastId, upperId, chunkSize) -> taskRepository.findTaskIdsByProjectIdInRange(
+                        projectId, lastId, upperId, PageRequest.of(0, chunkSize)),
+                writer);
+    }
+
     /**
      * Process overdue tasks in batch (mark as overdue, send notifications, etc.)
+     * Overdue ids are read through a keyset cursor and updated in fixed-size bulk UPDATEs.
+     * No Task entities are loaded and no ids are retained, so memory stays flat however
+     * many tasks are overdue. A TASK_UPDATED event per task actually marked is published once its batch has committed.
+     * This run keeps no checkpoint; submit an {@link BatchJobService#OVERDUE_TASKS} job for one that resumes.
      */
     public BatchProcessingResult processOverdueTasksInBatch() {
-        LocalDateTime currentDate = LocalDateTime.now();
+        return processOverdueTasksInBatch(LocalDateTime.now());
+    }
+
+    public BatchProcessingResult processOverdueTasksInBatch(LocalDateTime currentDate) {
         logger.info("Starting batch processing of overdue tasks as of {}", currentDate);
-        
-        List<Task> overdueTasks = taskRepository.findOverdueTasks(currentDate);
-        List<Long> taskIds = overdueTasks.stream()
-                .map(Task::getId)
-                .toList();
-        
-        if (!taskIds.isEmpty()) {
-            // Mark tasks as PENDING status for overdue tasks
-            int updatedCount = taskRepository.updateTaskStatusInBulk(taskIds, TaskStatus.PENDING);
-            
-            BatchProcessingResult result = new BatchProcessingResult(overdueTasks.size(), updatedCount, taskIds);
+        ChunkSteps steps = overdueTasks(currentDate);
+        BatchProcessingResult result = chunkedBatchExecutor.execute("overdue-tasks", steps.reader(), steps.writer());
+
+        if (result.getTotalProcessed() == 0) {
+            logger.info("No overdue tasks found for processing");
+        } else {
             logger.info("Batch overdue task processing completed: {}", result);
-            
-            return result;
         }
-        
-        logger.info("No overdue tasks found for processing");
-        return new BatchProcessingResult(0, 0, List.of());
+        return result;
+    }
+
+    ChunkSteps statusUpdate(Long projectId, TaskStatus newStatus) {
+        return new ChunkSteps(
+                (lastId, chunkSize) -> taskRepository.findTaskIdsByProjectIdAfterId(projectId, lastId, PageRequest.of(0, chunkSize)),
+                publishingUpdates(taskIds -> updateStatus(taskIds, newStatus), newStatus, null));
+    }
+
+    ChunkSteps timestampRefresh(LocalDateTime cutoffDate) {
+        return new ChunkSteps(
+                (lastId, chunkSize) -> taskRepository.findTaskIdsUpdatedBeforeAfterId(cutoffDate, lastId, PageRequest.of(0, chunkSize)),
+                taskIds -> taskRepository.updateTimestampsForTasksUpdatedBefore(taskIds, cutoffDate));
+    }
+
+    ChunkSteps overdueTasks(LocalDateTime currentDate) {
+        return new ChunkSteps(
+                (lastId, chunkSize) -> taskRepository.findOverdueTaskIdsAfterId(currentDate, lastId, PageRequest.of(0, chunkSize)),
+                publishingUpdates(taskIds -> markOverdue(taskIds, currentDate), TaskStatus.PENDING, null));
+    }
+
+    // Each update locks the rows it will change first, so the returned ids are exactly the rows written
+
+    private List<Long> updateStatus(List<Long> taskIds, TaskStatus newStatus) {
+        List<Long> locked = taskRepository.lockTaskIds(taskIds);
+        if (!locked.isEmpty()) {
+            taskRepository.updateTaskStatusInBulk(locked, newStatus);
+        }
+        return locked;
+    }
+
+    private List<Long> reassign(List<Long> taskIds, Long assigneeId) {
+        List<Long> locked = taskRepository.lockTaskIds(taskIds);
+        if (!locked.isEmpty()) {
+            taskRepository.reassignTasksInBulk(locked, assigneeId);
+        }
+        return locked;
+    }
+
+    private List<Long> markOverdue(List<Long> taskIds, LocalDateTime currentDate) {
+        List<Long> overdue = taskRepository.lockOverdueTaskIds(taskIds, currentDate);
+        if (!overdue.isEmpty()) {
+            taskRepository.markOverdueTasksInBulk(overdue, currentDate, TaskStatus.PENDING);
+        }
+        return overdue;
+    }
+
+    /**
+     * Turn a bulk update into a chunk writer whose changed tasks each get a TASK_UPDATED event, keyed
+     * by task id. The ids are handed to {@link TaskUpdatePublisher} once the chunk has committed, so
+     * consumers never see a rolled-back update and the commit never waits for Kafka; the next chunk
+     * starts only when the publisher has room.
+     */
+    private ChunkedBatchExecutor.ChunkWriter publishingUpdates(TaskUpdate update, TaskStatus status, Long userId) {
+        return new ChunkedBatchExecutor.ChunkWriter() {
+            @Override
+            public int write(List<Long> taskIds) {
+                List<Long> updated = update.apply(taskIds);
+                afterCommit(() -> taskUpdatePublisher.publish(updated, status, userId));
+                return updated.size();
+            }
+
+            @Override
+            public void beforeChunk() {
+                taskUpdatePublisher.awaitCapacity();
+            }
+        };
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 
     /**
@@ -136,12 +244,23 @@ public class BatchProcessingService {
     public static class BatchProcessingResult {
         private final int totalProcessed;
         private final int totalUpdated;
-        private final List<Long> processedTaskIds;
 
-        public BatchProcessingResult(int totalProcessed, int totalUpdated, List<Long> processedTaskIds) {
+        public BatchProcessingResult(int totalProcessed, int totalUpdated) {
             this.totalProcessed = totalProcessed;
             this.totalUpdated = totalUpdated;
-            this.processedTaskIds = processedTaskIds;
+        }
+
+        /**
+         * Combine per-partition results into one
+         */
+        public static BatchProcessingResult merge(List<BatchProcessingResult> results) {
+            int processed = 0;
+            int updated = 0;
+            for (BatchProcessingResult result : results) {
+                processed += result.getTotalProcessed();
+                updated += result.getTotalUpdated();
+            }
+            return new BatchProcessingResult(processed, updated);
         }
 
         public int getTotalProcessed() {
@@ -152,8 +271,12 @@ public class BatchProcessingService {
             return totalUpdated;
         }
 
-        public List<Long> getProcessedTaskIds() {
-            return processedTaskIds;
+        @Override
+        public String toString() {
+            return "BatchProcessingResult{" +
+                    "totalProcessed=" + totalProcessed +
+                    ", totalUpdated=" + totalUpdated +
+                    '}';
         }
     }
 }
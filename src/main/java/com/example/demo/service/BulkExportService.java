@@ -0,0 +1,377 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.ValidationException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming export of users, projects, tasks and comments as NDJSON or CSV.
+ *
+ * Rows are read with a forward-only JDBC cursor in id order and written straight to
+ * the output, so neither entities nor whole tables are held in memory. An export can
+ * be resumed after the last id that was written. NDJSON field names match what
+ * {@link BulkImportService} reads, so an exported tasks file can be imported again.
+ */
+@Service
+public class BulkExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkExportService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${app.export.buffer-size:65536}")
+    private int bufferSize;
+
+    public BulkExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        // PostgreSQL only honours the fetch size (and streams) inside a transaction
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public enum ExportFormat {
+        NDJSON("ndjson", "application/x-ndjson"),
+        CSV("csv", "text/csv");
+
+        private final String extension;
+        private final String contentType;
+
+        ExportFormat(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() { return extension; }
+        public String getContentType() { return contentType; }
+
+        public static ExportFormat from(String value) {
+            if (value != null) {
+                for (ExportFormat format : values()) {
+                    if (format.name().equalsIgnoreCase(value.trim())) {
+                        return format;
+                    }
+                }
+            }
+            throw new ValidationException("Unsupported export format: " + value + ". Allowed: ndjson, csv");
+        }
+    }
+
+    private enum ColumnType { LONG, STRING, BOOLEAN, TIMESTAMP }
+
+    private record Column(String sqlName, String fieldName, ColumnType type) {
+    }
+
+    /**
+     * Exportable tables. The first column is always the id used for ordering and resuming;
+     * credentials (users.password) are never exported.
+     */
+    public enum ExportTable {
+        USERS("users", List.of(
+                new Column("id", "id", ColumnType.LONG),
+                new Column("username", "username", ColumnType.STRING),
+                new Column("email", "email", ColumnType.STRING),
+                new Column("role", "role", ColumnType.STRING),
+                new Column("is_active", "isActive", ColumnType.BOOLEAN),
+                new Column("email_verified", "emailVerified", ColumnType.BOOLEAN),
+                new Column("last_login", "lastLogin", ColumnType.TIMESTAMP),
+                new Column("created_at", "createdAt", ColumnType.TIMESTAMP))),
+        PROJECTS("projects", List.of(
+                new Column("id", "id", ColumnType.LONG),
+                new Column("name", "name", ColumnType.STRING),
+                new Column("description", "description", ColumnType.STRING),
+                new Column("owner_id", "ownerId", ColumnType.LONG),
+                new Column("created_at", "createdAt", ColumnType.TIMESTAMP),
+                new Column("updated_at", "updatedAt", ColumnType.TIMESTAMP))),
+        TASKS("tasks", List.of(
+                new Column("id", "id", ColumnType.LONG),
+                new Column("title", "title", ColumnType.STRING),
+                new Column("description", "description", ColumnType.STRING),
+                new Column("status", "status", ColumnType.STRING),
+                new Column("priority", "priority", ColumnType.STRING),
+                new Column("due_date", "dueDate", ColumnType.TIMESTAMP),
+                new Column("project_id", "projectId", ColumnType.LONG),
+                new Column("assignee_id", "assigneeId", ColumnType.LONG),
+                new Column("created_at", "createdAt", ColumnType.TIMESTAMP),
+                new Column("updated_at", "updatedAt", ColumnType.TIMESTAMP))),
+        COMMENTS("comments", List.of(
+                new Column("id", "id", ColumnType.LONG),
+                new Column("content", "content", ColumnType.STRING),
+                new Column("task_id", "taskId", ColumnType.LONG),
+                new Column("user_id", "userId", ColumnType.LONG),
+                new Column("created_at", "createdAt", ColumnType.TIMESTAMP)));
+
+        private final String tableName;
+        private final List<Column> columns;
+
+        ExportTable(String tableName, List<Column> columns) {
+            this.tableName = tableName;
+            this.columns = columns;
+        }
+
+        public String getTableName() { return tableName; }
+
+        public static ExportTable from(String value) {
+            if (value != null) {
+                for (ExportTable table : values()) {
+                    if (table.tableName.equalsIgnoreCase(value.trim())) {
+                        return table;
+                    }
+                }
+            }
+            throw new ValidationException("Unknown export table: " + value + ". Allowed: users, projects, tasks, comments");
+        }
+    }
+
+    /**
+     * {@code lastId} is the id of the last row written; pass it as {@code afterId} to resume
+     */
+    public record ExportResult(String table, long rowsExported, Long lastId, long durationMillis, double rowsPerSecond) {
+    }
+
+    /**
+     * Stream one table to {@code output}, starting after {@code afterId} (0 for a full export).
+     * The CSV header is only written by an export that starts from the beginning, so a resumed
+     * export can be appended to the partial output. The stream is flushed but not closed.
+     */
+    public ExportResult exportTable(ExportTable table, ExportFormat format, long afterId, OutputStream output) throws IOException {
+        long startTime = System.nanoTime();
+        Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        RowWriter rowWriter = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        if (afterId <= 0) {
+            rowWriter.writeHeader(table.columns);
+        }
+
+        String sql = "SELECT " + String.join(", ", table.columns.stream().map(Column::sqlName).toList())
+                + " FROM " + table.tableName + " WHERE id > ? ORDER BY id";
+        long[] progress = {0, afterId};
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, afterId);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> {
+                Object[] values = readRow(resultSet, table.columns);
+                try {
+                    rowWriter.writeRow(table.columns, values);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                progress[0]++;
+                progress[1] = (Long) values[0];
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rowWriter.finish();
+        writer.flush();
+
+        long durationMillis = (System.nanoTime() - startTime) / 1_000_000;
+        double rowsPerSecond = durationMillis > 0 ? progress[0] * 1000.0 / durationMillis : progress[0];
+        logger.info("Exported {} rows from {} as {} in {} ms ({} rows/sec)",
+                progress[0], table.tableName, format, durationMillis, String.format("%.0f", rowsPerSecond));
+        return new ExportResult(table.tableName, progress[0], progress[0] > 0 ? progress[1] : null, durationMillis, rowsPerSecond);
+    }
+
+    /**
+     * Export one table to a file through a buffered file channel, optionally gzipped.
+     * A resumed export ({@code afterId > 0}) appends to the existing file; for gzip this
+     * adds a new gzip member, which standard readers decompress as one stream.
+     */
+    public ExportResult exportToFile(ExportTable table, ExportFormat format, boolean gzip, long afterId, Path file) throws IOException {
+        StandardOpenOption mode = afterId > 0 ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode);
+             OutputStream output = compress(new BufferedOutputStream(Channels.newOutputStream(channel), bufferSize), gzip)) {
+            return exportTable(table, format, afterId, output);
+        }
+    }
+
+    /**
+     * Export every table into {@code directory} in parallel, one file and one connection per table
+     */
+    public List<ExportResult> exportAll(Path directory, ExportFormat format, boolean gzip) throws IOException {
+        Files.createDirectories(directory);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ExportResult>> futures = new ArrayList<>();
+            for (ExportTable table : ExportTable.values()) {
+                Path file = directory.resolve(fileName(table, format, gzip));
+                futures.add(executor.submit(() -> exportToFile(table, format, gzip, 0, file)));
+            }
+            List<ExportResult> results = new ArrayList<>(futures.size());
+            for (Future<ExportResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IllegalStateException("Export failed", e.getCause());
+        }
+    }
+
+    public static String fileName(ExportTable table, ExportFormat format, boolean gzip) {
+        return table.tableName + "." + format.getExtension() + (gzip ? ".gz" : "");
+    }
+
+    private OutputStream compress(OutputStream output, boolean gzip) throws IOException {
+        return gzip ? new GZIPOutputStream(output, bufferSize) : output;
+    }
+
+    private static Object[] readRow(ResultSet resultSet, List<Column> columns) throws SQLException {
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            int index = i + 1;
+            values[i] = switch (columns.get(i).type()) {
+                case LONG -> {
+                    long value = resultSet.getLong(index);
+                    yield resultSet.wasNull() ? null : value;
+                }
+                case BOOLEAN -> {
+                    boolean value = resultSet.getBoolean(index);
+                    yield resultSet.wasNull() ? null : value;
+                }
+                case TIMESTAMP -> resultSet.getObject(index, LocalDateTime.class);
+                case STRING -> resultSet.getString(index);
+            };
+        }
+        return values;
+    }
+
+    private interface RowWriter {
+        void writeHeader(List<Column> columns) throws IOException;
+        void writeRow(List<Column> columns, Object[] values) throws IOException;
+        void finish() throws IOException;
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private boolean empty = true;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        public void writeHeader(List<Column> columns) {
+            // NDJSON rows are self-describing
+        }
+
+        @Override
+        public void writeRow(List<Column> columns, Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                String field = columns.get(i).fieldName();
+                if (value == null) {
+                    generator.writeNullField(field);
+                } else if (value instanceof Long number) {
+                    generator.writeNumberField(field, number);
+                } else if (value instanceof Boolean flag) {
+                    generator.writeBooleanField(field, flag);
+                } else {
+                    generator.writeStringField(field, value.toString());
+                }
+            }
+            generator.writeEndObject();
+            empty = false;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (!empty) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void writeHeader(List<Column> columns) throws IOException {
+            writer.write(String.join(",", columns.stream().map(Column::fieldName).toList()));
+            writer.write('\n');
+        }
+
+        @Override
+        public void writeRow(List<Column> columns, Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(values[i].toString());
+                }
+            }
+            writer.write('\n');
+        }
+
+        // RFC 4180: quote fields containing a separator, quote or line break, doubling quotes
+        private void writeField(String value) throws IOException {
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+}
@@ -0,0 +1,598 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProjectImportDTO;
+import com.example.demo.dto.TaskImportDTO;
+import com.example.demo.dto.UserImportDTO;
+import com.example.demo.entity.Priority;
+import com.example.demo.entity.Role;
+import com.example.demo.entity.TaskStatus;
+import com.example.demo.exception.ValidationException;
+import com.example.demo.repository.ProjectRepository;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Streaming bulk import of users, projects and tasks from NDJSON or CSV.
+ *
+ * The input is read incrementally in fixed-size chunks. Each chunk is parsed and
+ * validated in parallel, its foreign keys (and for users, unique usernames and emails)
+ * are checked with one query per column, and the valid rows are written with
+ * PostgreSQL COPY (JDBC batch inserts on other databases) in a transaction of their own.
+ * Rows never become managed entities, so heap use is bounded by the chunk size rather
+ * than by the size of the file.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    // Must match allocationSize of the @SequenceGenerator of every imported entity (pooled optimizer)
+    private static final int ID_BLOCK = 50;
+
+    // As lenient as @Email: one @ with something on both sides
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Lazy: the encoder behind it comes from SecurityConfig, which depends on UserService through its filters
+    @Autowired
+    @Lazy
+    private PasswordHashingService passwordHashing;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private NegativeLookupCache negativeLookups;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    public BulkImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public enum ImportFormat {
+        NDJSON, CSV;
+
+        public static ImportFormat from(String value) {
+            if (value != null) {
+                for (ImportFormat format : values()) {
+                    if (format.name().equalsIgnoreCase(value.trim())) {
+                        return format;
+                    }
+                }
+            }
+            throw new ValidationException("Unsupported import format: " + value + ". Allowed: ndjson, csv");
+        }
+    }
+
+    /**
+     * Outcome of an import; only the first errors are listed, all of them are counted
+     */
+    public record ImportResult(long rowsRead, long rowsImported, long rowsRejected, List<String> errors,
+                               long durationMillis, double rowsPerSecond) {
+    }
+
+    @FunctionalInterface
+    private interface RowSource<D> {
+        SourceRow<D> next() throws IOException;
+    }
+
+    // A raw NDJSON line (parsed later, in parallel) or an already parsed CSV record
+    private record SourceRow<D>(long line, String json, D parsed) {
+    }
+
+    // A validated row as column values after the id, in the order of the table's columns
+    private record RowOutcome(long line, Object[] values, String error) {
+    }
+
+    /**
+     * How the rows of one table are validated and checked against the database.
+     * Instances live for one import, so the ids they have resolved are kept across chunks.
+     */
+    private abstract static class TableImport<D> {
+        final String tableName;
+        final String sequenceName;
+        final Class<D> rowType;
+        // id first
+        final String columns;
+        final int[] sqlTypes;
+
+        TableImport(String tableName, String sequenceName, Class<D> rowType, String columns, int... sqlTypes) {
+            this.tableName = tableName;
+            this.sequenceName = sequenceName;
+            this.rowType = rowType;
+            this.columns = columns;
+            this.sqlTypes = sqlTypes;
+        }
+
+        /**
+         * Column values after the id; throws IllegalArgumentException or DateTimeParseException for an invalid row
+         */
+        abstract Object[] validate(D row, LocalDateTime now);
+
+        /**
+         * Reject valid rows that the database would refuse
+         */
+        abstract List<RowOutcome> check(List<RowOutcome> outcomes);
+
+        /**
+         * Last step on the rows that passed every check, before they are written
+         */
+        void prepare(List<Object[]> rows) {
+        }
+    }
+
+    /**
+     * Import users. Passwords are hashed like on registration; usernames and emails already taken,
+     * or repeated within a chunk, are rejected. Chunks that were written stay committed if a later chunk fails.
+     */
+    @CacheEvict(value = "users", allEntries = true)
+    public ImportResult importUsers(InputStream input, ImportFormat format) throws IOException {
+        ImportResult result = importRows(input, format, new UserImport());
+        if (result.rowsImported() > 0) {
+            negativeLookups.clear(NegativeLookupCache.USER_EMAIL);
+        }
+        return result;
+    }
+
+    /**
+     * Import projects; owners must exist. Chunks that were written stay committed if a later chunk fails.
+     */
+    @CacheEvict(value = "projects", allEntries = true)
+    public ImportResult importProjects(InputStream input, ImportFormat format) throws IOException {
+        ImportResult result = importRows(input, format, new ProjectImport());
+        // Imported ids were allocated from the sequence and may have been looked up before
+        if (result.rowsImported() > 0) {
+            negativeLookups.clear(NegativeLookupCache.PROJECT);
+        }
+        return result;
+    }
+
+    /**
+     * Import tasks. Chunks that were written stay committed if a later chunk fails.
+     */
+    @CacheEvict(value = "tasks", allEntries = true)
+    public ImportResult importTasks(InputStream input, ImportFormat format) throws IOException {
+        ImportResult result = importRows(input, format, new TaskImport());
+        // Imported ids were allocated from the sequence and may have been looked up before
+        if (result.rowsImported() > 0) {
+            negativeLookups.clear(NegativeLookupCache.TASK);
+        }
+        return result;
+    }
+
+    private <D> ImportResult importRows(InputStream input, ImportFormat format, TableImport<D> table) throws IOException {
+        long startTime = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        RowSource<D> source = format == ImportFormat.CSV ? csvRows(reader, table.rowType) : ndjsonRows(reader);
+
+        List<String> errors = new ArrayList<>();
+        long rowsRead = 0;
+        long rowsImported = 0;
+        long rowsRejected = 0;
+
+        List<SourceRow<D>> chunk = new ArrayList<>(chunkSize);
+        boolean exhausted = false;
+        while (!exhausted) {
+            chunk.clear();
+            SourceRow<D> row = null;
+            while (chunk.size() < chunkSize && (row = source.next()) != null) {
+                chunk.add(row);
+            }
+            exhausted = row == null;
+            if (chunk.isEmpty()) {
+                break;
+            }
+            rowsRead += chunk.size();
+
+            LocalDateTime now = LocalDateTime.now();
+            List<RowOutcome> outcomes = chunk.parallelStream().map(sourceRow -> convert(sourceRow, table, now)).toList();
+            outcomes = table.check(outcomes);
+
+            List<Object[]> valid = new ArrayList<>(outcomes.size());
+            for (RowOutcome outcome : outcomes) {
+                if (outcome.error() == null) {
+                    valid.add(outcome.values());
+                } else {
+                    rowsRejected++;
+                    if (errors.size() < maxReportedErrors) {
+                        errors.add("line " + outcome.line() + ": " + outcome.error());
+                    }
+                }
+            }
+            if (!valid.isEmpty()) {
+                table.prepare(valid);
+                rowsImported += writeChunk(table, valid);
+            }
+            logger.debug("Import into {}: {} rows read, {} imported, {} rejected", table.tableName, rowsRead, rowsImported, rowsRejected);
+        }
+
+        long durationMillis = (System.nanoTime() - startTime) / 1_000_000;
+        double rowsPerSecond = durationMillis > 0 ? rowsImported * 1000.0 / durationMillis : rowsImported;
+        logger.info("Import into {} ({}) finished: {} rows read, {} imported, {} rejected in {} ms ({} rows/sec)",
+                table.tableName, format, rowsRead, rowsImported, rowsRejected, durationMillis, String.format("%.0f", rowsPerSecond));
+        return new ImportResult(rowsRead, rowsImported, rowsRejected, errors, durationMillis, rowsPerSecond);
+    }
+
+    private <D> RowSource<D> ndjsonRows(BufferedReader reader) {
+        long[] lineNumber = {0};
+        return () -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber[0]++;
+                if (!line.isBlank()) {
+                    return new SourceRow<>(lineNumber[0], line, null);
+                }
+            }
+            return null;
+        };
+    }
+
+    private <D> RowSource<D> csvRows(BufferedReader reader, Class<D> rowType) throws IOException {
+        ObjectReader csvReader = new CsvMapper()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readerFor(rowType)
+                .with(CsvSchema.emptySchema().withHeader());
+        MappingIterator<D> records = csvReader.readValues(reader);
+        return () -> {
+            try {
+                if (!records.hasNextValue()) {
+                    return null;
+                }
+                D record = records.nextValue();
+                return new SourceRow<>(records.getCurrentLocation().getLineNr(), null, record);
+            } catch (RuntimeJsonMappingException | JsonProcessingException e) {
+                // A structural CSV error (e.g. an unclosed quote) leaves no reliable row boundary to resume from
+                throw new ValidationException("Malformed CSV near line " + records.getCurrentLocation().getLineNr()
+                        + ": " + errorMessage(e), e);
+            }
+        };
+    }
+
+    private String errorMessage(Exception e) {
+        return e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+    }
+
+    private <D> RowOutcome convert(SourceRow<D> row, TableImport<D> table, LocalDateTime now) {
+        try {
+            D dto = row.json() != null ? objectMapper.readValue(row.json(), table.rowType) : row.parsed();
+            return new RowOutcome(row.line(), table.validate(dto, now), null);
+        } catch (JsonProcessingException e) {
+            return new RowOutcome(row.line(), null, "malformed JSON: " + errorMessage(e));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return new RowOutcome(row.line(), null, errorMessage(e));
+        }
+    }
+
+    private class UserImport extends TableImport<UserImportDTO> {
+
+        UserImport() {
+            super("users", "users_seq", UserImportDTO.class,
+                    "id, username, email, password, role, created_at, failed_login_attempts, account_locked, is_active, email_verified",
+                    Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP,
+                    Types.INTEGER, Types.BOOLEAN, Types.BOOLEAN, Types.BOOLEAN);
+        }
+
+        @Override
+        Object[] validate(UserImportDTO dto, LocalDateTime now) {
+            String username = dto.username() != null ? dto.username().trim() : "";
+            if (username.length() < 3 || username.length() > 50) {
+                throw new IllegalArgumentException("username must be between 3 and 50 characters");
+            }
+            String email = dto.email() != null ? dto.email().trim() : "";
+            if (!EMAIL.matcher(email).matches()) {
+                throw new IllegalArgumentException("email is not valid");
+            }
+            if (dto.password() == null || dto.password().length() < 8) {
+                throw new IllegalArgumentException("password must be at least 8 characters");
+            }
+            Role role = isBlank(dto.role()) ? Role.USER : Role.valueOf(dto.role().trim().toUpperCase());
+            // Hashed in prepare, only for rows that are written
+            return new Object[] {username, email, dto.password(), role.name(), now, 0, false, true, false};
+        }
+
+        @Override
+        List<RowOutcome> check(List<RowOutcome> outcomes) {
+            List<String> usernames = new ArrayList<>();
+            List<String> emails = new ArrayList<>();
+            for (RowOutcome outcome : outcomes) {
+                if (outcome.values() != null) {
+                    usernames.add((String) outcome.values()[0]);
+                    emails.add((String) outcome.values()[1]);
+                }
+            }
+            // Earlier chunks are committed by now, so these lookups also catch repeats across chunks
+            Set<String> takenUsernames = new HashSet<>(usernames.isEmpty() ? List.of() : userRepository.findExistingUsernames(usernames));
+            Set<String> takenEmails = new HashSet<>(emails.isEmpty() ? List.of() : userRepository.findExistingEmails(emails));
+
+            List<RowOutcome> checked = new ArrayList<>(outcomes.size());
+            for (RowOutcome outcome : outcomes) {
+                Object[] user = outcome.values();
+                if (user != null && !takenUsernames.add((String) user[0])) {
+                    checked.add(new RowOutcome(outcome.line(), null, "username " + user[0] + " is already taken"));
+                } else if (user != null && !takenEmails.add((String) user[1])) {
+                    checked.add(new RowOutcome(outcome.line(), null, "email " + user[1] + " is already taken"));
+                } else {
+                    checked.add(outcome);
+                }
+            }
+            return checked;
+        }
+
+        // On the hashing service's bulk pool: neither the common ForkJoin pool nor the login pool
+        @Override
+        void prepare(List<Object[]> users) {
+            List<String> hashes = passwordHashing.encodeAll(users.stream().map(user -> (String) user[2]).toList());
+            for (int i = 0; i < users.size(); i++) {
+                users.get(i)[2] = hashes.get(i);
+            }
+        }
+    }
+
+    private class ProjectImport extends TableImport<ProjectImportDTO> {
+
+        private final Set<Long> knownUsers = new HashSet<>();
+
+        ProjectImport() {
+            super("projects", "projects_seq", ProjectImportDTO.class,
+                    "id, name, description, owner_id, created_at, updated_at",
+                    Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP);
+        }
+
+        @Override
+        Object[] validate(ProjectImportDTO dto, LocalDateTime now) {
+            String name = dto.name() != null ? dto.name().trim() : "";
+            if (name.length() < 2 || name.length() > 100) {
+                throw new IllegalArgumentException("name must be between 2 and 100 characters");
+            }
+            String description = isBlank(dto.description()) ? null : dto.description();
+            if (description != null && description.length() > 1000) {
+                throw new IllegalArgumentException("description cannot exceed 1000 characters");
+            }
+            if (isBlank(dto.ownerId())) {
+                throw new IllegalArgumentException("ownerId is required");
+            }
+            return new Object[] {name, description, Long.valueOf(dto.ownerId().trim()), now, now};
+        }
+
+        @Override
+        List<RowOutcome> check(List<RowOutcome> outcomes) {
+            Set<Long> userIds = new HashSet<>();
+            for (RowOutcome outcome : outcomes) {
+                if (outcome.values() != null) {
+                    userIds.add((Long) outcome.values()[2]);
+                }
+            }
+            resolve(userIds, knownUsers, userRepository::findExistingIds);
+
+            List<RowOutcome> checked = new ArrayList<>(outcomes.size());
+            for (RowOutcome outcome : outcomes) {
+                Object[] project = outcome.values();
+                if (project != null && !knownUsers.contains((Long) project[2])) {
+                    checked.add(new RowOutcome(outcome.line(), null, "user " + project[2] + " does not exist"));
+                } else {
+                    checked.add(outcome);
+                }
+            }
+            return checked;
+        }
+    }
+
+    private class TaskImport extends TableImport<TaskImportDTO> {
+
+        private final Set<Long> knownProjects = new HashSet<>();
+        private final Set<Long> knownUsers = new HashSet<>();
+
+        TaskImport() {
+            super("tasks", "tasks_seq", TaskImportDTO.class,
+                    "id, title, description, status, priority, due_date, project_id, assignee_id, created_at, updated_at",
+                    Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP,
+                    Types.BIGINT, Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP);
+        }
+
+        @Override
+        Object[] validate(TaskImportDTO dto, LocalDateTime now) {
+            String title = dto.title() != null ? dto.title().trim() : "";
+            if (title.length() < 2 || title.length() > 200) {
+                throw new IllegalArgumentException("title must be between 2 and 200 characters");
+            }
+            String description = isBlank(dto.description()) ? null : dto.description();
+            if (description != null && description.length() > 2000) {
+                throw new IllegalArgumentException("description cannot exceed 2000 characters");
+            }
+            TaskStatus status = isBlank(dto.status()) ? TaskStatus.TODO : TaskStatus.valueOf(dto.status().trim().toUpperCase());
+            Priority priority = isBlank(dto.priority()) ? Priority.MEDIUM : parsePriority(dto.priority().trim().toUpperCase());
+            // Past due dates are accepted: imported tasks may legitimately be overdue already
+            LocalDateTime dueDate = isBlank(dto.dueDate()) ? null : LocalDateTime.parse(dto.dueDate().trim());
+            if (isBlank(dto.projectId())) {
+                throw new IllegalArgumentException("projectId is required");
+            }
+            Long projectId = Long.valueOf(dto.projectId().trim());
+            Long assigneeId = isBlank(dto.assigneeId()) ? null : Long.valueOf(dto.assigneeId().trim());
+            return new Object[] {title, description, status.name(), priority.name(), dueDate, projectId, assigneeId, now, now};
+        }
+
+        /**
+         * Reject rows pointing at missing projects or users. Ids already seen in earlier chunks
+         * are not queried again, so each distinct id costs at most one lookup per import.
+         */
+        @Override
+        List<RowOutcome> check(List<RowOutcome> outcomes) {
+            Set<Long> projectIds = new HashSet<>();
+            Set<Long> userIds = new HashSet<>();
+            for (RowOutcome outcome : outcomes) {
+                if (outcome.values() != null) {
+                    projectIds.add((Long) outcome.values()[5]);
+                    if (outcome.values()[6] != null) {
+                        userIds.add((Long) outcome.values()[6]);
+                    }
+                }
+            }
+            resolve(projectIds, knownProjects, projectRepository::findExistingIds);
+            resolve(userIds, knownUsers, userRepository::findExistingIds);
+
+            List<RowOutcome> checked = new ArrayList<>(outcomes.size());
+            for (RowOutcome outcome : outcomes) {
+                Object[] task = outcome.values();
+                if (task != null && !knownProjects.contains((Long) task[5])) {
+                    checked.add(new RowOutcome(outcome.line(), null, "project " + task[5] + " does not exist"));
+                } else if (task != null && task[6] != null && !knownUsers.contains((Long) task[6])) {
+                    checked.add(new RowOutcome(outcome.line(), null, "user " + task[6] + " does not exist"));
+                } else {
+                    checked.add(outcome);
+                }
+            }
+            return checked;
+        }
+    }
+
+    private static Priority parsePriority(String priority) {
+        // The API spells CRITICAL as URGENT, accept both
+        return "URGENT".equals(priority) ? Priority.CRITICAL : Priority.valueOf(priority);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static void resolve(Set<Long> ids, Set<Long> known, Function<Collection<Long>, List<Long>> lookup) {
+        ids.removeAll(known);
+        if (!ids.isEmpty()) {
+            known.addAll(lookup.apply(ids));
+        }
+    }
+
+    private int writeChunk(TableImport<?> table, List<Object[]> rows) {
+        Integer written = transactionTemplate.execute(status -> {
+            List<Long> ids = allocateIds(table.sequenceName, rows.size());
+            return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> dialect() instanceof PostgreSQLDialect
+                    ? copyRows(connection, table, rows, ids)
+                    : batchInsertRows(connection, table, rows, ids));
+        });
+        return written != null ? written : 0;
+    }
+
+    /**
+     * Take ids from the table's sequence the way Hibernate's pooled optimizer does: each
+     * nextval value V reserves the block (V - 50, V], so imported ids never collide with
+     * ids handed out by the application.
+     */
+    private List<Long> allocateIds(String sequenceName, int count) {
+        String nextValue = dialect().getSequenceSupport().getSequenceNextValString(sequenceName);
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            Long hi = jdbcTemplate.queryForObject(nextValue, Long.class);
+            for (long id = Math.max(1, hi - ID_BLOCK + 1); id <= hi && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private int copyRows(Connection connection, TableImport<?> table, List<Object[]> rows, List<Long> ids) throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        StringBuilder csv = new StringBuilder(rows.size() * 160);
+        for (int i = 0; i < rows.size(); i++) {
+            csv.append(ids.get(i));
+            for (Object value : rows.get(i)) {
+                csv.append(',');
+                // In COPY's CSV format an unquoted empty field is NULL and a quoted one is an empty string
+                if (value instanceof String text) {
+                    csv.append('"').append(text.replace("\"", "\"\"")).append('"');
+                } else if (value != null) {
+                    csv.append(value);
+                }
+            }
+            csv.append('\n');
+        }
+        try {
+            return (int) copyManager.copyIn("COPY " + table.tableName + " (" + table.columns + ") FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new SQLException("COPY into " + table.tableName + " failed", e);
+        }
+    }
+
+    private int batchInsertRows(Connection connection, TableImport<?> table, List<Object[]> rows, List<Long> ids) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(table.sqlTypes.length, "?"));
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO " + table.tableName + " (" + table.columns + ") VALUES (" + placeholders + ")")) {
+            for (int i = 0; i < rows.size(); i++) {
+                statement.setLong(1, ids.get(i));
+                Object[] row = rows.get(i);
+                for (int column = 0; column < row.length; column++) {
+                    statement.setObject(column + 2, row[column], table.sqlTypes[column + 1]);
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            return rows.size();
+        }
+    }
+
+    private Dialect dialect() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts reads of the id-keyed "project", "task" and "user" cache regions and periodically
+ * persists the most accessed ids to cache_access_stats, which {@link CacheWarmupService}
+ * preloads from after a restart.
+ *
+ * Counting is one map lookup and a {@link LongAdder} increment per read; at most
+ * {@code max-tracked-keys} ids per region are counted between two snapshots.
+ *
+ * Every instance writes its own snapshot without coordinating with the others: the hits are
+ * added to the stored rows with one upsert per id, rows are decayed at most once per
+ * snapshot interval (tracked by {@code updated_at}), and rows beyond {@code snapshot-size}
+ * are trimmed by score, so concurrent snapshots add up instead of overwriting each other.
+ */
+@Service
+public class CacheAccessTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheAccessTracker.class);
+
+    public static final Set<String> TRACKED_REGIONS = Set.of("project", "task", "user");
+
+    private static final String UPSERT_POSTGRESQL =
+            "INSERT INTO cache_access_stats (region, entity_id, score, updated_at) VALUES (?, ?, ?, ?) "
+            + "ON CONFLICT (region, entity_id) DO UPDATE SET score = cache_access_stats.score + EXCLUDED.score";
+
+    private static final String UPSERT_MERGE =
+            "MERGE INTO cache_access_stats t USING (VALUES (CAST(? AS VARCHAR(32)), CAST(? AS BIGINT), "
+            + "CAST(? AS DOUBLE PRECISION), CAST(? AS TIMESTAMP))) AS s (region, entity_id, score, updated_at) "
+            + "ON t.region = s.region AND t.entity_id = s.entity_id "
+            + "WHEN MATCHED THEN UPDATE SET score = t.score + s.score "
+            + "WHEN NOT MATCHED THEN INSERT (region, entity_id, score, updated_at) "
+            + "VALUES (s.region, s.entity_id, s.score, s.updated_at)";
+
+    private final Map<String, ConcurrentMap<Long, LongAdder>> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.cache.warmup.snapshot-size:5000}")
+    private int snapshotSize;
+
+    @Value("${app.cache.warmup.decay:0.5}")
+    private double decay;
+
+    @Value("${app.cache.warmup.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    @Value("${app.cache.warmup.snapshot-interval-ms:300000}")
+    private long snapshotIntervalMs;
+
+    public CacheAccessTracker(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (String region : TRACKED_REGIONS) {
+            counters.put(region, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Count a read of {@code key} in {@code region}; non-Long keys and untracked regions are ignored
+     */
+    public void record(String region, Object key) {
+        ConcurrentMap<Long, LongAdder> regionCounters = counters.get(region);
+        if (regionCounters == null || !(key instanceof Long id)) {
+            return;
+        }
+        LongAdder counter = regionCounters.get(id);
+        if (counter == null) {
+            if (regionCounters.size() >= maxTrackedKeys) {
+                return;
+            }
+            counter = regionCounters.computeIfAbsent(id, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Most accessed ids of a region according to the persisted snapshot, best first
+     */
+    public List<Long> topKeys(String region, int limit) {
+        return jdbcTemplate.query(
+                "SELECT entity_id FROM cache_access_stats WHERE region = ? ORDER BY score DESC, entity_id",
+                ps -> {
+                    ps.setString(1, region);
+                    ps.setMaxRows(limit);
+                },
+                (rs, rowNum) -> rs.getLong(1));
+    }
+
+    /**
+     * Fold the reads counted since the last snapshot into the persisted scores
+     */
+    @Scheduled(fixedDelayString = "${app.cache.warmup.snapshot-interval-ms:300000}",
+               initialDelayString = "${app.cache.warmup.snapshot-interval-ms:300000}")
+    public void persistSnapshot() {
+        for (String region : TRACKED_REGIONS) {
+            Map<Long, Long> hits = drain(region);
+            if (!hits.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> persistRegion(region, hits));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void persistOnShutdown() {
+        try {
+            persistSnapshot();
+        } catch (Exception e) {
+            logger.warn("Could not persist cache access snapshot on shutdown: {}", e.getMessage());
+        }
+    }
+
+    private Map<Long, Long> drain(String region) {
+        Map<Long, Long> hits = new HashMap<>();
+        ConcurrentMap<Long, LongAdder> regionCounters = counters.get(region);
+        for (Long id : regionCounters.keySet()) {
+            LongAdder counter = regionCounters.remove(id);
+            if (counter != null) {
+                hits.put(id, counter.sum());
+            }
+        }
+        return hits;
+    }
+
+    private void persistRegion(String region, Map<Long, Long> hits) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        // Rows nobody has decayed during the last interval, whichever instance wrote them
+        Timestamp decayBefore = Timestamp.valueOf(now.minus(Duration.ofMillis(snapshotIntervalMs)));
+
+        jdbcTemplate.update("UPDATE cache_access_stats SET score = score * ?, updated_at = ? WHERE region = ? AND updated_at < ?",
+                decay, updatedAt, region, decayBefore);
+
+        // Only ids that can make the snapshot, written in id order so concurrent snapshots lock rows alike
+        List<Map.Entry<Long, Long>> top = new ArrayList<>(hits.entrySet());
+        top.sort(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder()));
+        List<Map.Entry<Long, Long>> kept = new ArrayList<>(top.subList(0, Math.min(snapshotSize, top.size())));
+        kept.sort(Map.Entry.comparingByKey());
+
+        jdbcTemplate.batchUpdate(dialect() instanceof PostgreSQLDialect ? UPSERT_POSTGRESQL : UPSERT_MERGE,
+                kept, 500, (ps, entry) -> {
+                    ps.setString(1, region);
+                    ps.setLong(2, entry.getKey());
+                    ps.setDouble(3, entry.getValue().doubleValue());
+                    ps.setTimestamp(4, updatedAt);
+                });
+
+        int trimmed = jdbcTemplate.update("DELETE FROM cache_access_stats WHERE region = ? AND score < "
+                        + "(SELECT score FROM cache_access_stats WHERE region = ? ORDER BY score DESC LIMIT 1 OFFSET ?)",
+                region, region, snapshotSize - 1);
+        logger.debug("Persisted {} cache access scores for region {}, trimmed {}", kept.size(), region, trimmed);
+    }
+
+    private Dialect dialect() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+}
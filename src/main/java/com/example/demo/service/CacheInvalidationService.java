@@ -0,0 +1,161 @@
+package com.example.demo.service;
+
+import com.example.demo.config.CacheInvalidationPublisher;
+import com.example.demo.config.NearCache;
+import com.example.demo.dto.CacheInvalidationMessageDTO;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.annotation.Bean;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Fans cache invalidations out to every instance over the cache-invalidations topic.
+ *
+ * Published in near-cache mode ({@code app.cache.near.enabled}): evictions and clears from
+ * {@link NearCache} and tag bumps from {@link CacheTagService}. The input binding has no consumer
+ * group, so each instance gets its own anonymous group and receives every message; messages
+ * an instance published itself are skipped.
+ */
+@Service
+public class CacheInvalidationService implements CacheInvalidationPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    static final String OUTPUT_BINDING = "cacheInvalidationOutput";
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Autowired
+    private StreamBridge streamBridge;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheTagService cacheTags;
+
+    @Value("${app.cache.near.enabled:false}")
+    private boolean enabled;
+
+    @PostConstruct
+    public void registerTagListener() {
+        if (enabled) {
+            cacheTags.setInvalidationListener(this::tagsInvalidated);
+        }
+    }
+
+    /**
+     * Consumer bound to cache-invalidations (binding cacheInvalidationInput-in-0)
+     */
+    @Bean
+    public Consumer<CacheInvalidationMessageDTO> cacheInvalidationInput() {
+        return this::apply;
+    }
+
+    @Override
+    public void evicted(String cacheName, Object key) {
+        String encoded = encodeKey(key);
+        if (encoded == null) {
+            // Key type that cannot be sent: drop the whole cache on the other instances
+            cleared(cacheName);
+            return;
+        }
+        publish(new CacheInvalidationMessageDTO(instanceId, CacheInvalidationMessageDTO.EVICT, cacheName, encoded, null));
+    }
+
+    @Override
+    public void cleared(String cacheName) {
+        publish(new CacheInvalidationMessageDTO(instanceId, CacheInvalidationMessageDTO.CLEAR, cacheName, null, null));
+    }
+
+    public void tagsInvalidated(Collection<String> tags) {
+        publish(new CacheInvalidationMessageDTO(instanceId, CacheInvalidationMessageDTO.TAGS, null, null, List.copyOf(tags)));
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Apply an invalidation received from another instance to the local caches only
+     */
+    public void apply(CacheInvalidationMessageDTO message) {
+        if (instanceId.equals(message.origin())) {
+            return;
+        }
+        logger.debug("Applying cache invalidation from {}: {}", message.origin(), message);
+        if (CacheInvalidationMessageDTO.TAGS.equals(message.action())) {
+            if (message.tags() != null) {
+                cacheTags.applyRemoteInvalidation(message.tags());
+            }
+            return;
+        }
+        Cache cache = message.cacheName() != null ? cacheManager.getCache(message.cacheName()) : null;
+        if (cache == null) {
+            return;
+        }
+        if (CacheInvalidationMessageDTO.EVICT.equals(message.action())) {
+            Object key = decodeKey(message.key());
+            if (cache instanceof NearCache nearCache) {
+                nearCache.evictLocal(key);
+            } else {
+                cache.evict(key);
+            }
+        } else if (CacheInvalidationMessageDTO.CLEAR.equals(message.action())) {
+            if (cache instanceof NearCache nearCache) {
+                nearCache.clearLocal();
+            } else {
+                cache.clear();
+            }
+        }
+    }
+
+    private void publish(CacheInvalidationMessageDTO message) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!streamBridge.send(OUTPUT_BINDING, message)) {
+                logger.error("Failed to publish cache invalidation: {}", message);
+            }
+        } catch (Exception e) {
+            logger.error("Error publishing cache invalidation: {}", message, e);
+        }
+    }
+
+    /**
+     * Cache keys are Longs or Strings (see the @Cacheable key expressions); anything else is not sent
+     */
+    static String encodeKey(Object key) {
+        if (key instanceof Long value) {
+            return "L:" + value;
+        }
+        if (key instanceof Integer value) {
+            return "I:" + value;
+        }
+        if (key instanceof String value) {
+            return "S:" + value;
+        }
+        return null;
+    }
+
+    static Object decodeKey(String encoded) {
+        String value = encoded.substring(2);
+        return switch (encoded.charAt(0)) {
+            case 'L' -> Long.valueOf(value);
+            case 'I' -> Integer.valueOf(value);
+            default -> value;
+        };
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Tag-based invalidation for the list caches ("tasks", "projects", "users").
+ *
+ * A cached list declares the tags it depends on in its key, e.g.
+ * {@code key = "@cacheTags.key('project_' + #projectId, 'project:' + #projectId)"}.
+ * The key embeds the current version of every tag, so invalidating a tag bumps its
+ * version and makes exactly the entries carrying that tag unreachable; they age out
+ * through the cache's TTL and size limit. Other entries keep serving hits.
+ *
+ * Versions are bumped after the surrounding transaction commits, so a concurrent read
+ * of the old rows can only ever be cached under the old, already unreachable key.
+ * In near-cache mode the bumped tags are also sent to the other instances
+ * (see {@link CacheInvalidationService}).
+ *
+ * Versions are kept in a fixed array of {@code app.cache.tags.stripes} counters indexed by the
+ * tag's hash, so memory stays constant however many distinct tags are invalidated. Tags that
+ * share a stripe are invalidated together, which only costs an extra miss; a stripe's version
+ * never decreases, so an unreachable key never becomes reachable again.
+ */
+@Service("cacheTags")
+public class CacheTagService {
+
+    // Tags for lists that are not scoped to a single project, assignee or owner
+    public static final String ALL_TASKS = "tasks:all";
+    public static final String ALL_PROJECTS = "projects:all";
+    public static final String ALL_USERS = "users:all";
+
+    private static final Pattern VERSIONED_KEY = Pattern.compile(".*#v\\d+(\\.\\d+)*");
+
+    private final AtomicLongArray versions;
+    private final int stripeMask;
+
+    private volatile Consumer<Collection<String>> invalidationListener;
+
+    public CacheTagService(@Value("${app.cache.tags.stripes:4096}") int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.versions = new AtomicLongArray(size);
+        this.stripeMask = size - 1;
+    }
+
+    public static String project(Long projectId) {
+        return projectId != null ? "project:" + projectId : null;
+    }
+
+    public static String assignee(Long userId) {
+        return userId != null ? "assignee:" + userId : null;
+    }
+
+    public static String owner(Long userId) {
+        return userId != null ? "owner:" + userId : null;
+    }
+
+    public static String task(Long taskId) {
+        return taskId != null ? "task:" + taskId : null;
+    }
+
+    public static String role(Object role) {
+        return role != null ? "role:" + role : null;
+    }
+
+    /**
+     * Tags of a filtered task list: the project and/or assignee it is scoped to,
+     * or every task when it is scoped to neither
+     */
+    public static String[] taskListTags(Long projectId, Long assigneeId) {
+        if (projectId == null && assigneeId == null) {
+            return new String[] { ALL_TASKS };
+        }
+        List<String> tags = new ArrayList<>(2);
+        if (projectId != null) {
+            tags.add(project(projectId));
+        }
+        if (assigneeId != null) {
+            tags.add(assignee(assigneeId));
+        }
+        return tags.toArray(String[]::new);
+    }
+
+    /**
+     * Whether a cache key was built by {@link #key}. Versions are local to each instance,
+     * so such keys must not be shared between instances.
+     */
+    public static boolean isVersionedKey(Object key) {
+        return key instanceof String value && VERSIONED_KEY.matcher(value).matches();
+    }
+
+    /**
+     * Cache key for {@code baseKey} at the current version of each tag
+     */
+    public String key(String baseKey, String... tags) {
+        StringBuilder key = new StringBuilder(baseKey).append("#v");
+        for (int i = 0; i < tags.length; i++) {
+            if (i > 0) {
+                key.append('.');
+            }
+            key.append(version(tags[i]));
+        }
+        return key.toString();
+    }
+
+    public long version(String tag) {
+        return versions.get(stripe(tag));
+    }
+
+    /**
+     * Invalidate every cached entry carrying any of the tags; null tags are ignored
+     */
+    public void invalidate(String... tags) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String tag : tags) {
+            if (tag != null) {
+                distinct.add(tag);
+            }
+        }
+        if (distinct.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(distinct);
+                }
+            });
+        } else {
+            bump(distinct);
+        }
+    }
+
+    /**
+     * Called with the tags of every local invalidation once their versions are bumped
+     */
+    public void setInvalidationListener(Consumer<Collection<String>> listener) {
+        this.invalidationListener = listener;
+    }
+
+    /**
+     * Bump tags invalidated on another instance, without notifying the listener again
+     */
+    public void applyRemoteInvalidation(Collection<String> tags) {
+        increment(tags);
+    }
+
+    private void bump(Set<String> tags) {
+        increment(tags);
+        Consumer<Collection<String>> listener = invalidationListener;
+        if (listener != null) {
+            listener.accept(tags);
+        }
+    }
+
+    private void increment(Collection<String> tags) {
+        for (String tag : tags) {
+            versions.incrementAndGet(stripe(tag));
+        }
+    }
+
+    private int stripe(String tag) {
+        int hash = tag.hashCode();
+        return (hash ^ (hash >>> 16)) & stripeMask;
+    }
+}
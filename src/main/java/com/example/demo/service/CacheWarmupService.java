@@ -0,0 +1,208 @@
+package com.example.demo.service;
+
+import com.example.demo.config.NearCache;
+import com.example.demo.entity.Project;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.User;
+import com.example.demo.mapper.ProjectMapper;
+import com.example.demo.mapper.TaskMapper;
+import com.example.demo.mapper.UserMapper;
+import com.example.demo.repository.ProjectRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Preloads the most accessed projects, tasks and users into their caches when the instance starts,
+ * so the first requests after a deploy do not all miss. {@code CacheHealthIndicator} reports
+ * OUT_OF_SERVICE until the warm-up has finished or timed out.
+ *
+ * Ids come from the persisted {@link CacheAccessTracker} snapshot. Each region is loaded in
+ * {@code findAllById} batches on virtual threads, with at most {@code parallelism} batches
+ * (and therefore connections) in flight.
+ */
+@Service
+public class CacheWarmupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmupService.class);
+
+    public enum State { PENDING, RUNNING, COMPLETED, DISABLED }
+
+    public record WarmupResult(Map<String, Integer> loaded, long durationMillis, boolean timedOut) {
+    }
+
+    @Autowired
+    private CacheAccessTracker accessTracker;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskMapper taskMapper;
+
+    @Autowired
+    private ProjectMapper projectMapper;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${app.cache.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.warmup.top-n:2000}")
+    private int topN;
+
+    @Value("${app.cache.warmup.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.cache.warmup.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.cache.warmup.timeout:60s}")
+    private Duration timeout;
+
+    private volatile State state = State.PENDING;
+    private volatile WarmupResult lastResult;
+
+    public CacheWarmupService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            state = State.DISABLED;
+            return;
+        }
+        Thread.ofVirtual().name("cache-warmup").start(() -> {
+            try {
+                warmUp();
+            } catch (Exception e) {
+                logger.error("Cache warm-up failed", e);
+                state = State.COMPLETED;
+            }
+        });
+    }
+
+    /**
+     * Load the top ids of every tracked region; stops starting new batches once the timeout has passed
+     */
+    public WarmupResult warmUp() {
+        state = State.RUNNING;
+        long start = System.currentTimeMillis();
+        long deadline = start + timeout.toMillis();
+        Map<String, Integer> loaded = new LinkedHashMap<>();
+        boolean timedOut = false;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Semaphore permits = new Semaphore(Math.max(1, parallelism));
+            for (String region : List.of("project", "user", "task")) {
+                Cache cache = cacheManager.getCache(region);
+                if (cache == null) {
+                    continue;
+                }
+                // Fill only this instance's cache; a near cache would otherwise broadcast every put
+                Cache target = cache instanceof NearCache nearCache ? nearCache.getLocal() : cache;
+                List<Long> ids = accessTracker.topKeys(region, topN);
+                AtomicInteger count = new AtomicInteger();
+                List<Future<?>> batches = new ArrayList<>();
+                for (int from = 0; from < ids.size(); from += batchSize) {
+                    List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                    batches.add(executor.submit(() -> {
+                        permits.acquire();
+                        try {
+                            if (System.currentTimeMillis() < deadline) {
+                                count.addAndGet(loadBatch(region, batch, target));
+                            }
+                        } finally {
+                            permits.release();
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> batch : batches) {
+                    try {
+                        batch.get();
+                    } catch (Exception e) {
+                        logger.warn("Cache warm-up batch for {} failed: {}", region, e.getMessage());
+                    }
+                }
+                loaded.put(region, count.get());
+                timedOut |= System.currentTimeMillis() >= deadline;
+            }
+        } finally {
+            state = State.COMPLETED;
+        }
+
+        lastResult = new WarmupResult(loaded, System.currentTimeMillis() - start, timedOut);
+        logger.info("Cache warm-up finished in {} ms{}: {}", lastResult.durationMillis(),
+                timedOut ? " (timed out)" : "", loaded);
+        return lastResult;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isComplete() {
+        return state == State.COMPLETED || state == State.DISABLED;
+    }
+
+    public WarmupResult getLastResult() {
+        return lastResult;
+    }
+
+    private int loadBatch(String region, List<Long> ids, Cache target) {
+        Map<Long, Object> values = readOnlyTransaction.execute(status -> switch (region) {
+            case "task" -> toMap(taskRepository.findAllById(ids), Task::getId, taskMapper::toDTO);
+            case "project" -> toMap(projectRepository.findAllById(ids), Project::getId, projectMapper::toDTO);
+            case "user" -> toMap(userRepository.findAllById(ids), User::getId, userMapper::toDTO);
+            default -> Map.of();
+        });
+        // putIfAbsent: an entry a request already loaded is at least as fresh
+        values.forEach(target::putIfAbsent);
+        return values.size();
+    }
+
+    private static <E> Map<Long, Object> toMap(List<E> entities, Function<E, Long> id, Function<E, ?> mapper) {
+        Map<Long, Object> values = new LinkedHashMap<>();
+        for (E entity : entities) {
+            values.put(id.apply(entity), mapper.apply(entity));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.demo.service;
+
+import com.example.demo.service.BatchProcessingService.BatchProcessingResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Runs a batch job as a sequence of keyset-driven chunks.
+ * Each chunk seeks on the last processed id (WHERE id > :lastId ORDER BY id LIMIT n)
+ * instead of using OFFSET, so every chunk costs the same and rows are neither
+ * skipped nor visited twice while earlier chunks are being updated.
+ *
+ * Every chunk runs in its own transaction when called outside of one,
+ * which keeps locks and undo short on large tables.
+ */
+@Component
+public class ChunkedBatchExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedBatchExecutor.class);
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.batch.chunk-size:500}")
+    private int chunkSize;
+
+    public ChunkedBatchExecutor(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reads the next chunk of ids strictly greater than {@code lastId}, in ascending order
+     */
+    @FunctionalInterface
+    public interface ChunkReader {
+        List<Long> read(long lastId, int chunkSize);
+    }
+
+    /**
+     * Applies the batch operation to one chunk and returns the number of updated rows
+     */
+    @FunctionalInterface
+    public interface ChunkWriter {
+        int write(List<Long> ids);
+
+        /**
+         * Called before each chunk's transaction begins, e.g. to wait for work handed off by earlier chunks
+         */
+        default void beforeChunk() {
+        }
+    }
+
+    /**
+     * Called inside the chunk's transaction after the write, so a checkpoint
+     * commits or rolls back together with the chunk it describes
+     */
+    @FunctionalInterface
+    public interface ChunkListener {
+        void afterChunk(long lastId, int processed, int updated);
+    }
+
+    public BatchProcessingResult execute(String jobName, ChunkReader reader, ChunkWriter writer) {
+        return execute(jobName, 0L, chunkSize, reader, writer);
+    }
+
+    public BatchProcessingResult execute(String jobName, long startAfterId, int size, ChunkReader reader, ChunkWriter writer) {
+        return execute(jobName, startAfterId, size, reader, writer, null);
+    }
+
+    /**
+     * Only counts are returned, never the processed ids, so memory stays flat on jobs over
+     * millions of rows; the writer and the listener see each chunk as it is processed
+     */
+    public BatchProcessingResult execute(String jobName, long startAfterId, int size, ChunkReader reader, ChunkWriter writer,
+                                         ChunkListener listener) {
+        int totalProcessed = 0;
+        int totalUpdated = 0;
+        int chunkNumber = 0;
+        long lastId = startAfterId;
+
+        while (true) {
+            final long seekFrom = lastId;
+            writer.beforeChunk();
+            ChunkOutcome outcome = transactionTemplate.execute(status -> {
+                List<Long> ids = reader.read(seekFrom, size);
+                if (ids.isEmpty()) {
+                    return ChunkOutcome.EMPTY;
+                }
+                int updated = writer.write(ids);
+                if (listener != null) {
+                    listener.afterChunk(ids.get(ids.size() - 1), ids.size(), updated);
+                }
+                return new ChunkOutcome(ids, updated);
+            });
+            if (outcome == null || outcome.ids().isEmpty()) {
+                break;
+            }
+
+            totalProcessed += outcome.ids().size();
+            totalUpdated += outcome.updated();
+            lastId = outcome.ids().get(outcome.ids().size() - 1);
+            logger.debug("{}: chunk {} processed {} rows, {} updated, last id {}",
+                    jobName, chunkNumber, outcome.ids().size(), outcome.updated(), lastId);
+            chunkNumber++;
+
+            if (outcome.ids().size() < size) {
+                break;
+            }
+        }
+
+        return new BatchProcessingResult(totalProcessed, totalUpdated);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    private record ChunkOutcome(List<Long> ids, int updated) {
+        static final ChunkOutcome EMPTY = new ChunkOutcome(List.of(), 0);
+    }
+}
@@ -70,7 +70,7 @@ public class CommentService {
     /**
      * READ operation - Get all comments
      */
-    @Cacheable(value = "comments", key = "'all'")
+    @Cacheable(value = "comments", key = "'all'", sync = true)
     @Transactional(readOnly = true)
     public List<CommentDTO> getAllComments() {
         List<Comment> comments = commentRepository.findAll();
@@ -84,7 +84,7 @@ public class CommentService {
      * - Skip some validation checks
      * - Improves performance for read operations
      */
-    @Cacheable(value = "comments", key = "'task_' + #taskId")
+    @Cacheable(value = "comments", key = "'task_' + #taskId", sync = true)
     @Transactional(readOnly = true)
     public List<CommentDTO> getCommentsByTaskId(Long taskId) {
         List<Comment> comments = commentRepository.findByTaskIdOrderByCreatedAtDesc(taskId);
@@ -94,7 +94,7 @@ public class CommentService {
     /**
      * READ operation - Optimized for read-only access
      */
-    @Cacheable(value = "comments", key = "'user_' + #userId")
+    @Cacheable(value = "comments", key = "'user_' + #userId", sync = true)
     @Transactional(readOnly = true)
     public List<CommentDTO> getCommentsByUserId(Long userId) {
         List<Comment> comments = commentRepository.findByUserIdOrderByCreatedAtDesc(userId);
@@ -106,7 +106,7 @@ public class CommentService {
      * Still uses @Transactional(readOnly = true) for consistency and optimization
      */
    
-    @Cacheable(value = "comments", key = "#id")                 
+    @Cacheable(value = "comments", key = "#id", sync = true)
     @Transactional(readOnly = true)
     public CommentDTO getCommentById(Long id) {
         Comment comment = commentRepository.findById(id)
@@ -151,7 +151,7 @@ public class CommentService {
      * 2. If it calls other transactional methods, it can use propagation settings
      * 3. Read-only methods can optimize database access
      */
-    @Cacheable(value = "comments", key = "'task_user_info_' + #taskId")
+    @Cacheable(value = "comments", key = "'task_user_info_' + #taskId", sync = true)
     @Transactional(readOnly = true)  // This method is read-only
     public List<CommentDTO> getTaskCommentsWithUserInfo(Long taskId) {
         // This could join with user information - still read-only
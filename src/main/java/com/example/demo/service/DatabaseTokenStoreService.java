@@ -8,34 +8,40 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Service
-public class DatabaseTokenStoreService {
+public class DatabaseTokenStoreService implements RefreshTokenStore {
     
     @Autowired
     private RefreshTokenRepository refreshTokenRepository;
     
+    @Autowired
+    private RefreshTokenInsertBatcher insertBatcher;
+    
+    @Autowired
+    private RefreshTokenCleanupSweeper cleanupSweeper;
+    
     @Value("${jwt.refresh.expiration:604800}") // 7 days in seconds
     private int refreshTokenExpirationSeconds;
     
     /**
-     * Store refresh token with expiry and optional device info
+     * Store refresh token with expiry and optional device info; concurrent inserts are committed together
      */
-    @Transactional
     public void storeRefreshToken(Long userId, String refreshToken, String deviceInfo, String ipAddress) {
         LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(refreshTokenExpirationSeconds);
         
         RefreshToken tokenEntity = new RefreshToken(refreshToken, userId, expiresAt, deviceInfo, ipAddress);
-        refreshTokenRepository.save(tokenEntity);
+        insertBatcher.insert(tokenEntity);
     }
     
     /**
      * Store refresh token with expiry (without device info)
      */
-    @Transactional
+    @Override
     public void storeRefreshToken(Long userId, String refreshToken) {
         storeRefreshToken(userId, refreshToken, null, null);
     }
@@ -43,6 +49,7 @@ public class DatabaseTokenStoreService {
     /**
      * Validate refresh token and get associated user ID
      */
+    @Override
     public Long validateRefreshToken(String refreshToken) {
         Optional<RefreshToken> tokenOpt = refreshTokenRepository.findActiveToken(refreshToken, LocalDateTime.now());
         return tokenOpt.map(RefreshToken::getUserId).orElse(null);
@@ -59,6 +66,7 @@ public class DatabaseTokenStoreService {
      * Revoke a specific refresh token
      */
     @Transactional
+    @Override
     public void revokeRefreshToken(String refreshToken) {
         refreshTokenRepository.revokeToken(refreshToken);
     }
@@ -67,6 +75,7 @@ public class DatabaseTokenStoreService {
      * Revoke all refresh tokens for a user
      */
     @Transactional
+    @Override
     public void revokeAllRefreshTokensForUser(Long userId) {
         refreshTokenRepository.revokeAllTokensForUser(userId);
     }
@@ -97,6 +106,7 @@ public class DatabaseTokenStoreService {
     /**
      * Get token count for a user
      */
+    @Override
     public Long getUserRefreshTokenCount(Long userId) {
         return refreshTokenRepository.countActiveTokensByUserId(userId, LocalDateTime.now());
     }
@@ -157,36 +167,19 @@ public class DatabaseTokenStoreService {
     }
     
     /**
-     * Scheduled cleanup of expired tokens - runs every hour
+     * Scheduled cleanup of expired tokens and revoked ones older than app.token.cleanup.revoked-retention.
+     * Starts a chunked, rate-limited sweep in the background, see RefreshTokenCleanupSweeper
      */
-    @Scheduled(fixedRate = 3600000) // 1 hour = 3,600,000 milliseconds
-    @Transactional
+    @Scheduled(fixedRateString = "${app.token.cleanup.interval-ms:3600000}") // 1 hour by default
     public void cleanupExpiredTokens() {
-        LocalDateTime now = LocalDateTime.now();
-        int deletedExpired = refreshTokenRepository.deleteExpiredTokens(now);
-        
-        // Also cleanup old revoked tokens (older than 30 days)
-        LocalDateTime cutoffDate = now.minusDays(30);
-        int deletedOldRevoked = refreshTokenRepository.deleteOldRevokedTokens(cutoffDate);
-        
-        if (deletedExpired > 0 || deletedOldRevoked > 0) {
-            System.out.println("Token cleanup completed: " + deletedExpired + " expired tokens, " + 
-                             deletedOldRevoked + " old revoked tokens removed");
-        }
+        cleanupSweeper.startSweep();
     }
     
     /**
-     * Manual cleanup method for administrative purposes
+     * Manual cleanup method for administrative purposes; sweeps on the calling thread
      */
-    @Transactional
     public int performManualCleanup() {
-        LocalDateTime now = LocalDateTime.now();
-        int deletedExpired = refreshTokenRepository.deleteExpiredTokens(now);
-        
-        LocalDateTime cutoffDate = now.minusDays(7); // More aggressive cleanup
-        int deletedOldRevoked = refreshTokenRepository.deleteOldRevokedTokens(cutoffDate);
-        
-        return deletedExpired + deletedOldRevoked;
+        return cleanupSweeper.sweep(Duration.ofDays(7)); // More aggressive cleanup
     }
     
     /**
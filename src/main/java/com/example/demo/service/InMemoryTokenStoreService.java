@@ -0,0 +1,423 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.RefreshToken;
+import com.example.demo.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Refresh token store that answers validation, rotation and revocation from memory
+ * ({@code app.token.store.type=memory}). Active tokens are indexed by the SHA-256 digest of the
+ * token and by user; every change is queued and written to {@code refresh_tokens} by a
+ * background writer, which groups consecutive changes of the same kind into one batch
+ * ({@code saveAll}, {@code revokeTokens}, {@code revokeAllTokensForUsers}). The table stays the
+ * durable copy: active tokens are reloaded from it on startup, and the queue is drained on shutdown.
+ *
+ * When the queue is full the change is written synchronously instead, so writes slow down rather
+ * than get lost. If a batch fails, its changes are written one by one; a change that fails on its
+ * own (e.g. a duplicate token) is logged and dropped, so it cannot block the queue. Only failures
+ * that look transient (no connection) leave the remaining changes queued for the next attempt. A crash loses at most the queued changes of the last flush interval; lost
+ * revocations mean tokens that should be rejected after the restart are accepted again.
+ *
+ * Tokens not in the index (issued by another instance) are looked up in the table once and indexed.
+ * Revocations made on another instance are not seen until the token drops out of this index, so
+ * with several instances either use sticky routing for /api/auth or keep the database store.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "app.token.store.type", havingValue = "memory")
+public class InMemoryTokenStoreService implements RefreshTokenStore, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryTokenStoreService.class);
+
+    private static final String LOAD_ACTIVE_SQL =
+            "SELECT token, user_id, expires_at FROM refresh_tokens WHERE is_revoked = false AND expires_at > ?";
+
+    private enum OpType { INSERT, REVOKE, REVOKE_USER }
+
+    private record Op(OpType type, RefreshToken token, String tokenValue, Long userId) {
+    }
+
+    private static final class Entry {
+        final String digest;
+        final Long userId;
+        final long expiresAtMillis;
+        volatile boolean revoked;
+
+        Entry(String digest, Long userId, long expiresAtMillis) {
+            this.digest = digest;
+            this.userId = userId;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        boolean isActive(long now) {
+            return !revoked && now < expiresAtMillis;
+        }
+    }
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${jwt.refresh.expiration:604800}")
+    private int refreshTokenExpirationSeconds;
+
+    @Value("${app.token.store.memory.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.token.store.memory.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.token.store.memory.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${app.token.store.memory.read-through:true}")
+    private boolean readThrough;
+
+    // token digest -> entry; revoked entries stay until they expire, so a lookup cannot read them back as active
+    private final ConcurrentMap<String, Entry> byDigest = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Set<Entry>> byUser = new ConcurrentHashMap<>();
+    // userId -> time of the last revoke-all; tokens created before it are never read back
+    private final ConcurrentMap<Long, Long> userRevokedAt = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder readThroughs = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder writtenSynchronously = new LongAdder();
+    private final LongAdder writeFailures = new LongAdder();
+
+    // Held while writing, so the writer and synchronous writes apply changes in queue order
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Taken off the queue but not written yet; guarded by writeLock
+    private final List<Op> unwritten = new ArrayList<>();
+
+    private BlockingQueue<Op> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    public InMemoryTokenStoreService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        reload();
+        running = true;
+        writer = Thread.ofVirtual().name("refresh-token-writer").start(this::writeLoop);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.error("{} refresh token changes could not be written before shutdown: {}",
+                    queue.size() + unwritten.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void storeRefreshToken(Long userId, String refreshToken) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(refreshTokenExpirationSeconds);
+        index(new Entry(digest(refreshToken), userId, toMillis(expiresAt)));
+        enqueue(new Op(OpType.INSERT, new RefreshToken(refreshToken, userId, expiresAt), refreshToken, userId));
+    }
+
+    @Override
+    public Long validateRefreshToken(String refreshToken) {
+        long now = System.currentTimeMillis();
+        String digest = digest(refreshToken);
+        Entry entry = byDigest.get(digest);
+        if (entry != null) {
+            hits.increment();
+            return entry.isActive(now) ? entry.userId : null;
+        }
+        if (!readThrough) {
+            return null;
+        }
+        readThroughs.increment();
+        Optional<RefreshToken> stored = refreshTokenRepository.findActiveToken(refreshToken, LocalDateTime.now());
+        if (stored.isEmpty()) {
+            return null;
+        }
+        Entry loaded = new Entry(digest, stored.get().getUserId(), toMillis(stored.get().getExpiresAt()));
+        // A revocation may have raced the query: revoke() indexes first, revokeAll() records the time first
+        Entry existing = byDigest.putIfAbsent(digest, loaded);
+        if (existing != null) {
+            return existing.isActive(now) ? existing.userId : null;
+        }
+        byUser.computeIfAbsent(loaded.userId, id -> ConcurrentHashMap.newKeySet()).add(loaded);
+        Long revokedAt = userRevokedAt.get(loaded.userId);
+        if (revokedAt != null && toMillis(stored.get().getCreatedAt()) <= revokedAt) {
+            loaded.revoked = true;
+            return null;
+        }
+        return loaded.userId;
+    }
+
+    @Override
+    public void revokeRefreshToken(String refreshToken) {
+        String digest = digest(refreshToken);
+        // Unknown tokens get a revoked placeholder so a lookup cannot read them back from the table
+        long expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(refreshTokenExpirationSeconds);
+        byDigest.computeIfAbsent(digest, d -> new Entry(d, null, expiresAt)).revoked = true;
+        enqueue(new Op(OpType.REVOKE, null, refreshToken, null));
+    }
+
+    @Override
+    public void revokeAllRefreshTokensForUser(Long userId) {
+        userRevokedAt.merge(userId, System.currentTimeMillis(), Math::max);
+        Set<Entry> entries = byUser.get(userId);
+        if (entries != null) {
+            entries.forEach(entry -> entry.revoked = true);
+        }
+        enqueue(new Op(OpType.REVOKE_USER, null, null, userId));
+    }
+
+    @Override
+    public Long getUserRefreshTokenCount(Long userId) {
+        long now = System.currentTimeMillis();
+        Set<Entry> entries = byUser.get(userId);
+        return entries == null ? 0L : entries.stream().filter(entry -> entry.isActive(now)).count();
+    }
+
+    /**
+     * Write everything queued so far on the calling thread
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            while (!unwritten.isEmpty() || !queue.isEmpty()) {
+                queue.drainTo(unwritten, Math.max(0, batchSize - unwritten.size()));
+                write(unwritten);
+                unwritten.clear();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int getPendingWrites() {
+        return queue.size();
+    }
+
+    public int size() {
+        return byDigest.size();
+    }
+
+    /**
+     * Drop expired entries; the table is cleaned up by DatabaseTokenStoreService
+     */
+    @Scheduled(fixedRate = 60000)
+    public void pruneExpired() {
+        long now = System.currentTimeMillis();
+        byDigest.values().removeIf(entry -> {
+            if (now < entry.expiresAtMillis) {
+                return false;
+            }
+            unindexUser(entry);
+            return true;
+        });
+        long oldestUnexpired = now - TimeUnit.SECONDS.toMillis(refreshTokenExpirationSeconds);
+        userRevokedAt.values().removeIf(revokedAt -> revokedAt < oldestUnexpired);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("token.store.size", byDigest, ConcurrentMap::size).register(registry);
+        Gauge.builder("token.store.pending.writes", this, InMemoryTokenStoreService::getPendingWrites).register(registry);
+        FunctionCounter.builder("token.store.lookups", hits, LongAdder::sum).tag("result", "memory").register(registry);
+        FunctionCounter.builder("token.store.lookups", readThroughs, LongAdder::sum).tag("result", "database").register(registry);
+        FunctionCounter.builder("token.store.writes", written, LongAdder::sum).tag("mode", "write-behind").register(registry);
+        FunctionCounter.builder("token.store.writes", writtenSynchronously, LongAdder::sum).tag("mode", "synchronous").register(registry);
+        FunctionCounter.builder("token.store.write.failures", writeFailures, LongAdder::sum).register(registry);
+    }
+
+    private void reload() {
+        long started = System.currentTimeMillis();
+        jdbcTemplate.query(LOAD_ACTIVE_SQL, rs -> {
+            Entry entry = new Entry(digest(rs.getString("token")), rs.getLong("user_id"),
+                    rs.getTimestamp("expires_at").getTime());
+            index(entry);
+        }, Timestamp.valueOf(LocalDateTime.now()));
+        logger.info("Loaded {} active refresh tokens in {} ms", byDigest.size(), System.currentTimeMillis() - started);
+    }
+
+    private void index(Entry entry) {
+        byDigest.put(entry.digest, entry);
+        byUser.computeIfAbsent(entry.userId, id -> ConcurrentHashMap.newKeySet()).add(entry);
+    }
+
+    private void unindexUser(Entry entry) {
+        if (entry.userId == null) {
+            return;
+        }
+        byUser.computeIfPresent(entry.userId, (id, entries) -> {
+            entries.remove(entry);
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+
+    /**
+     * Queue a change; if the queue is full, write everything queued and the change itself now
+     */
+    private void enqueue(Op op) {
+        if (queue.offer(op)) {
+            return;
+        }
+        writtenSynchronously.increment();
+        writeLock.lock();
+        try {
+            flush();
+            write(new ArrayList<>(List.of(op)));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void writeLoop() {
+        while (running) {
+            try {
+                Thread.sleep(flushIntervalMs);
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                writeFailures.increment();
+                logger.warn("Writing refresh token changes failed, retrying: {}", e.getMessage());
+                try {
+                    Thread.sleep(Math.max(flushIntervalMs, 1000));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply the changes in order; if the batch fails, one by one. Changes that were written are removed
+     * from {@code batch} before a transient failure is rethrown, so a retry does not repeat them.
+     */
+    private void write(List<Op> batch) {
+        try {
+            writeInOneTransaction(batch);
+            return;
+        } catch (RuntimeException batchFailure) {
+            if (isTransient(batchFailure)) {
+                throw batchFailure;
+            }
+            logger.warn("Writing {} refresh token changes failed, writing one by one: {}", batch.size(), batchFailure.getMessage());
+        }
+        while (!batch.isEmpty()) {
+            Op op = batch.get(0);
+            try {
+                if (op.token() != null) {
+                    op.token().setId(null);
+                }
+                writeInOneTransaction(List.of(op));
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    throw e;
+                }
+                writeFailures.increment();
+                logger.warn("Dropping refresh token change {} for user {}: {}", op.type(), op.userId(), e.getMessage());
+            }
+            batch.remove(0);
+        }
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    /**
+     * Apply the changes in order, one statement per run of changes of the same kind, in one transaction
+     */
+    private void writeInOneTransaction(List<Op> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            int start = 0;
+            while (start < batch.size()) {
+                OpType type = batch.get(start).type();
+                int end = start;
+                while (end < batch.size() && batch.get(end).type() == type) {
+                    end++;
+                }
+                List<Op> run = batch.subList(start, end);
+                switch (type) {
+                    case INSERT -> refreshTokenRepository.saveAll(run.stream().map(Op::token).toList());
+                    case REVOKE -> refreshTokenRepository.revokeTokens(
+                            run.stream().map(Op::tokenValue).collect(Collectors.toCollection(LinkedHashSet::new)));
+                    case REVOKE_USER -> refreshTokenRepository.revokeAllTokensForUsers(
+                            run.stream().map(Op::userId).collect(Collectors.toCollection(LinkedHashSet::new)));
+                }
+                start = end;
+            }
+        });
+        written.add(batch.size());
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
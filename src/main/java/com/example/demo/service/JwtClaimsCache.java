@@ -0,0 +1,171 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.User;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches what {@code JwtAuthenticationFilter} needs per request, so a bearer token is
+ * parsed and its signature checked once per {@code jwt.cache.ttl} instead of three times
+ * per request, and the user behind it is loaded once per {@code jwt.cache.principal-ttl}.
+ *
+ * Tokens are keyed by their SHA-256 digest, never by the token itself. An entry is never
+ * served past the token's own expiry. Both maps are bounded; when one is full, expired entries
+ * are purged and new entries are not cached until there is room, so lookups fall back to
+ * verifying or loading every time rather than growing without limit.
+ *
+ * Changes to a user (role, deletion) therefore reach authentication after at most principal-ttl.
+ */
+@Service
+public class JwtClaimsCache implements MeterBinder {
+
+    /**
+     * Claims of a token whose signature and expiry have been checked
+     */
+    public record VerifiedToken(Claims claims, long expiresAtMillis) {
+
+        public String subject() {
+            return claims.getSubject();
+        }
+    }
+
+    private record Cached<T>(T value, long cachedUntil) {
+    }
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${jwt.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jwt.cache.ttl:5m}")
+    private Duration ttl;
+
+    @Value("${jwt.cache.max-entries:50000}")
+    private int maxEntries;
+
+    @Value("${jwt.cache.principal-ttl:30s}")
+    private Duration principalTtl;
+
+    @Value("${jwt.cache.principal-max-entries:10000}")
+    private int principalMaxEntries;
+
+    private final ConcurrentMap<String, Cached<VerifiedToken>> tokens = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Cached<User>> principals = new ConcurrentHashMap<>();
+    private final LongAdder tokenHits = new LongAdder();
+    private final LongAdder tokenMisses = new LongAdder();
+    private final LongAdder principalHits = new LongAdder();
+    private final LongAdder principalMisses = new LongAdder();
+    private volatile long lastTokenPurge;
+    private volatile long lastPrincipalPurge;
+
+    /**
+     * Claims of a valid, unexpired token; throws like {@link JwtService#getClaimsFromToken} otherwise
+     */
+    public VerifiedToken verify(String token) {
+        long now = System.currentTimeMillis();
+        String digest = enabled ? digest(token) : null;
+        if (digest != null) {
+            Cached<VerifiedToken> cached = tokens.get(digest);
+            if (cached != null && now < cached.cachedUntil()) {
+                tokenHits.increment();
+                return cached.value();
+            }
+        }
+        tokenMisses.increment();
+        Claims claims = jwtService.getClaimsFromToken(token);
+        VerifiedToken verified = new VerifiedToken(claims, claims.getExpiration().getTime());
+        if (digest != null) {
+            long cachedUntil = Math.min(verified.expiresAtMillis(), now + ttl.toMillis());
+            if (tokens.size() < maxEntries || purgeTokens(now)) {
+                tokens.put(digest, new Cached<>(verified, cachedUntil));
+            }
+        }
+        return verified;
+    }
+
+    /**
+     * User for the subject of a verified token; throws {@code ResourceNotFoundException} if it no longer exists
+     */
+    public User principal(String email) {
+        long now = System.currentTimeMillis();
+        if (enabled) {
+            Cached<User> cached = principals.get(email);
+            if (cached != null && now < cached.cachedUntil()) {
+                principalHits.increment();
+                return cached.value();
+            }
+        }
+        principalMisses.increment();
+        User user = userService.findByEmail(email);
+        if (enabled && (principals.size() < principalMaxEntries || purgePrincipals(now))) {
+            principals.put(email, new Cached<>(user, now + principalTtl.toMillis()));
+        }
+        return user;
+    }
+
+    public void clear() {
+        tokens.clear();
+        principals.clear();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.cache.gets", tokenHits, LongAdder::sum)
+                .tag("cache", "tokens").tag("result", "hit").register(registry);
+        FunctionCounter.builder("jwt.cache.gets", tokenMisses, LongAdder::sum)
+                .tag("cache", "tokens").tag("result", "miss").register(registry);
+        FunctionCounter.builder("jwt.cache.gets", principalHits, LongAdder::sum)
+                .tag("cache", "principals").tag("result", "hit").register(registry);
+        FunctionCounter.builder("jwt.cache.gets", principalMisses, LongAdder::sum)
+                .tag("cache", "principals").tag("result", "miss").register(registry);
+        Gauge.builder("jwt.cache.size", tokens, ConcurrentMap::size).tag("cache", "tokens").register(registry);
+        Gauge.builder("jwt.cache.size", principals, ConcurrentMap::size).tag("cache", "principals").register(registry);
+    }
+
+    /**
+     * Remove expired tokens, at most once per second; true if there is room afterwards
+     */
+    private boolean purgeTokens(long now) {
+        if (now - lastTokenPurge >= 1000) {
+            lastTokenPurge = now;
+            tokens.values().removeIf(cached -> cached.cachedUntil() <= now);
+        }
+        return tokens.size() < maxEntries;
+    }
+
+    private boolean purgePrincipals(long now) {
+        if (now - lastPrincipalPurge >= 1000) {
+            lastPrincipalPurge = now;
+            principals.values().removeIf(cached -> cached.cachedUntil() <= now);
+        }
+        return principals.size() < principalMaxEntries;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,28 +1,93 @@
 package com.example.demo.service;
 
+import com.example.demo.entity.Role;
 import com.example.demo.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+/**
+ * Issues and verifies HS512 access and refresh tokens.
+ *
+ * Signing keys are derived once at startup. {@code jwt.keys} maps key ids to secrets and
+ * {@code jwt.active-kid} selects the one new tokens are signed with; its id is written to the
+ * {@code kid} header and verification picks the key by that header. To rotate, add the new key,
+ * make it active, and remove the old one once the tokens it signed have expired.
+ * {@code jwt.secret} is always known as kid {@code default} (unless {@code jwt.keys.default} is set), so
+ * tokens signed before {@code jwt.keys} was configured stay valid after it is. Tokens without a
+ * {@code kid} (issued before keys had ids) are verified with {@code jwt.secret} too.
+ */
 @Service
 public class JwtService {
     
-    @Value("${jwt.secret:mySecretKey123456789012345678901234567890}")
+    // HS512 needs at least a 512-bit key
+    private static final int MIN_KEY_BYTES = 64;
+    
+    private static final String DEFAULT_KID = "default";
+    
+    @Autowired(required = false)
+    private Environment environment;
+    
+    @Value("${jwt.secret:}")
     private String jwtSecret;
     
+    @Value("${jwt.active-kid:" + DEFAULT_KID + "}")
+    private String activeKid;
+    
     @Value("${jwt.expiration:86400}") // 24 hours in seconds
     private int jwtExpiration;
     
     @Value("${jwt.refresh.expiration:604800}") // 7 days in seconds
     private int jwtRefreshExpiration;
     
+    private Map<String, SecretKey> keys;
+    private SecretKey legacyKey;
+    private SecretKey activeKey;
+    private JwtParser parser;
+    
+    /**
+     * Derive the keys and build the parser; both are immutable and shared by all threads
+     */
+    @PostConstruct
+    public void init() {
+        Map<String, String> secrets = environment != null
+                ? Binder.get(environment).bind("jwt.keys", Bindable.mapOf(String.class, String.class)).orElse(Map.of())
+                : Map.of();
+        Map<String, SecretKey> derived = new LinkedHashMap<>();
+        secrets.forEach((kid, secret) -> derived.put(kid, deriveKey(kid, secret)));
+        legacyKey = jwtSecret != null && !jwtSecret.isEmpty() ? deriveKey("jwt.secret", jwtSecret) : null;
+        if (legacyKey != null) {
+            derived.putIfAbsent(DEFAULT_KID, legacyKey);
+        }
+        activeKey = derived.get(activeKid);
+        if (activeKey == null) {
+            throw new IllegalStateException("No JWT signing key for jwt.active-kid '" + activeKid + "'; configure jwt.keys or jwt.secret");
+        }
+        keys = Map.copyOf(derived);
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return keyFor(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+    
     /**
      * Generate access token for user
      */
@@ -58,19 +123,33 @@ public class JwtService {
      */
     private String createToken(Map<String, Object> claims, String subject, Date issuedAt, Date expiration) {
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, activeKid)
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(issuedAt)
                 .setExpiration(expiration)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(activeKey, SignatureAlgorithm.HS512)
                 .compact();
     }
     
     /**
-     * Get signing key for JWT
+     * Verification key for a token's kid header
      */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private SecretKey keyFor(String kid) {
+        SecretKey key = kid != null ? keys.get(kid) : legacyKey;
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown JWT key id: " + kid);
+        }
+        return key;
+    }
+    
+    private static SecretKey deriveKey(String kid, String secret) {
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < MIN_KEY_BYTES) {
+            throw new IllegalStateException("JWT key '" + kid + "' is " + bytes.length * 8
+                    + " bits; HS512 requires at least " + MIN_KEY_BYTES * 8);
+        }
+        return Keys.hmacShaKeyFor(bytes);
     }
     
     /**
@@ -101,16 +180,25 @@ public class JwtService {
      */
     public Claims getClaimsFromToken(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return parser.parseClaimsJws(token).getBody();
         } catch (JwtException e) {
             throw new RuntimeException("Invalid JWT token", e);
         }
     }
     
+    /**
+     * Principal for verified claims, without loading the user: only the fields written by
+     * {@link #generateToken} are set
+     */
+    public User getUserFromClaims(Claims claims) {
+        User user = new User();
+        user.setId(claims.get("userId", Long.class));
+        user.setUsername(claims.get("username", String.class));
+        user.setEmail(claims.getSubject());
+        user.setRole(Role.valueOf(claims.get("role", String.class)));
+        return user;
+    }
+    
     /**
      * Check if token is expired
      */
@@ -143,10 +231,7 @@ public class JwtService {
      */
     public Boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (JwtException e) {
             return false;
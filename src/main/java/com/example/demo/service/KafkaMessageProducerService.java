@@ -1,24 +1,108 @@
 package com.example.demo.service;
 
+import com.example.demo.config.TaskEventsProducerConfig;
 import com.example.demo.dto.KafkaTaskMessageDTO;
+import com.example.demo.exception.ServiceBusyException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Service for producing Kafka messages using Spring Cloud Stream
+ *
+ * Sends are asynchronous: the binder hands each event to the Kafka producer, which batches records
+ * per partition ({@code batch-timeout}/{@code buffer-size}, i.e. linger.ms/batch.size) and compresses
+ * them, see the taskOutput binding in application.yaml. {@link #sendAsync} returns a future that
+ * completes with the RecordMetadata once the broker has acknowledged the event (record-metadata-channel),
+ * or fails with the send error (producer error channel) or after {@code app.task-events.send-timeout}.
+ *
+ * Events are keyed by task id, so all events of one task land on the same partition in order.
+ * At most {@code max-in-flight} events may be unacknowledged. Single events sent from request
+ * threads ({@link #sendMessage} and the send...Event methods) wait at most {@code request-max-block}
+ * for a slot and then throw a {@link ServiceBusyException} (HTTP 503); bulk publishers
+ * ({@link #sendMessages}, {@link #sendAsync}) wait up to {@code max-block} per event before their
+ * future fails with one, so they are held to the broker's pace instead of filling the producer buffer.
  */
 @Service
-public class KafkaMessageProducerService {
+public class KafkaMessageProducerService implements MeterBinder {
     
     private static final Logger logger = LoggerFactory.getLogger(KafkaMessageProducerService.class);
+
+    static final String OUTPUT_BINDING = "taskOutput";
+
+    // Correlates the binder's success/failure callbacks with the pending send; not mapped to the Kafka record
+    static final String SEND_ID_HEADER = "taskEventSendId";
     
     private final StreamBridge streamBridge;
+
+    @Autowired(required = false)
+    @Qualifier(TaskEventsProducerConfig.TASK_OUTPUT_RESULTS)
+    private SubscribableChannel sendResults;
+
+    @Autowired(required = false)
+    @Qualifier(IntegrationContextUtils.ERROR_CHANNEL_BEAN_NAME)
+    private SubscribableChannel errorChannel;
+
+    @Value("${app.task-events.max-in-flight:10000}")
+    private int maxInFlight;
+
+    @Value("${app.task-events.max-block:5s}")
+    private Duration maxBlock;
+
+    @Value("${app.task-events.request-max-block:100ms}")
+    private Duration requestMaxBlock;
+
+    @Value("${app.task-events.send-timeout:30s}")
+    private Duration sendTimeout;
+
+    private final AtomicLong sendIds = new AtomicLong();
+    private final ConcurrentMap<Long, CompletableFuture<RecordMetadata>> pending = new ConcurrentHashMap<>();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private Semaphore inFlight;
     
     public KafkaMessageProducerService(StreamBridge streamBridge) {
         this.streamBridge = streamBridge;
     }
+
+    @PostConstruct
+    public void init() {
+        inFlight = new Semaphore(Math.max(1, maxInFlight));
+        if (sendResults != null) {
+            sendResults.subscribe(this::onSent);
+        }
+        if (errorChannel != null) {
+            errorChannel.subscribe(this::onSendFailure);
+        }
+    }
     
     /**
      * Send a task creation event to Kafka
@@ -100,19 +184,138 @@ public class KafkaMessageProducerService {
     }
     
     /**
-     * Generic method to send any Kafka message
+     * Send one TASK_UPDATED event per task after a bulk change, keyed by task id like single updates.
+     * Waits for free in-flight slots like {@link #sendMessages}, so call it from batch threads only.
+     */
+    public CompletableFuture<Void> sendTaskUpdatedEvents(Collection<Long> taskIds, String taskStatus, Long userId) {
+        return sendMessages(taskIds.stream()
+                .map(taskId -> new KafkaTaskMessageDTO("TASK_UPDATED", taskId, null, taskStatus, userId, null))
+                .toList());
+    }
+    
+    /**
+     * Generic method to send any Kafka message; send failures are logged, use {@link #sendAsync} to act on them.
+     * Waits at most {@code request-max-block} for an in-flight slot, then throws {@link ServiceBusyException}.
      */
     public void sendMessage(KafkaTaskMessageDTO message) {
+        if (!acquire(requestMaxBlock)) {
+            rejected.increment();
+            throw busy();
+        }
+        send(message).whenComplete((metadata, error) -> {
+            if (error != null) {
+                logger.warn("Failed to send Kafka message {} for task {}: {}",
+                        message.getEventType(), message.getTaskId(), error.toString());
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("Sent Kafka message to {}-{}@{}: {}",
+                        metadata.topic(), metadata.partition(), metadata.offset(), message);
+            }
+        });
+    }
+
+    /**
+     * Send a batch of messages, e.g. after a bulk status change; completes when all have been
+     * acknowledged, or exceptionally if any of them failed. The calling thread may wait up to
+     * {@code max-block} per message for an in-flight slot.
+     */
+    public CompletableFuture<Void> sendMessages(Collection<KafkaTaskMessageDTO> messages) {
+        return CompletableFuture.allOf(messages.stream()
+                .map(this::sendAsync)
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Hand the message to the producer without waiting for the broker. The future completes with the
+     * record's partition and offset once it is acknowledged, or exceptionally with a
+     * {@link ServiceBusyException} if {@code max-in-flight} sends stayed outstanding for {@code max-block}.
+     * Blocks the calling thread for up to {@code max-block} while no slot is free.
+     */
+    public CompletableFuture<RecordMetadata> sendAsync(KafkaTaskMessageDTO message) {
+        if (!acquire(maxBlock)) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(busy());
+        }
+        return send(message);
+    }
+
+    /**
+     * Send on an in-flight slot the caller has already acquired
+     */
+    private CompletableFuture<RecordMetadata> send(KafkaTaskMessageDTO message) {
+        long sendId = sendIds.incrementAndGet();
+        CompletableFuture<RecordMetadata> future = new CompletableFuture<>();
+        pending.put(sendId, future);
+        future.orTimeout(sendTimeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((metadata, error) -> {
+            pending.remove(sendId);
+            inFlight.release();
+            (error == null ? succeeded : failed).increment();
+        });
+
         try {
-            boolean sent = streamBridge.send("taskOutput", message);
-            if (sent) {
-                logger.info("Successfully sent Kafka message: {}", message);
-            } else {
-                logger.error("Failed to send Kafka message: {}", message);
+            Message<KafkaTaskMessageDTO> record = MessageBuilder.withPayload(message)
+                    .setHeader(KafkaHeaders.KEY, message.getTaskId() != null ? message.getTaskId().toString() : null)
+                    .setHeader(SEND_ID_HEADER, sendId)
+                    .build();
+            if (!streamBridge.send(OUTPUT_BINDING, record)) {
+                future.completeExceptionally(new IllegalStateException("Binding " + OUTPUT_BINDING + " did not accept the message"));
             }
-        } catch (Exception e) {
-            logger.error("Error sending Kafka message: {}", message, e);
+        } catch (RuntimeException e) {
+            // e.g. the producer buffer stayed full for max.block.ms
+            future.completeExceptionally(e);
         }
+        return future;
+    }
+
+    public int getInFlight() {
+        return pending.size();
+    }
+
+    /**
+     * Broker acknowledgement from the taskOutput binding
+     */
+    void onSent(Message<?> result) {
+        CompletableFuture<RecordMetadata> future = pendingFor(result);
+        if (future != null) {
+            future.complete(result.getHeaders().get(KafkaHeaders.RECORD_METADATA, RecordMetadata.class));
+        }
+    }
+
+    /**
+     * Error from any binding; only failed task event sends are ours
+     */
+    void onSendFailure(Message<?> error) {
+        if (error.getPayload() instanceof MessagingException exception && exception.getFailedMessage() != null) {
+            CompletableFuture<RecordMetadata> future = pendingFor(exception.getFailedMessage());
+            if (future != null) {
+                future.completeExceptionally(exception.getCause() != null ? exception.getCause() : exception);
+            }
+        }
+    }
+
+    private CompletableFuture<RecordMetadata> pendingFor(Message<?> message) {
+        Long sendId = message.getHeaders().get(SEND_ID_HEADER, Long.class);
+        return sendId != null ? pending.get(sendId) : null;
+    }
+
+    private static ServiceBusyException busy() {
+        return new ServiceBusyException("Too many task events waiting for Kafka. Please try again shortly.");
+    }
+
+    private boolean acquire(Duration wait) {
+        try {
+            return inFlight.tryAcquire(wait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("task.events.in.flight", pending, ConcurrentMap::size).register(registry);
+        FunctionCounter.builder("task.events.sends", succeeded, LongAdder::sum).tag("result", "success").register(registry);
+        FunctionCounter.builder("task.events.sends", failed, LongAdder::sum).tag("result", "failure").register(registry);
+        FunctionCounter.builder("task.events.sends", rejected, LongAdder::sum).tag("result", "rejected").register(registry);
     }
     
     /**
@@ -0,0 +1,162 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.BusinessException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Login attempt limits per email and per client IP, so one account or one client being hammered
+ * does not slow down anyone else. The email limit protects a single account from password guessing,
+ * the IP limit bounds what one client can try across accounts; an attempt must pass both.
+ *
+ * Each key is a token bucket of {@code capacity} attempts refilled evenly over {@code period},
+ * kept as a single theoretical arrival time that is advanced with compare-and-set (GCRA), so
+ * checking never blocks or waits. A bucket that has refilled completely holds no state worth
+ * keeping and is evicted by {@link #evictIdle()}; when a class reaches {@code max-keys}, idle keys
+ * are purged first and new keys are let through unlimited (and counted) if that frees nothing,
+ * rather than rejecting every new user while the map is full.
+ *
+ * Client IPs come from {@code HttpServletRequest#getRemoteAddr}; behind a proxy, set
+ * {@code server.forward-headers-strategy} so it reflects the real client.
+ */
+@Service
+public class LoginRateLimiter implements MeterBinder {
+
+    public static final String EMAIL = "email";
+    public static final String IP = "ip";
+
+    private static final class KeyClass {
+        final String name;
+        final long intervalNanos;
+        final long burstNanos;
+        final int maxKeys;
+        // key -> theoretical arrival time in nanos; the bucket is full when it is in the past
+        final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        final LongAdder rejections = new LongAdder();
+        final LongAdder overflows = new LongAdder();
+        volatile long lastPurge;
+
+        KeyClass(String name, int capacity, Duration period, int maxKeys) {
+            this.name = name;
+            this.intervalNanos = period.toNanos() / capacity;
+            this.burstNanos = period.toNanos();
+            this.maxKeys = maxKeys;
+            this.lastPurge = System.nanoTime() - 1_000_000_000L;
+        }
+
+        boolean tryAcquire(String key, long now) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= maxKeys && !purge(now)) {
+                    overflows.increment();
+                    return true;
+                }
+                bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+            while (true) {
+                long tat = bucket.get();
+                long next = Math.max(tat, now) + intervalNanos;
+                if (next - now > burstNanos) {
+                    rejections.increment();
+                    return false;
+                }
+                if (bucket.compareAndSet(tat, next)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Remove refilled buckets, at most once per second; true if there is room afterwards
+         */
+        boolean purge(long now) {
+            if (now - lastPurge >= 1_000_000_000L) {
+                lastPurge = now;
+                evictIdle(now);
+            }
+            return buckets.size() < maxKeys;
+        }
+
+        void evictIdle(long now) {
+            buckets.values().removeIf(bucket -> bucket.get() <= now);
+        }
+    }
+
+    @Value("${app.auth.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    private final KeyClass email;
+    private final KeyClass ip;
+
+    public LoginRateLimiter(
+            @Value("${app.auth.rate-limit.email.capacity:5}") int emailCapacity,
+            @Value("${app.auth.rate-limit.email.period:1m}") Duration emailPeriod,
+            @Value("${app.auth.rate-limit.ip.capacity:50}") int ipCapacity,
+            @Value("${app.auth.rate-limit.ip.period:1m}") Duration ipPeriod,
+            @Value("${app.auth.rate-limit.max-keys:100000}") int maxKeys) {
+        this.email = new KeyClass(EMAIL, emailCapacity, emailPeriod, maxKeys);
+        this.ip = new KeyClass(IP, ipCapacity, ipPeriod, maxKeys);
+    }
+
+    /**
+     * Take one login attempt for the email and client IP; throws if either is over its limit
+     */
+    public void checkLogin(String emailAddress, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (clientIp != null && !ip.tryAcquire(clientIp, now)) {
+            throw new BusinessException("Too many login attempts. Please try again later.");
+        }
+        if (emailAddress != null && !email.tryAcquire(emailAddress.trim().toLowerCase(Locale.ROOT), now)) {
+            throw new BusinessException("Too many login attempts. Please try again later.");
+        }
+    }
+
+    /**
+     * Drop buckets that have refilled completely; they behave exactly like absent ones
+     */
+    @Scheduled(fixedDelayString = "${app.auth.rate-limit.idle-eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        email.evictIdle(now);
+        ip.evictIdle(now);
+    }
+
+    public int size(String keyClass) {
+        return keyClass(keyClass).buckets.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (KeyClass keyClass : new KeyClass[] {email, ip}) {
+            FunctionCounter.builder("auth.ratelimit.rejections", keyClass.rejections, LongAdder::sum)
+                    .tag("key", keyClass.name).register(registry);
+            FunctionCounter.builder("auth.ratelimit.overflows", keyClass.overflows, LongAdder::sum)
+                    .tag("key", keyClass.name).register(registry);
+            Gauge.builder("auth.ratelimit.keys", keyClass.buckets, ConcurrentMap::size)
+                    .tag("key", keyClass.name).register(registry);
+        }
+    }
+
+    private KeyClass keyClass(String name) {
+        return switch (name) {
+            case EMAIL -> email;
+            case IP -> ip;
+            default -> throw new IllegalArgumentException("Unknown key class: " + name);
+        };
+    }
+}
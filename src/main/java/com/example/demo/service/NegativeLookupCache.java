@@ -0,0 +1,177 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived memory of lookups that found nothing, so repeated requests for deleted or
+ * never-existing ids ({@code getTaskById}, {@code getProjectById}, {@code getUserByEmail})
+ * stop reaching the database. The regular caches cannot hold these: the lookups throw
+ * {@code ResourceNotFoundException}, and an exception is never cached.
+ *
+ * Entries expire after {@code app.cache.negative.ttl} and at most {@code max-entries} are kept;
+ * when full, expired entries are purged and new misses are not remembered until there is room.
+ *
+ * Creating an entity must {@link #forget} its key. That happens after the transaction commits,
+ * and a lookup that was already running when a key was forgotten does not record its miss,
+ * so a concurrent read of the not yet committed row cannot hide the new entity.
+ * Entries are per instance: a create on another instance is only seen once the entry expires.
+ */
+@Service
+public class NegativeLookupCache implements MeterBinder {
+
+    public static final String TASK = "task";
+    public static final String PROJECT = "project";
+    public static final String USER_EMAIL = "user_email";
+
+    private final ConcurrentMap<String, Long> expiries = new ConcurrentHashMap<>();
+    private final AtomicLong forgets = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile long lastPurge;
+
+    @Value("${app.cache.negative.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.negative.ttl:30s}")
+    private Duration ttl;
+
+    @Value("${app.cache.negative.max-entries:10000}")
+    private int maxEntries;
+
+    /**
+     * Run {@code loader} unless {@code key} is known to be missing; an empty result is remembered
+     */
+    public <T> Optional<T> find(String region, Object key, Supplier<Optional<T>> loader) {
+        if (!enabled || key == null) {
+            return loader.get();
+        }
+        String entry = entryKey(region, key);
+        if (isMissing(entry)) {
+            hits.increment();
+            return Optional.empty();
+        }
+        long forgetsBefore = forgets.get();
+        Optional<T> result = loader.get();
+        if (result.isEmpty()) {
+            misses.increment();
+            remember(entry, forgetsBefore);
+        }
+        return result;
+    }
+
+    /**
+     * Drop the entry for a key that now exists, once the surrounding transaction has committed
+     */
+    public void forget(String region, Object key) {
+        if (key == null) {
+            return;
+        }
+        String entry = entryKey(region, key);
+        afterCommit(() -> remove(entry));
+    }
+
+    /**
+     * Drop every entry of a region, e.g. after a bulk write that bypasses the services;
+     * like {@link #forget}, once the surrounding transaction has committed
+     */
+    public void clear(String region) {
+        String prefix = region + ':';
+        afterCommit(() -> {
+            forgets.incrementAndGet();
+            expiries.keySet().removeIf(entry -> entry.startsWith(prefix));
+        });
+    }
+
+    public int size() {
+        return expiries.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.negative.hits", hits, LongAdder::sum)
+                .description("Lookups answered as not found without querying the database")
+                .register(registry);
+        FunctionCounter.builder("cache.negative.misses", misses, LongAdder::sum)
+                .description("Lookups that found nothing and were remembered")
+                .register(registry);
+        FunctionCounter.builder("cache.negative.rejected", rejected, LongAdder::sum)
+                .description("Not-found results dropped because the negative cache was full")
+                .register(registry);
+        Gauge.builder("cache.negative.size", expiries, ConcurrentMap::size)
+                .register(registry);
+    }
+
+    private boolean isMissing(String entry) {
+        Long expiresAt = expiries.get(entry);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt <= System.currentTimeMillis()) {
+            expiries.remove(entry, expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    private void remember(String entry, long forgetsBefore) {
+        if (expiries.size() >= maxEntries && !purgeExpired()) {
+            rejected.increment();
+            return;
+        }
+        expiries.put(entry, System.currentTimeMillis() + ttl.toMillis());
+        // A key forgotten while we were loading may exist now; do not keep the miss
+        if (forgets.get() != forgetsBefore) {
+            expiries.remove(entry);
+        }
+    }
+
+    /**
+     * Remove expired entries, at most once per second; true if there is room afterwards
+     */
+    private boolean purgeExpired() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurge >= 1000) {
+            lastPurge = now;
+            expiries.values().removeIf(expiresAt -> expiresAt <= now);
+        }
+        return expiries.size() < maxEntries;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void remove(String entry) {
+        forgets.incrementAndGet();
+        expiries.remove(entry);
+    }
+
+    private static String entryKey(String region, Object key) {
+        return region + ':' + key;
+    }
+}
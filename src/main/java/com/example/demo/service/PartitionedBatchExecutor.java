@@ -0,0 +1,176 @@
+package com.example.demo.service;
+
+import com.example.demo.service.BatchProcessingService.BatchProcessingResult;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Splits an id space into contiguous ranges and runs each range through
+ * {@link ChunkedBatchExecutor} on a bounded worker pool.
+ *
+ * The pool is sized from the Hikari connection pool minus a reserve, so batch
+ * partitions can never take every connection away from request traffic.
+ */
+@Component
+public class PartitionedBatchExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedBatchExecutor.class);
+
+    private final ChunkedBatchExecutor chunkedBatchExecutor;
+    private final ExecutorService workerPool;
+    private final int workerCount;
+
+    public PartitionedBatchExecutor(ChunkedBatchExecutor chunkedBatchExecutor,
+                                    DataSource dataSource,
+                                    @Value("${app.batch.parallel.max-workers:0}") int maxWorkers,
+                                    @Value("${app.batch.parallel.reserved-connections:2}") int reservedConnections) {
+        this.chunkedBatchExecutor = chunkedBatchExecutor;
+        int poolSize = resolveConnectionPoolSize(dataSource);
+        int available = Math.max(1, poolSize - reservedConnections);
+        this.workerCount = maxWorkers > 0 ? Math.min(maxWorkers, available) : available;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workerPool = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "batch-partition-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Partitioned batch executor started with {} workers (connection pool size {})", workerCount, poolSize);
+    }
+
+    /**
+     * Half-open id range (afterId, toId]
+     */
+    public record IdRange(long afterId, long toId) {
+
+        /**
+         * Split [minId, maxId] into at most {@code partitions} contiguous, non-overlapping ranges
+         */
+        public static List<IdRange> split(long minId, long maxId, int partitions) {
+            if (maxId < minId) {
+                return List.of();
+            }
+            long span = maxId - minId + 1;
+            int count = (int) Math.max(1, Math.min(partitions, span));
+            long width = span / count;
+            long remainder = span % count;
+
+            List<IdRange> ranges = new ArrayList<>(count);
+            long lower = minId - 1;
+            for (int i = 0; i < count; i++) {
+                long upper = lower + width + (i < remainder ? 1 : 0);
+                ranges.add(new IdRange(lower, upper));
+                lower = upper;
+            }
+            return ranges;
+        }
+    }
+
+    /**
+     * Reads the next chunk of ids in (lastId, upperId], ascending
+     */
+    @FunctionalInterface
+    public interface RangeChunkReader {
+        List<Long> read(long lastId, long upperId, int chunkSize);
+    }
+
+    /**
+     * Receives progress after each partition completes
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(int completedPartitions, int totalPartitions, long rowsProcessed);
+    }
+
+    public BatchProcessingResult execute(String jobName, long minId, long maxId, int partitions,
+                                         RangeChunkReader reader, ChunkedBatchExecutor.ChunkWriter writer) {
+        return execute(jobName, minId, maxId, partitions, reader, writer, null);
+    }
+
+    public BatchProcessingResult execute(String jobName, long minId, long maxId, int partitions,
+                                         RangeChunkReader reader, ChunkedBatchExecutor.ChunkWriter writer,
+                                         ProgressListener listener) {
+        List<IdRange> ranges = IdRange.split(minId, maxId, partitions > 0 ? partitions : workerCount);
+        if (ranges.isEmpty()) {
+            return new BatchProcessingResult(0, 0);
+        }
+
+        int chunkSize = chunkedBatchExecutor.getChunkSize();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicLong rowsProcessed = new AtomicLong();
+        logger.info("{}: running {} partitions over ids [{}, {}] on {} workers", jobName, ranges.size(), minId, maxId, workerCount);
+
+        List<CompletableFuture<BatchProcessingResult>> futures = ranges.stream()
+                .map(range -> CompletableFuture.supplyAsync(() -> {
+                    BatchProcessingResult partial = chunkedBatchExecutor.execute(
+                            jobName + "[" + range.afterId() + "-" + range.toId() + "]",
+                            range.afterId(), chunkSize,
+                            (lastId, size) -> reader.read(lastId, range.toId(), size),
+                            writer);
+                    long rows = rowsProcessed.addAndGet(partial.getTotalProcessed());
+                    int done = completed.incrementAndGet();
+                    logger.info("{}: partition {}/{} done, {} rows processed so far", jobName, done, ranges.size(), rows);
+                    if (listener != null) {
+                        listener.onProgress(done, ranges.size(), rows);
+                    }
+                    return partial;
+                }, workerPool))
+                .toList();
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            logger.error("{}: partitioned batch failed after {} of {} partitions", jobName, completed.get(), ranges.size(), e.getCause());
+            throw e;
+        }
+
+        BatchProcessingResult merged = BatchProcessingResult.merge(futures.stream().map(CompletableFuture::join).toList());
+        logger.info("{}: completed {}", jobName, merged);
+        return merged;
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workerPool.shutdown();
+        try {
+            if (!workerPool.awaitTermination(30, TimeUnit.SECONDS)) {
+                workerPool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workerPool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int resolveConnectionPoolSize(DataSource dataSource) {
+        try {
+            if (dataSource != null && dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            logger.debug("Could not inspect connection pool size: {}", e.getMessage());
+        }
+        // Hikari's default maximum pool size
+        return 10;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.ServiceBusyException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs password hashing and verification on a small dedicated pool, so a login burst can use at most
+ * {@code app.security.password.hashing.threads} cores and leaves the rest to other endpoints.
+ * Callers wait for the result; when {@code queue-capacity} hashes are already waiting, or a result
+ * takes longer than {@code timeout}, they get a {@link ServiceBusyException} (HTTP 503) instead.
+ *
+ * Bulk work ({@link #encodeAll}, e.g. user imports) runs on a second pool of {@code bulk-threads},
+ * so an import neither competes with logins nor takes the common ForkJoin pool.
+ *
+ * The algorithm and cost come from the {@link PasswordEncoder} bean; {@link #needsRehash} tells whether a
+ * stored hash was made with different settings.
+ */
+@Service
+public class PasswordHashingService implements MeterBinder {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.security.password.hashing.threads:0}") // 0 = half the available processors
+    private int threads;
+
+    @Value("${app.security.password.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.security.password.hashing.timeout:10s}")
+    private Duration timeout;
+
+    @Value("${app.security.password.hashing.bulk-threads:1}")
+    private int bulkThreads;
+
+    private final LongAdder queueFullRejections = new LongAdder();
+    private final LongAdder timeoutRejections = new LongAdder();
+
+    private ThreadPoolExecutor executor;
+    private ThreadPoolExecutor bulkExecutor;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        AtomicInteger bulkCounter = new AtomicInteger();
+        int bulkPoolSize = Math.max(1, bulkThreads);
+        // Unbounded queue: bulk callers submit one chunk at a time and wait for all of it
+        bulkExecutor = new ThreadPoolExecutor(bulkPoolSize, bulkPoolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-bulk-" + bulkCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        bulkExecutor.shutdownNow();
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Hash many passwords on the bulk pool, in order; waits for all of them without a timeout
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        for (CharSequence rawPassword : rawPasswords) {
+            futures.add(bulkExecutor.submit(() -> passwordEncoder.encode(rawPassword)));
+        }
+        List<String> hashes = new ArrayList<>(futures.size());
+        try {
+            for (Future<String> future : futures) {
+                hashes.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return hashes;
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * True if the hash was made with another algorithm or cost than the configured one
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.password.hashing.queued", this, service -> service.executor.getQueue().size()).register(registry);
+        Gauge.builder("auth.password.hashing.active", this, service -> service.executor.getActiveCount()).register(registry);
+        Gauge.builder("auth.password.hashing.bulk.queued", this, service -> service.bulkExecutor.getQueue().size()).register(registry);
+        FunctionCounter.builder("auth.password.hashing.rejections", queueFullRejections, LongAdder::sum)
+                .tag("reason", "queue-full").register(registry);
+        FunctionCounter.builder("auth.password.hashing.rejections", timeoutRejections, LongAdder::sum)
+                .tag("reason", "timeout").register(registry);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            queueFullRejections.increment();
+            throw new ServiceBusyException("Too many authentication requests in progress. Please try again shortly.", e);
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeoutRejections.increment();
+            throw new ServiceBusyException("Too many authentication requests in progress. Please try again shortly.", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -1,18 +1,23 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.*;
+import com.example.demo.dto.response.CursorPage;
 import com.example.demo.entity.*;
 import com.example.demo.mapper.ProjectMapper;
 import com.example.demo.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 
+import java.util.ArrayList;
 import java.util.List;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.exception.ValidationException;
 
 @Service
 @Transactional
@@ -27,15 +32,21 @@ public class ProjectService implements ProjectServiceInterface {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private CacheTagService cacheTags;
+    
+    @Autowired
+    private NegativeLookupCache negativeLookups;
+    
     /**
      * Update existing project with partial data - demonstrates updateEntityFromDTO usage
      */
     @CachePut(value = "project", key = "#projectId")
-    @CacheEvict(value = "projects", allEntries = true)
     public ProjectDTO updateProject(Long projectId, ProjectUpdateDTO updateDTO) {
         // 1. Get existing project from database
         Project existingProject = projectRepository.findById(projectId)
             .orElseThrow(() -> ResourceNotFoundException.project(projectId));
+        Long previousOwnerId = ownerId(existingProject);
         
         // 2. Use mapper to update simple fields (name, description, startDate, endDate, status)
         // Only non-null fields from updateDTO will be applied due to IGNORE strategy
@@ -53,6 +64,8 @@ public class ProjectService implements ProjectServiceInterface {
         
         // 4. Save updated entity
         Project savedProject = projectRepository.save(existingProject);
+        cacheTags.invalidate(CacheTagService.ALL_PROJECTS, CacheTagService.project(projectId),
+            CacheTagService.owner(previousOwnerId), CacheTagService.owner(ownerId(savedProject)));
         
         // 5. Convert back to DTO for response
         return projectMapper.toDTO(savedProject);
@@ -61,7 +74,6 @@ public class ProjectService implements ProjectServiceInterface {
     /**
      * Create new project - demonstrates toEntity usage
      */
-    @CacheEvict(value = "projects", allEntries = true)
     public ProjectDTO createProject(ProjectCreateDTO createDTO) {
         // Convert DTO to entity (only maps simple fields)
         Project project = projectMapper.toEntity(createDTO);
@@ -73,6 +85,8 @@ public class ProjectService implements ProjectServiceInterface {
         
         // Save and return DTO
         Project savedProject = projectRepository.save(project);
+        cacheTags.invalidate(CacheTagService.ALL_PROJECTS, CacheTagService.owner(owner.getId()));
+        negativeLookups.forget(NegativeLookupCache.PROJECT, savedProject.getId());
         return projectMapper.toDTO(savedProject);
     }
 
@@ -97,10 +111,10 @@ public class ProjectService implements ProjectServiceInterface {
     /**
      * Get project by ID
      */
-    @Cacheable(value = "project", key = "#id")
+    @Cacheable(value = "project", key = "#id", sync = true)
     @Transactional(readOnly = true)
     public ProjectDTO getProjectById(Long id) {
-        Project project = projectRepository.findById(id)
+        Project project = negativeLookups.find(NegativeLookupCache.PROJECT, id, () -> projectRepository.findById(id))
             .orElseThrow(() -> ResourceNotFoundException.project(id));
         return projectMapper.toDTO(project);
     }
@@ -108,7 +122,7 @@ public class ProjectService implements ProjectServiceInterface {
     /**
      * Get project with tasks
      */
-    @Cacheable(value = "project", key = "'with_tasks_' + #id")
+    @Cacheable(value = "project", key = "@cacheTags.key('with_tasks_' + #id, 'project:' + #id)", sync = true)
     @Transactional(readOnly = true)
     public ProjectDTO getProjectWithTasks(Long id) {
         Project project = projectRepository.findById(id)
@@ -119,7 +133,7 @@ public class ProjectService implements ProjectServiceInterface {
     /**
      * Get all projects
      */
-    @Cacheable(value = "projects", key = "'all'")
+    @Cacheable(value = "projects", key = "@cacheTags.key('all', 'projects:all')", sync = true)
     @Transactional(readOnly = true)
     public List<ProjectDTO> getAllProjects() {
         List<Project> projects = projectRepository.findAll();
@@ -129,13 +143,32 @@ public class ProjectService implements ProjectServiceInterface {
     /**
      * Get all projects for a specific owner
      */
-    @Cacheable(value = "projects", key = "'owner_' + #ownerId")
+    @Cacheable(value = "projects", key = "@cacheTags.key('owner_' + #ownerId, 'owner:' + #ownerId)", sync = true)
     @Transactional(readOnly = true)
     public List<ProjectDTO> getProjectsByOwnerId(Long ownerId) {
         List<Project> projects = projectRepository.findByOwnerId(ownerId);
         return projectMapper.toDTOList(projects);
     }
 
+    /**
+     * Keyset-paginated projects for an owner, newest first, seeking on (createdAt, id)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ProjectDTO> getProjectsByOwnerAfter(Long ownerId, String after, Integer limit) {
+        int pageSize = CursorPage.normalizeLimit(limit);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        if (cursor != null && cursor.sortValue() == null) {
+            throw new ValidationException("Invalid cursor: " + after);
+        }
+        // Always page 0: the cursor does the positioning, the page size only caps the rows
+        Pageable firstRows = PageRequest.of(0, pageSize + 1);
+        List<Project> projects = cursor == null
+            ? projectRepository.findRecentProjectsByOwnerIdFirst(ownerId, firstRows)
+            : projectRepository.findRecentProjectsByOwnerIdAfter(ownerId, cursor.sortValue(), cursor.id(), firstRows);
+        return CursorPage.of(projectMapper.toDTOList(projects), pageSize,
+            project -> new KeysetCursor(project.createdAt(), project.id()).encode());
+    }
+
     @Override
     public List<ProjectDTO> getProjectsByOwner(Long ownerId) {
         return getProjectsByOwnerId(ownerId);
@@ -144,12 +177,25 @@ public class ProjectService implements ProjectServiceInterface {
     /**
      * Delete project
      */
-    @CacheEvict(value = {"project", "projects"}, allEntries = true)
+    @CacheEvict(value = "project", key = "#projectId")
     public void deleteProject(Long projectId) {
-        if (!projectRepository.existsById(projectId)) {
-            throw ResourceNotFoundException.project(projectId);
+        Project project = projectRepository.findById(projectId)
+            .orElseThrow(() -> ResourceNotFoundException.project(projectId));
+        // Tasks are deleted with the project, so their assignees' lists are stale as well
+        List<String> tags = new ArrayList<>(List.of(CacheTagService.ALL_PROJECTS, CacheTagService.ALL_TASKS));
+        tags.add(CacheTagService.project(projectId));
+        tags.add(CacheTagService.owner(ownerId(project)));
+        if (project.getTasks() != null) {
+            for (Task task : project.getTasks()) {
+                tags.add(CacheTagService.assignee(task.getAssignee() != null ? task.getAssignee().getId() : null));
+            }
         }
-        projectRepository.deleteById(projectId);
+        projectRepository.delete(project);
+        cacheTags.invalidate(tags.toArray(String[]::new));
+    }
+
+    private static Long ownerId(Project project) {
+        return project.getOwner() != null ? project.getOwner().getId() : null;
     }
     
     /**
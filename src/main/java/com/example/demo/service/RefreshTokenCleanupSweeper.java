@@ -0,0 +1,139 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deletes expired refresh tokens, and revoked ones past their retention, by walking the id range in
+ * chunks of {@code chunk-size} ids. Each chunk is its own auto-committed DELETE, so locks are held for
+ * one small range at a time, and the sweep sleeps between chunks to stay under {@code max-rows-per-second}.
+ *
+ * Scheduled sweeps run on their own virtual thread, never on the scheduler thread, and never overlap.
+ * {@code token.cleanup.lag} is the time since the last completed sweep started: no expired row is older
+ * than that plus the sweep interval.
+ */
+@Service
+public class RefreshTokenCleanupSweeper implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenCleanupSweeper.class);
+
+    private static final String DELETE_CHUNK_SQL =
+            "DELETE FROM refresh_tokens WHERE id >= ? AND id < ? "
+                    + "AND (expires_at < ? OR (is_revoked = true AND created_at < ?))";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.token.cleanup.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.token.cleanup.max-rows-per-second:5000}")
+    private int maxRowsPerSecond;
+
+    @Value("${app.token.cleanup.revoked-retention:30d}")
+    private Duration revokedRetention;
+
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final LongAdder deleted = new LongAdder();
+    private volatile double lastRowsPerSecond;
+    private volatile long lastCompletedSweepStart = System.currentTimeMillis();
+
+    /**
+     * Start a sweep in the background; false if one is already running
+     */
+    public boolean startSweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread.ofVirtual().name("refresh-token-cleanup").start(() -> {
+            try {
+                sweep(revokedRetention);
+            } catch (RuntimeException e) {
+                logger.error("Refresh token cleanup failed, the next sweep continues", e);
+            } finally {
+                sweeping.set(false);
+            }
+        });
+        return true;
+    }
+
+    public boolean isSweeping() {
+        return sweeping.get();
+    }
+
+    /**
+     * Sweep on the calling thread; returns the number of deleted rows
+     */
+    public int sweep(Duration revokedRetention) {
+        long startedMillis = System.currentTimeMillis();
+        long startedNanos = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp expiredBefore = Timestamp.valueOf(now);
+        Timestamp revokedBefore = Timestamp.valueOf(now.minus(revokedRetention));
+
+        long[] bounds = jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM refresh_tokens",
+                (rs, rowNum) -> rs.getObject(1) == null ? null : new long[] {rs.getLong(1), rs.getLong(2)});
+        int total = 0;
+        if (bounds != null) {
+            for (long from = bounds[0]; from <= bounds[1]; from += chunkSize) {
+                int chunk = jdbcTemplate.update(DELETE_CHUNK_SQL, from, from + chunkSize, expiredBefore, revokedBefore);
+                total += chunk;
+                deleted.add(chunk);
+                throttle(total, startedNanos);
+            }
+        }
+
+        double seconds = Math.max(System.nanoTime() - startedNanos, 1) / 1e9;
+        lastRowsPerSecond = total / seconds;
+        lastCompletedSweepStart = startedMillis;
+        if (total > 0) {
+            logger.info("Token cleanup completed: {} expired or old revoked tokens removed in {} ms",
+                    total, Math.round(seconds * 1000));
+        }
+        return total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("token.cleanup.deleted", deleted, LongAdder::sum).register(registry);
+        Gauge.builder("token.cleanup.rows.per.second", this, sweeper -> sweeper.lastRowsPerSecond).register(registry);
+        Gauge.builder("token.cleanup.lag", this,
+                        sweeper -> (System.currentTimeMillis() - sweeper.lastCompletedSweepStart) / 1000.0)
+                .baseUnit("seconds").register(registry);
+        Gauge.builder("token.cleanup.running", sweeping, running -> running.get() ? 1 : 0).register(registry);
+    }
+
+    /**
+     * Sleep until the rows deleted so far fit the configured rate
+     */
+    private void throttle(int total, long startedNanos) {
+        if (maxRowsPerSecond <= 0) {
+            return;
+        }
+        long dueNanos = TimeUnit.SECONDS.toNanos(total) / maxRowsPerSecond;
+        long aheadNanos = dueNanos - (System.nanoTime() - startedNanos);
+        if (aheadNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(aheadNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Refresh token cleanup interrupted", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.RefreshToken;
+import com.example.demo.exception.ServiceBusyException;
+import com.example.demo.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Group commit for refresh token inserts: concurrent logins hand their token to one writer thread,
+ * which inserts whatever has arrived (up to {@code max-size}, waiting at most {@code linger-ms} for
+ * more) with one JDBC batch in one transaction. Each caller still waits until its own row is
+ * committed, so a token is never handed out before it can be validated.
+ *
+ * When the queue is full the row is inserted on the caller's thread; when the commit does not
+ * arrive within {@code timeout} the caller gets a {@link ServiceBusyException}.
+ *
+ * Callers that are inside a transaction or have an EntityManager bound (open-in-view) insert on their
+ * own thread too: they may be holding a pooled connection while they wait, and enough of them would
+ * leave the writer without one until their timeouts expire.
+ */
+@Service
+public class RefreshTokenInsertBatcher implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenInsertBatcher.class);
+
+    private record Pending(RefreshToken token, CompletableFuture<Void> committed) {
+    }
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.token.store.database.insert-batch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.token.store.database.insert-batch.max-size:50}")
+    private int maxSize;
+
+    @Value("${app.token.store.database.insert-batch.linger-ms:2}")
+    private long lingerMs;
+
+    @Value("${app.token.store.database.insert-batch.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.token.store.database.insert-batch.timeout:5s}")
+    private Duration timeout;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder directInserts = new LongAdder();
+
+    private BlockingQueue<Pending> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    public RefreshTokenInsertBatcher(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        if (enabled) {
+            running = true;
+            writer = Thread.ofVirtual().name("refresh-token-inserts").start(this::writeLoop);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            write(remaining);
+        }
+    }
+
+    /**
+     * Insert the token; returns once it is committed
+     */
+    public void insert(RefreshToken token) {
+        Pending pending = new Pending(token, new CompletableFuture<>());
+        if (!running || holdsResources() || !queue.offer(pending)) {
+            insertDirectly(token);
+            return;
+        }
+        try {
+            pending.committed().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (queue.remove(pending)) {
+                // The writer never picked it up, so it cannot be inserted twice
+                insertDirectly(token);
+                return;
+            }
+            throw new ServiceBusyException("Storing the refresh token timed out. Please try again.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Interrupted while storing the refresh token", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void insertDirectly(RefreshToken token) {
+        directInserts.increment();
+        refreshTokenRepository.save(token);
+    }
+
+    private static boolean holdsResources() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.getResourceMap().isEmpty();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("token.store.insert.batches", batches, LongAdder::sum).register(registry);
+        FunctionCounter.builder("token.store.insert.rows", rows, LongAdder::sum).tag("mode", "batched").register(registry);
+        FunctionCounter.builder("token.store.insert.rows", directInserts, LongAdder::sum).tag("mode", "direct").register(registry);
+        Gauge.builder("token.store.insert.queued", this, batcher -> batcher.queue.size()).register(registry);
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(maxSize);
+        while (running) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxSize - batch.size());
+                if (batch.size() < maxSize && lingerMs > 0) {
+                    Pending next = queue.poll(lingerMs, TimeUnit.MILLISECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                        queue.drainTo(batch, maxSize - batch.size());
+                    }
+                }
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    /**
+     * Insert the batch in one transaction; if that fails, insert row by row so one bad row fails only its own caller
+     */
+    private void write(List<Pending> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    refreshTokenRepository.saveAll(batch.stream().map(Pending::token).toList()));
+            batches.increment();
+            rows.add(batch.size());
+            batch.forEach(pending -> pending.committed().complete(null));
+        } catch (RuntimeException batchFailure) {
+            logger.warn("Batch insert of {} refresh tokens failed, inserting one by one: {}", batch.size(), batchFailure.getMessage());
+            for (Pending pending : batch) {
+                try {
+                    pending.token().setId(null);
+                    refreshTokenRepository.save(pending.token());
+                    rows.increment();
+                    pending.committed().complete(null);
+                } catch (RuntimeException e) {
+                    pending.committed().completeExceptionally(e);
+                }
+            }
+        }
+    }
+}
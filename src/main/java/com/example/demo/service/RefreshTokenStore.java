@@ -0,0 +1,22 @@
+package com.example.demo.service;
+
+/**
+ * Refresh token persistence used by {@link AuthService}. Selected with {@code app.token.store.type}:
+ * {@code database} ({@link DatabaseTokenStoreService}, the default) or {@code memory}
+ * ({@link InMemoryTokenStoreService}).
+ */
+public interface RefreshTokenStore {
+
+    void storeRefreshToken(Long userId, String refreshToken);
+
+    /**
+     * User the token belongs to, or null if it is unknown, revoked or expired
+     */
+    Long validateRefreshToken(String refreshToken);
+
+    void revokeRefreshToken(String refreshToken);
+
+    void revokeAllRefreshTokensForUser(Long userId);
+
+    Long getUserRefreshTokenCount(Long userId);
+}
@@ -0,0 +1,627 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.ValidationException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Binary snapshots of users, projects, tasks and comments for cloning environments.
+ *
+ * Each table is written to {@code <table>.snap}: a header describing the columns, then
+ * length-prefixed rows (a null bitmap followed by the non-null values; longs and
+ * timestamps as 8 bytes, strings as a length and UTF-8 bytes). Files are written and
+ * read through memory-mapped windows, so the JVM heap only ever holds one restore chunk.
+ *
+ * Restoring keeps the original ids, loads tables in foreign key order with COPY on
+ * PostgreSQL (JDBC batch inserts elsewhere), writes several chunks of a table in
+ * parallel, and moves the id sequences past the restored rows.
+ */
+@Service
+public class SnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotService.class);
+
+    public static final String FILE_EXTENSION = ".snap";
+
+    private static final int MAGIC = 0x534E4150; // "SNAP"
+    private static final short FORMAT_VERSION = 1;
+    // Matches allocationSize of the pooled id generators on the entities
+    private static final int ID_BLOCK = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private NegativeLookupCache negativeLookups;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${app.snapshot.map-window-bytes:67108864}")
+    private int mapWindowBytes;
+
+    @Value("${app.snapshot.fetch-size:5000}")
+    private int fetchSize;
+
+    @Value("${app.snapshot.restore.chunk-size:5000}")
+    private int restoreChunkSize;
+
+    @Value("${app.snapshot.restore.parallelism:4}")
+    private int restoreParallelism;
+
+    public SnapshotService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    private enum ColumnType { LONG, INT, BOOLEAN, TIMESTAMP, STRING }
+
+    private record Column(String name, ColumnType type) {
+    }
+
+    /**
+     * Snapshot tables in foreign key order; the first column is always the id
+     */
+    public enum SnapshotTable {
+        USERS("users", "users_seq", List.of(
+                new Column("id", ColumnType.LONG),
+                new Column("username", ColumnType.STRING),
+                new Column("email", ColumnType.STRING),
+                new Column("password", ColumnType.STRING),
+                new Column("role", ColumnType.STRING),
+                new Column("created_at", ColumnType.TIMESTAMP),
+                new Column("failed_login_attempts", ColumnType.INT),
+                new Column("account_locked", ColumnType.BOOLEAN),
+                new Column("last_failed_login", ColumnType.TIMESTAMP),
+                new Column("last_login", ColumnType.TIMESTAMP),
+                new Column("is_active", ColumnType.BOOLEAN),
+                new Column("email_verified", ColumnType.BOOLEAN))),
+        PROJECTS("projects", "projects_seq", List.of(
+                new Column("id", ColumnType.LONG),
+                new Column("name", ColumnType.STRING),
+                new Column("description", ColumnType.STRING),
+                new Column("owner_id", ColumnType.LONG),
+                new Column("created_at", ColumnType.TIMESTAMP),
+                new Column("updated_at", ColumnType.TIMESTAMP))),
+        TASKS("tasks", "tasks_seq", List.of(
+                new Column("id", ColumnType.LONG),
+                new Column("title", ColumnType.STRING),
+                new Column("description", ColumnType.STRING),
+                new Column("status", ColumnType.STRING),
+                new Column("priority", ColumnType.STRING),
+                new Column("due_date", ColumnType.TIMESTAMP),
+                new Column("project_id", ColumnType.LONG),
+                new Column("assignee_id", ColumnType.LONG),
+                new Column("created_at", ColumnType.TIMESTAMP),
+                new Column("updated_at", ColumnType.TIMESTAMP))),
+        COMMENTS("comments", "comments_seq", List.of(
+                new Column("id", ColumnType.LONG),
+                new Column("content", ColumnType.STRING),
+                new Column("task_id", ColumnType.LONG),
+                new Column("user_id", ColumnType.LONG),
+                new Column("created_at", ColumnType.TIMESTAMP)));
+
+        private final String tableName;
+        private final String sequenceName;
+        private final List<Column> columns;
+
+        SnapshotTable(String tableName, String sequenceName, List<Column> columns) {
+            this.tableName = tableName;
+            this.sequenceName = sequenceName;
+            this.columns = columns;
+        }
+
+        public String getTableName() { return tableName; }
+
+        private String columnList() {
+            return String.join(", ", columns.stream().map(Column::name).toList());
+        }
+    }
+
+    public record SnapshotResult(String table, long rows, long bytes, long durationMillis, double rowsPerSecond) {
+    }
+
+    /**
+     * Write one snapshot file per table into {@code directory}, all tables in parallel
+     */
+    public List<SnapshotResult> createSnapshot(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<SnapshotResult>> futures = new ArrayList<>();
+            for (SnapshotTable table : SnapshotTable.values()) {
+                futures.add(executor.submit(() -> writeTable(table, directory.resolve(table.tableName + FILE_EXTENSION))));
+            }
+            return awaitAll(futures);
+        }
+    }
+
+    /**
+     * Load a snapshot written by {@link #createSnapshot}. The target tables must be empty unless
+     * {@code replace} is set, in which case existing rows (and refresh tokens) are deleted first.
+     * Chunks commit independently, so a failed restore should be repeated with {@code replace}.
+     */
+    public List<SnapshotResult> restoreSnapshot(Path directory, boolean replace) throws IOException {
+        for (SnapshotTable table : SnapshotTable.values()) {
+            if (!Files.isRegularFile(directory.resolve(table.tableName + FILE_EXTENSION))) {
+                throw new ValidationException("Snapshot file missing: " + table.tableName + FILE_EXTENSION);
+            }
+        }
+        prepareTargetTables(replace);
+
+        List<SnapshotResult> results = new ArrayList<>();
+        for (SnapshotTable table : SnapshotTable.values()) {
+            results.add(loadTable(table, directory.resolve(table.tableName + FILE_EXTENSION)));
+            resetSequence(table);
+        }
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        // Restored ids and emails may have been looked up, and remembered as missing, before
+        negativeLookups.clear(NegativeLookupCache.USER_EMAIL);
+        negativeLookups.clear(NegativeLookupCache.PROJECT);
+        negativeLookups.clear(NegativeLookupCache.TASK);
+        return results;
+    }
+
+    private SnapshotResult writeTable(SnapshotTable table, Path file) throws IOException {
+        long startTime = System.nanoTime();
+        long[] rows = {0};
+        long bytes;
+        try (MappedFileWriter writer = new MappedFileWriter(file, mapWindowBytes)) {
+            writer.putInt(MAGIC);
+            writer.putShort(FORMAT_VERSION);
+            writer.putShort((short) table.columns.size());
+            for (Column column : table.columns) {
+                writer.putByte((byte) column.type().ordinal());
+                writer.putString(column.name());
+            }
+            long rowCountOffset = writer.position();
+            writer.putLong(0);
+
+            String sql = "SELECT " + table.columnList() + " FROM " + table.tableName + " ORDER BY id";
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> {
+                writeRow(writer, table.columns, resultSet);
+                rows[0]++;
+            }));
+
+            writer.putLongAt(rowCountOffset, rows[0]);
+            bytes = writer.position();
+        }
+        return result(table, "Snapshot", rows[0], bytes, startTime);
+    }
+
+    private static void writeRow(MappedFileWriter writer, List<Column> columns, ResultSet resultSet) throws SQLException {
+        Object[] values = new Object[columns.size()];
+        byte[] nulls = new byte[nullBitmapLength(columns.size())];
+        for (int i = 0; i < values.length; i++) {
+            int index = i + 1;
+            values[i] = switch (columns.get(i).type()) {
+                case LONG -> resultSet.getLong(index);
+                case INT -> resultSet.getInt(index);
+                case BOOLEAN -> resultSet.getBoolean(index);
+                case TIMESTAMP -> resultSet.getObject(index, LocalDateTime.class);
+                case STRING -> resultSet.getString(index);
+            };
+            if (resultSet.wasNull()) {
+                values[i] = null;
+                nulls[i >> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+
+        writer.putBytes(nulls);
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            switch (columns.get(i).type()) {
+                case LONG -> writer.putLong((Long) value);
+                case INT -> writer.putInt((Integer) value);
+                case BOOLEAN -> writer.putByte((byte) ((Boolean) value ? 1 : 0));
+                case TIMESTAMP -> writer.putLong(toEpochMicros((LocalDateTime) value));
+                case STRING -> writer.putString((String) value);
+            }
+        }
+    }
+
+    private SnapshotResult loadTable(SnapshotTable table, Path file) throws IOException {
+        long startTime = System.nanoTime();
+        long bytes = Files.size(file);
+        Semaphore inFlight = new Semaphore(Math.max(1, restoreParallelism));
+        List<Future<Integer>> futures = new ArrayList<>();
+        long expectedRows;
+
+        try (MappedFileReader reader = new MappedFileReader(file, mapWindowBytes);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            expectedRows = readHeader(reader, table, file);
+            List<Object[]> chunk = new ArrayList<>(restoreChunkSize);
+            for (long row = 0; row < expectedRows; row++) {
+                chunk.add(readRow(reader, table.columns));
+                if (chunk.size() == restoreChunkSize || row == expectedRows - 1) {
+                    List<Object[]> rows = chunk;
+                    // Bounds both the decoded rows held in memory and the connections in use
+                    inFlight.acquireUninterruptibly();
+                    futures.add(executor.submit(() -> {
+                        try {
+                            return writeChunk(table, rows);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                    chunk = new ArrayList<>(restoreChunkSize);
+                }
+            }
+            awaitAll(futures);
+        }
+        return result(table, "Restored", expectedRows, bytes, startTime);
+    }
+
+    private static long readHeader(MappedFileReader reader, SnapshotTable table, Path file) {
+        if (reader.getInt() != MAGIC) {
+            throw new ValidationException("Not a snapshot file: " + file.getFileName());
+        }
+        short version = reader.getShort();
+        if (version != FORMAT_VERSION) {
+            throw new ValidationException("Unsupported snapshot version " + version + " in " + file.getFileName());
+        }
+        int columnCount = reader.getShort();
+        List<Column> columns = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            int type = reader.getByte();
+            columns.add(new Column(reader.getString(), ColumnType.values()[type]));
+        }
+        if (!columns.equals(table.columns)) {
+            throw new ValidationException("Snapshot columns of " + file.getFileName() + " do not match table " + table.tableName);
+        }
+        return reader.getLong();
+    }
+
+    private static Object[] readRow(MappedFileReader reader, List<Column> columns) {
+        byte[] nulls = reader.getBytes(nullBitmapLength(columns.size()));
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            if ((nulls[i >> 3] & (1 << (i & 7))) != 0) {
+                continue;
+            }
+            values[i] = switch (columns.get(i).type()) {
+                case LONG -> reader.getLong();
+                case INT -> reader.getInt();
+                case BOOLEAN -> reader.getByte() != 0;
+                case TIMESTAMP -> fromEpochMicros(reader.getLong());
+                case STRING -> reader.getString();
+            };
+        }
+        return values;
+    }
+
+    private int writeChunk(SnapshotTable table, List<Object[]> rows) {
+        Integer written = transactionTemplate.execute(status ->
+                jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> dialect() instanceof PostgreSQLDialect
+                        ? copyRows(connection, table, rows)
+                        : batchInsertRows(connection, table, rows)));
+        return written != null ? written : 0;
+    }
+
+    private int copyRows(Connection connection, SnapshotTable table, List<Object[]> rows) throws SQLException {
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        StringBuilder csv = new StringBuilder(rows.size() * 128);
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                Object value = row[i];
+                // In COPY's CSV format an unquoted empty field is NULL and a quoted one is an empty string
+                if (value instanceof String text) {
+                    csv.append('"').append(text.replace("\"", "\"\"")).append('"');
+                } else if (value != null) {
+                    csv.append(value);
+                }
+            }
+            csv.append('\n');
+        }
+        try {
+            return (int) copyManager.copyIn("COPY " + table.tableName + " (" + table.columnList() + ") FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new SQLException("COPY into " + table.tableName + " failed", e);
+        }
+    }
+
+    private int batchInsertRows(Connection connection, SnapshotTable table, List<Object[]> rows) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(table.columns.size(), "?"));
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO " + table.tableName + " (" + table.columnList() + ") VALUES (" + placeholders + ")")) {
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    statement.setObject(i + 1, row[i], sqlType(table.columns.get(i).type()));
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            return rows.size();
+        }
+    }
+
+    private static int sqlType(ColumnType type) {
+        return switch (type) {
+            case LONG -> Types.BIGINT;
+            case INT -> Types.INTEGER;
+            case BOOLEAN -> Types.BOOLEAN;
+            case TIMESTAMP -> Types.TIMESTAMP;
+            case STRING -> Types.VARCHAR;
+        };
+    }
+
+    private void prepareTargetTables(boolean replace) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (replace) {
+                jdbcTemplate.update("DELETE FROM refresh_tokens");
+                SnapshotTable[] tables = SnapshotTable.values();
+                for (int i = tables.length - 1; i >= 0; i--) {
+                    jdbcTemplate.update("DELETE FROM " + tables[i].tableName);
+                }
+                return;
+            }
+            for (SnapshotTable table : SnapshotTable.values()) {
+                Boolean hasRows = jdbcTemplate.query("SELECT 1 FROM " + table.tableName + " FETCH FIRST 1 ROWS ONLY", ResultSet::next);
+                if (Boolean.TRUE.equals(hasRows)) {
+                    throw new ValidationException("Table " + table.tableName + " is not empty; restore with replace to overwrite it");
+                }
+            }
+        });
+    }
+
+    /**
+     * Move the sequence so the next pooled block, (V - 50, V], starts above both the restored ids
+     * and any block already handed out. Taking one value first means the sequence never moves
+     * backwards, so blocks Hibernate still holds in memory cannot be handed out again.
+     */
+    private void resetSequence(SnapshotTable table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table.tableName, Long.class);
+        Long current = jdbcTemplate.queryForObject(
+                dialect().getSequenceSupport().getSequenceNextValString(table.sequenceName), Long.class);
+        long next = Math.max(current != null ? current : 0, maxId != null ? maxId : 0) + ID_BLOCK;
+        if (dialect() instanceof PostgreSQLDialect) {
+            // nextval after setval(n) returns n + increment
+            jdbcTemplate.queryForObject("SELECT setval('" + table.sequenceName + "', ?)", Long.class, next - ID_BLOCK);
+        } else {
+            jdbcTemplate.execute("ALTER SEQUENCE " + table.sequenceName + " RESTART WITH " + next);
+        }
+    }
+
+    private static SnapshotResult result(SnapshotTable table, String action, long rows, long bytes, long startTime) {
+        long durationMillis = (System.nanoTime() - startTime) / 1_000_000;
+        double rowsPerSecond = durationMillis > 0 ? rows * 1000.0 / durationMillis : rows;
+        logger.info("{} {} rows of {} ({} bytes) in {} ms ({} rows/sec)",
+                action, rows, table.tableName, bytes, durationMillis, String.format("%.0f", rowsPerSecond));
+        return new SnapshotResult(table.tableName, rows, bytes, durationMillis, rowsPerSecond);
+    }
+
+    private static <T> List<T> awaitAll(List<Future<T>> futures) throws IOException {
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Snapshot interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Snapshot failed", e.getCause());
+        }
+    }
+
+    private static int nullBitmapLength(int columnCount) {
+        return (columnCount + 7) >> 3;
+    }
+
+    private static long toEpochMicros(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + value.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private Dialect dialect() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    /**
+     * Sequential writer over a file mapped one window at a time; the file grows as windows
+     * are mapped and is truncated to the written length on close.
+     */
+    private static class MappedFileWriter implements Closeable {
+        private final FileChannel channel;
+        private final int window;
+        private MappedByteBuffer buffer;
+        private long bufferStart;
+
+        MappedFileWriter(Path file, int window) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            this.window = window;
+            map(0, window);
+        }
+
+        long position() {
+            return bufferStart + buffer.position();
+        }
+
+        void putByte(byte value) { ensure(1); buffer.put(value); }
+        void putShort(short value) { ensure(2); buffer.putShort(value); }
+        void putInt(int value) { ensure(4); buffer.putInt(value); }
+        void putLong(long value) { ensure(8); buffer.putLong(value); }
+        void putBytes(byte[] value) { ensure(value.length); buffer.put(value); }
+
+        void putString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ensure(4 + bytes.length);
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+
+        void putLongAt(long offset, long value) {
+            if (offset >= bufferStart && offset + 8 <= bufferStart + buffer.capacity()) {
+                buffer.putLong((int) (offset - bufferStart), value);
+            } else {
+                try {
+                    channel.write(ByteBuffer.allocate(8).putLong(value).flip(), offset);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                buffer.force();
+                map(position(), Math.max(window, bytes));
+            }
+        }
+
+        private void map(long start, int size) {
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+                bufferStart = start;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            long end = position();
+            buffer.force();
+            buffer = null;
+            channel.truncate(end);
+            channel.close();
+        }
+    }
+
+    /**
+     * Sequential reader over a file mapped one window at a time
+     */
+    private static class MappedFileReader implements Closeable {
+        private final FileChannel channel;
+        private final long size;
+        private final int window;
+        private MappedByteBuffer buffer;
+        private long bufferStart;
+
+        MappedFileReader(Path file, int window) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.size = channel.size();
+            this.window = window;
+            map(0, (int) Math.min(window, size));
+        }
+
+        byte getByte() { ensure(1); return buffer.get(); }
+        short getShort() { ensure(2); return buffer.getShort(); }
+        int getInt() { ensure(4); return buffer.getInt(); }
+        long getLong() { ensure(8); return buffer.getLong(); }
+
+        byte[] getBytes(int length) {
+            ensure(length);
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return bytes;
+        }
+
+        String getString() {
+            int length = getInt();
+            return new String(getBytes(length), StandardCharsets.UTF_8);
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                long position = bufferStart + buffer.position();
+                if (bytes < 0 || position + bytes > size) {
+                    throw new ValidationException("Snapshot file is truncated or corrupt at offset " + position);
+                }
+                map(position, (int) Math.min(Math.max(window, bytes), size - position));
+            }
+        }
+
+        private void map(long start, int length) {
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                bufferStart = start;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            buffer = null;
+            channel.close();
+        }
+    }
+}
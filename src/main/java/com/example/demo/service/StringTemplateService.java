@@ -136,7 +136,7 @@ public class StringTemplateService {
     /**
      * Demonstrates enhanced collection APIs with sequenced collections
      */
-    @Cacheable(value = "taskStatistics", key = "#projectId")
+    @Cacheable(value = "taskStatistics", key = "#projectId", sync = true)
     public Map<String, Object> getTaskStatistics(Long projectId) {
         List<Task> tasks = taskRepository.findByProjectId(projectId);
         
@@ -1,22 +1,32 @@
 package com.example.demo.service;
 import java.util.List;
+import java.util.Set;
 import com.example.demo.dto.CommentDTO;
 import com.example.demo.dto.CommentCreateDTO;
 
 import com.example.demo.dto.TaskDTO;
 import com.example.demo.dto.TaskCreateDTO;
 import com.example.demo.dto.TaskUpdateDTO;
+import com.example.demo.dto.TaskSummaryDTO;
+import com.example.demo.dto.response.CursorPage;
+import com.example.demo.entity.Priority;
 import com.example.demo.entity.TaskStatus;
 import com.example.demo.entity.Project;
 import com.example.demo.entity.Task;
 import com.example.demo.entity.User;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.exception.BusinessException;
+import com.example.demo.exception.ValidationException;
 import com.example.demo.mapper.TaskMapper;
 import com.example.demo.repository.ProjectRepository;
 import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.TaskSpecifications;
+import com.example.demo.repository.KeysetCursor;
 import com.example.demo.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.Cacheable;
@@ -27,56 +37,90 @@ import org.springframework.cache.annotation.CachePut;
 @Transactional
 public class TaskService implements TaskServiceInterface {
         // --- Missing methods for TaskController ---
-        @Cacheable(value = "tasks", key = "'filter_' + #assigneeId + '_' + #projectId + '_' + #status + '_' + #priority")
-        public List<TaskDTO> getAllTasks(Long assigneeId, Long projectId, String status, String priority) {
-            // TODO: Implement filtering logic
-            return new java.util.ArrayList<>();
+        /**
+         * Filter tasks by any combination of assignee, project, status and priority.
+         * A single criteria query does the filtering and sorting in the database and
+         * returns summaries instead of hydrated Task entities, at most {@code app.tasks.list.max-results}
+         * of them; the cursor listing below walks result sets of any size.
+         */
+        @Cacheable(value = "tasks", key = "@cacheTags.key('filter_' + #assigneeId + '_' + #projectId + '_' + #status + '_' + #priority + '_' + #sortBy + '_' + #direction, T(com.example.demo.service.CacheTagService).taskListTags(#projectId, #assigneeId))", sync = true)
+        @Transactional(readOnly = true)
+        public List<TaskSummaryDTO> getAllTasks(Long assigneeId, Long projectId, String status, String priority,
+                                                String sortBy, String direction) {
+            Specification<Task> specification = TaskSpecifications.withFilters(
+                assigneeId, projectId, parseStatus(status), parsePriority(priority));
+            return taskRepository.findSummaries(specification, buildSort(sortBy, direction), maxListResults);
+        }
+
+        /**
+         * Keyset-paginated task listing ordered by (dueDate, id).
+         * Cost per page does not grow with depth and no COUNT query is run.
+         */
+        @Transactional(readOnly = true)
+        public CursorPage<TaskSummaryDTO> getTasksAfter(Long assigneeId, Long projectId, String status, String priority,
+                                                        String after, Integer limit) {
+            int pageSize = CursorPage.normalizeLimit(limit);
+            Specification<Task> specification = TaskSpecifications.withFilters(
+                assigneeId, projectId, parseStatus(status), parsePriority(priority));
+            List<TaskSummaryDTO> rows = taskRepository.findSummariesAfter(
+                specification, KeysetCursor.decode(after), pageSize + 1);
+            return CursorPage.of(rows, pageSize, task -> new KeysetCursor(task.dueDate(), task.id()).encode());
         }
 
         @CachePut(value = "task", key = "#id")
-        @CacheEvict(value = "tasks", allEntries = true)
         public TaskDTO updateTaskFull(Long id, TaskCreateDTO updateDTO) {
             // TODO: Implement full update logic
+            invalidateTaskLists(id);
             return null;
         }
 
-        @CacheEvict(value = {"task", "tasks"}, allEntries = true)
+        @CacheEvict(value = "task", key = "#id")
         public void deleteTask(Long id) {
             // TODO: Implement delete logic
+            invalidateTaskLists(id);
         }
 
-        @Cacheable(value = "tasks", key = "'comments_' + #id")
+        @Cacheable(value = "tasks", key = "@cacheTags.key('comments_' + #id, 'task:' + #id)", sync = true)
         public List<CommentDTO> getTaskComments(Long id) {
             // TODO: Implement get comments logic
             return new java.util.ArrayList<>();
         }
 
-        @CacheEvict(value = "tasks", key = "'comments_' + #id")
         public CommentDTO addCommentToTask(Long id, CommentCreateDTO commentCreateDTO) {
             // TODO: Implement add comment logic
+            cacheTags.invalidate(CacheTagService.task(id));
             return null;
         }
 
-        @Cacheable(value = "tasks", key = "'assigned_' + #userId")
+        @Cacheable(value = "tasks", key = "@cacheTags.key('assigned_' + #userId, 'assignee:' + #userId)", sync = true)
         public List<TaskDTO> getTasksAssignedToUser(Long userId) {
             // TODO: Implement assigned tasks logic
             return new java.util.ArrayList<>();
         }
 
         @CachePut(value = "task", key = "#id")
-        @CacheEvict(value = "tasks", allEntries = true)
         public TaskDTO assignTask(Long id, Long assigneeId) {
             // TODO: Implement assign logic
+            invalidateTaskLists(id);
+            cacheTags.invalidate(CacheTagService.assignee(assigneeId));
             return null;
         }
 
         @CachePut(value = "task", key = "#id")
-        @CacheEvict(value = "tasks", allEntries = true)
         public TaskDTO unassignTask(Long id) {
             // TODO: Implement unassign logic
+            invalidateTaskLists(id);
             return null;
         }
     
+    // Columns that can be sorted on; each has an index in DatabaseIndexConfig, though priority is
+    // ordered by rank through a CASE expression, which that index cannot serve
+    private static final Set<String> SORTABLE_FIELDS = Set.of("dueDate", "priority", "status", "createdAt", "updatedAt", "title");
+    private static final String DEFAULT_SORT_FIELD = "dueDate";
+
+    @Value("${app.tasks.list.max-results:1000}")
+    private int maxListResults;
+
     @Autowired
     private TaskMapper taskMapper;
     
@@ -89,15 +133,22 @@ public class TaskService implements TaskServiceInterface {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private CacheTagService cacheTags;
+    
+    @Autowired
+    private NegativeLookupCache negativeLookups;
+    
     /**
      * Update an existing task with partial data from TaskUpdateDTO
      */
     @CachePut(value = "task", key = "#taskId")
-    @CacheEvict(value = "tasks", allEntries = true)
     public TaskDTO updateTask(Long taskId, TaskUpdateDTO updateDTO) {
         // 1. Get existing task from database
         Task existingTask = taskRepository.findById(taskId)
             .orElseThrow(() -> ResourceNotFoundException.task(taskId));
+        // Lists of the previous project and assignee are stale too if either changes
+        String[] previousTags = taskListTags(existingTask);
         
         // 2. Use mapper to update simple fields (title, description, status, priority, dueDate)
         // Only non-null fields from updateDTO will be applied due to IGNORE strategy
@@ -124,13 +175,14 @@ public class TaskService implements TaskServiceInterface {
         
         // 4. Save updated entity
         Task savedTask = taskRepository.save(existingTask);
+        cacheTags.invalidate(previousTags);
+        cacheTags.invalidate(taskListTags(savedTask));
         
         // 5. Convert back to DTO for response
         return taskMapper.toDTO(savedTask);
     }
 
     @Override
-    @CacheEvict(value = "tasks", allEntries = true)
     public TaskDTO createTask(TaskCreateDTO createDTO) {
         Task task = taskMapper.toEntity(createDTO);
 
@@ -147,20 +199,22 @@ public class TaskService implements TaskServiceInterface {
         }
 
         Task saved = taskRepository.save(task);
+        cacheTags.invalidate(taskListTags(saved));
+        negativeLookups.forget(NegativeLookupCache.TASK, saved.getId());
         return taskMapper.toDTO(saved);
     }
 
     @Override
-    @Cacheable(value = "task", key = "#id")
+    @Cacheable(value = "task", key = "#id", sync = true)
     @Transactional(readOnly = true)
     public TaskDTO getTaskById(Long id) {
-        Task task = taskRepository.findById(id)
+        Task task = negativeLookups.find(NegativeLookupCache.TASK, id, () -> taskRepository.findById(id))
             .orElseThrow(() -> ResourceNotFoundException.task(id));
         return taskMapper.toDTO(task);
     }
 
     @Override
-    @Cacheable(value = "tasks", key = "'project_' + #projectId")
+    @Cacheable(value = "tasks", key = "@cacheTags.key('project_' + #projectId, 'project:' + #projectId)", sync = true)
     @Transactional(readOnly = true)
     public java.util.List<TaskDTO> getTasksByProject(Long projectId) {
         java.util.List<Task> tasks = taskRepository.findByProjectId(projectId);
@@ -169,15 +223,67 @@ public class TaskService implements TaskServiceInterface {
 
     @Override
     @CachePut(value = "task", key = "#id")
-    @CacheEvict(value = "tasks", allEntries = true)
     public TaskDTO updateTaskStatus(Long id, TaskStatus status) {
         Task task = taskRepository.findById(id)
             .orElseThrow(() -> ResourceNotFoundException.task(id));
         task.setStatus(status);
         Task saved = taskRepository.save(task);
+        cacheTags.invalidate(taskListTags(saved));
         return taskMapper.toDTO(saved);
     }
+
+    /**
+     * Tags of every cached list a task can appear in: its project's and assignee's lists,
+     * the unscoped lists, and the task's own entries
+     */
+    private static String[] taskListTags(Task task) {
+        return new String[] {
+            CacheTagService.ALL_TASKS,
+            CacheTagService.task(task.getId()),
+            CacheTagService.project(task.getProject() != null ? task.getProject().getId() : null),
+            CacheTagService.assignee(task.getAssignee() != null ? task.getAssignee().getId() : null)
+        };
+    }
+
+    private void invalidateTaskLists(Long taskId) {
+        taskRepository.findById(taskId).ifPresent(task -> cacheTags.invalidate(taskListTags(task)));
+    }
     
+    private TaskStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return TaskStatus.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown task status: " + status);
+        }
+    }
+
+    private Priority parsePriority(String priority) {
+        if (priority == null || priority.isBlank()) {
+            return null;
+        }
+        String normalized = priority.trim().toUpperCase();
+        if ("CRITICAL".equals(normalized)) {
+            return Priority.CRITICAL;
+        }
+        try {
+            return taskMapper.stringToPriority(normalized);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown task priority: " + priority);
+        }
+    }
+
+    private Sort buildSort(String sortBy, String direction) {
+        String field = (sortBy == null || sortBy.isBlank()) ? DEFAULT_SORT_FIELD : sortBy;
+        if (!SORTABLE_FIELDS.contains(field)) {
+            throw new ValidationException("Cannot sort tasks by: " + sortBy);
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.ASC);
+        return Sort.by(sortDirection, field);
+    }
+
     /**
      * Validate business rules for project assignment
      */
@@ -0,0 +1,145 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.TaskStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes the TASK_UPDATED events of committed batch chunks from its own thread.
+ *
+ * Batch chunks hand their updated ids over in an afterCommit callback, which runs before the
+ * chunk's connection goes back to the pool, so {@link #publish} only enqueues and never waits for
+ * Kafka. Batch threads call {@link #awaitCapacity} between chunks, outside any transaction, and
+ * wait there while {@code queue-capacity} chunks are still unsent; a job is thereby held to the
+ * broker's pace without holding a connection.
+ */
+@Service
+public class TaskUpdatePublisher implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskUpdatePublisher.class);
+
+    private record Chunk(List<Long> taskIds, TaskStatus status, Long userId) {
+    }
+
+    @Autowired
+    private KafkaMessageProducerService kafkaMessageProducerService;
+
+    @Value("${app.batch.events.queue-capacity:100}")
+    private int queueCapacity;
+
+    // Unbounded so a commit callback can always enqueue; awaitCapacity keeps it near queue-capacity
+    private final BlockingQueue<Chunk> queue = new LinkedBlockingQueue<>();
+    // A lock rather than a monitor, so batch jobs on virtual threads do not pin their carrier while waiting
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition drained = lock.newCondition();
+    private Thread sender;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        running = true;
+        // A platform thread: the Kafka client blocks inside synchronized code, which would pin a virtual thread's carrier
+        sender = Thread.ofPlatform().daemon().name("batch-task-events").start(this::sendLoop);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (sender != null) {
+            sender.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        List<Chunk> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(this::send);
+    }
+
+    /**
+     * Queue one TASK_UPDATED event per task id; returns immediately
+     */
+    public void publish(List<Long> taskIds, TaskStatus status, Long userId) {
+        if (!taskIds.isEmpty()) {
+            queue.add(new Chunk(List.copyOf(taskIds), status, userId));
+        }
+    }
+
+    /**
+     * Wait until fewer than {@code queue-capacity} chunks are unsent; call it outside a transaction
+     */
+    public void awaitCapacity() {
+        lock.lock();
+        try {
+            while (running && queue.size() >= queueCapacity) {
+                // Timed, so a missed signal costs a second rather than the job
+                drained.await(1, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    private void sendLoop() {
+        while (running) {
+            Chunk chunk;
+            try {
+                chunk = queue.poll(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (chunk != null) {
+                send(chunk);
+                lock.lock();
+                try {
+                    drained.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    private void send(Chunk chunk) {
+        List<Long> taskIds = chunk.taskIds();
+        try {
+            // Waits up to max-block per event for an in-flight slot, on this thread only
+            kafkaMessageProducerService.sendTaskUpdatedEvents(taskIds,
+                            chunk.status() != null ? chunk.status().name() : null, chunk.userId())
+                    .whenComplete((ignored, error) -> {
+                        if (error != null) {
+                            logger.warn("Not all TASK_UPDATED events for tasks {}..{} were sent: {}",
+                                    taskIds.get(0), taskIds.get(taskIds.size() - 1), error.toString());
+                        }
+                    });
+        } catch (RuntimeException e) {
+            logger.warn("TASK_UPDATED events for tasks {}..{} were not sent: {}",
+                    taskIds.get(0), taskIds.get(taskIds.size() - 1), e.toString());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("batch.task.events.queued", queue, BlockingQueue::size).register(registry);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.TokenRevocation;
+import com.example.demo.repository.TokenRevocationRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-user revocation epochs for access tokens: a token whose {@code iat} is before the user's
+ * epoch is rejected. Access tokens are otherwise valid until they expire, so this is what makes
+ * logout from all devices, password and role changes and deletion take effect for them.
+ *
+ * The epochs are held in memory and checked without a database round trip. Every instance
+ * reloads them each {@code jwt.revocation.refresh-interval-ms}; revocations made on this instance
+ * apply as soon as they commit, those made elsewhere after the next reload. Only epochs younger
+ * than the access token lifetime are loaded, older ones cannot reject anything still valid.
+ * {@code iat} has second precision, so epochs are kept to the second as well: tokens issued in
+ * the second of a revocation stay valid, which lets a login right after a password change work.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Value("${jwt.expiration:86400}")
+    private int accessTokenExpirationSeconds;
+
+    // userId -> epoch millis at a whole second; replaced wholesale on reload, copied on local revocations
+    private volatile Map<Long, Long> revokedBefore = Map.of();
+
+    @PostConstruct
+    public void init() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.warn("Could not load token revocations, retrying on the next refresh: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reject every access token of the user issued up to now
+     */
+    @Transactional
+    public void revokeAll(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        tokenRevocationRepository.save(new TokenRevocation(userId, now));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, toMillis(now));
+                }
+            });
+        } else {
+            apply(userId, toMillis(now));
+        }
+    }
+
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        if (userId == null || issuedAt == null) {
+            return false;
+        }
+        Long epoch = revokedBefore.get(userId);
+        return epoch != null && issuedAt.getTime() < epoch;
+    }
+
+    /**
+     * Reload the epochs that can still affect an unexpired access token
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval-ms:10000}",
+               initialDelayString = "${jwt.revocation.refresh-interval-ms:10000}")
+    public void refresh() {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(accessTokenExpirationSeconds);
+        Map<Long, Long> loaded = new HashMap<>();
+        for (TokenRevocation revocation : tokenRevocationRepository.findByRevokedBeforeAfter(cutoff)) {
+            loaded.put(revocation.getUserId(), toMillis(revocation.getRevokedBefore().truncatedTo(ChronoUnit.SECONDS)));
+        }
+        synchronized (this) {
+            // Keep local revocations that committed after the query read its snapshot
+            long cutoffMillis = toMillis(cutoff);
+            revokedBefore.forEach((userId, epoch) -> {
+                if (epoch > cutoffMillis) {
+                    loaded.merge(userId, epoch, Math::max);
+                }
+            });
+            revokedBefore = Map.copyOf(loaded);
+        }
+    }
+
+    /**
+     * Scheduled cleanup of epochs older than any unexpired access token - runs every hour
+     */
+    @Scheduled(fixedRate = 3600000)
+    public void cleanupExpiredRevocations() {
+        int deleted = tokenRevocationRepository.deleteOlderThan(LocalDateTime.now().minusSeconds(accessTokenExpirationSeconds));
+        if (deleted > 0) {
+            logger.debug("Deleted {} expired token revocations", deleted);
+        }
+    }
+
+    private synchronized void apply(Long userId, long epoch) {
+        Map<Long, Long> updated = new HashMap<>(revokedBefore);
+        updated.merge(userId, epoch, Math::max);
+        revokedBefore = Map.copyOf(updated);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
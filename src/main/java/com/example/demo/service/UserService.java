@@ -8,16 +8,19 @@ import com.example.demo.entity.User;
 import com.example.demo.exception.ResourceAlreadyExistsException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.mapper.UserMapper;
+import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.TaskRepository;
 import com.example.demo.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Caching;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,11 +35,26 @@ public class UserService implements UserServiceInterface {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private TaskRepository taskRepository;
+    
+    @Autowired
+    private CommentRepository commentRepository;
+    
     @Autowired
     private UserMapper userMapper;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashing;
+    
+    @Autowired
+    private CacheTagService cacheTags;
+    
+    @Autowired
+    private NegativeLookupCache negativeLookups;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocations;
     
     /**
      * Create a new user with validation
@@ -57,13 +75,15 @@ public class UserService implements UserServiceInterface {
         User user = new User();
         user.setUsername(createDTO.username());
         user.setEmail(createDTO.email());
-        user.setPassword(passwordEncoder.encode(createDTO.password()));
+        user.setPassword(passwordHashing.encode(createDTO.password()));
         user.setRole(createDTO.role());
         user.setFailedLoginAttempts(0);
         user.setAccountLocked(false);
         
         // Save user
         User savedUser = userRepository.save(user);
+        cacheTags.invalidate(CacheTagService.ALL_USERS, CacheTagService.role(savedUser.getRole()));
+        negativeLookups.forget(NegativeLookupCache.USER_EMAIL, savedUser.getEmail());
         
         // Convert to DTO and return
         return userMapper.toDTO(savedUser);
@@ -73,7 +93,7 @@ public class UserService implements UserServiceInterface {
      * Get user by ID
      */
     @Override
-    @Cacheable(value = "user", key = "#id")
+    @Cacheable(value = "user", key = "#id", sync = true)
     @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
         User user = userRepository.findById(id)
@@ -85,7 +105,7 @@ public class UserService implements UserServiceInterface {
      * Get user by username
      */
     @Override
-    @Cacheable(value = "user", key = "'username_' + #username")
+    @Cacheable(value = "user", key = "'username_' + #username", sync = true)
     @Transactional(readOnly = true)
     public UserDTO getUserByUsername(String username) {
         User user = userRepository.findByUsername(username)
@@ -97,10 +117,10 @@ public class UserService implements UserServiceInterface {
      * Get user by email
      */
     @Override
-    @Cacheable(value = "user", key = "'email_' + #email")
+    @Cacheable(value = "user", key = "'email_' + #email", sync = true)
     @Transactional(readOnly = true)
     public UserDTO getUserByEmail(String email) {
-        User user = userRepository.findByEmail(email)
+        User user = negativeLookups.find(NegativeLookupCache.USER_EMAIL, email, () -> userRepository.findByEmail(email))
                 .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
         return userMapper.toDTO(user);
     }
@@ -110,11 +130,12 @@ public class UserService implements UserServiceInterface {
      */
     @Override
     @CachePut(value = "user", key = "#id")
-    @CacheEvict(value = "users", allEntries = true)
     public UserDTO updateUser(Long id, UserUpdateDTO updateDTO) {
         // Find existing user
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> ResourceNotFoundException.user(id));
+        Role previousRole = existingUser.getRole();
+        String previousEmail = existingUser.getEmail();
         
         // Update fields if provided
         if (updateDTO.getUsername() != null && !updateDTO.getUsername().isBlank()) {
@@ -136,7 +157,7 @@ public class UserService implements UserServiceInterface {
         }
         
         if (updateDTO.getPassword() != null && !updateDTO.getPassword().isBlank()) {
-            existingUser.setPassword(passwordEncoder.encode(updateDTO.getPassword()));
+            existingUser.setPassword(passwordHashing.encode(updateDTO.getPassword()));
         }
         
         if (updateDTO.getRole() != null) {
@@ -145,6 +166,15 @@ public class UserService implements UserServiceInterface {
         
         // Save updated user
         User updatedUser = userRepository.save(existingUser);
+        cacheTags.invalidate(CacheTagService.ALL_USERS,
+                CacheTagService.role(previousRole), CacheTagService.role(updatedUser.getRole()));
+        negativeLookups.forget(NegativeLookupCache.USER_EMAIL, updatedUser.getEmail());
+        
+        // Issued access tokens carry the old email and role and were obtained with the old password
+        boolean passwordChanged = updateDTO.getPassword() != null && !updateDTO.getPassword().isBlank();
+        if (passwordChanged || previousRole != updatedUser.getRole() || !previousEmail.equals(updatedUser.getEmail())) {
+            tokenRevocations.revokeAll(id);
+        }
         
         // Convert to DTO and return
         return userMapper.toDTO(updatedUser);
@@ -154,22 +184,35 @@ public class UserService implements UserServiceInterface {
      * Delete user by ID
      */
     @Override
-    @Caching(evict = {
-        @CacheEvict(value = "user", key = "#id"), // Evict the specific user by ID
-        @CacheEvict(value = "users", allEntries = true) // Evict all lists of users, as they are now stale.
-    })
+    @CacheEvict(value = "user", key = "#id") // Evict the specific user by ID
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw ResourceNotFoundException.user(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> ResourceNotFoundException.user(id));
+        // Owned projects and assigned tasks are deleted with the user, so their lists are stale too
+        List<String> tags = new ArrayList<>(List.of(CacheTagService.ALL_USERS, CacheTagService.ALL_PROJECTS, CacheTagService.ALL_TASKS));
+        tags.add(CacheTagService.role(user.getRole()));
+        tags.add(CacheTagService.owner(id));
+        tags.add(CacheTagService.assignee(id));
+        if (user.getOwnedProjects() != null) {
+            user.getOwnedProjects().forEach(project -> tags.add(CacheTagService.project(project.getId())));
         }
-        userRepository.deleteById(id);
+        if (user.getAssignedTasks() != null) {
+            user.getAssignedTasks().forEach(task -> tags.add(CacheTagService.project(task.getProject().getId())));
+        }
+        // Other users' tasks in the owned projects go too, and the user's comments leave other tasks' comment lists;
+        // both are only reachable by query, so collect them before the delete
+        taskRepository.findAssigneeIdsByProjectOwnerId(id).forEach(assigneeId -> tags.add(CacheTagService.assignee(assigneeId)));
+        commentRepository.findTaskIdsByUserId(id).forEach(taskId -> tags.add(CacheTagService.task(taskId)));
+        userRepository.delete(user);
+        cacheTags.invalidate(tags.toArray(String[]::new));
+        tokenRevocations.revokeAll(id);
     }
     
     /**
      * Get all users
      */
     @Override
-    @Cacheable(value = "users", key = "'all'")
+    @Cacheable(value = "users", key = "@cacheTags.key('all', 'users:all')", sync = true)
     @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
         return userRepository.findAll()
@@ -182,7 +225,7 @@ public class UserService implements UserServiceInterface {
      * Get users by role
      */
     @Override
-    @Cacheable(value = "users", key = "'role_' + #role")
+    @Cacheable(value = "users", key = "@cacheTags.key('role_' + #role, 'role:' + #role)", sync = true)
     @Transactional(readOnly = true)
     public List<UserDTO> getUsersByRole(Role role) {
         return userRepository.findByRole(role)
@@ -213,7 +256,7 @@ public class UserService implements UserServiceInterface {
      * Get active users
      */
     @Override
-    @Cacheable(value = "users", key = "'active'")
+    @Cacheable(value = "users", key = "@cacheTags.key('active', 'users:all')", sync = true)
     @Transactional(readOnly = true)
     public List<UserDTO> getActiveUsers() {
         return userRepository.findActiveUsers()
@@ -237,7 +280,33 @@ public class UserService implements UserServiceInterface {
      * Save or update a user (legacy method)
      */
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        negativeLookups.forget(NegativeLookupCache.USER_EMAIL, saved.getEmail());
+        return saved;
+    }
+    
+    /**
+     * Replace the password hash with an equivalent one (same password, new algorithm or cost),
+     * unless the password was changed meanwhile; true if replaced
+     */
+    public boolean replacePasswordHash(Long id, String currentHash, String newHash) {
+        return userRepository.replacePasswordHash(id, currentHash, newHash) > 0;
+    }
+    
+    /**
+     * Count a failed login in one UPDATE; failures more than lockoutDuration after the previous one
+     * start counting from 1 again
+     */
+    public void recordFailedLogin(Long id, int maxFailedAttempts, Duration lockoutDuration) {
+        LocalDateTime now = LocalDateTime.now();
+        userRepository.recordFailedLogin(id, now, now.minus(lockoutDuration), maxFailedAttempts);
+    }
+    
+    /**
+     * Clear failed logins and the lock; no write when there is nothing to clear
+     */
+    public void resetFailedLogins(Long id) {
+        userRepository.resetFailedLogins(id);
     }
     
     /**
@@ -282,6 +351,7 @@ public class UserService implements UserServiceInterface {
             throw ResourceNotFoundException.user(id);
         }
         userRepository.deleteById(id);
+        tokenRevocations.revokeAll(id);
     }
     
     /**
@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.BatchJobDTO;
 import com.example.demo.entity.Task;
 import com.example.demo.entity.TaskStatus;
 import com.example.demo.repository.TaskRepository;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Service;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ExecutorService;
@@ -23,12 +25,14 @@ public class VirtualThreadService {
     
     private static final Logger logger = LoggerFactory.getLogger(VirtualThreadService.class);
     private final TaskRepository taskRepository;
+    private final BatchJobService batchJobService;
     
     // Virtual thread executor for I/O operations
     private final ExecutorService virtualThreadExecutor;
     
-    public VirtualThreadService(TaskRepository taskRepository) {
+    public VirtualThreadService(TaskRepository taskRepository, BatchJobService batchJobService) {
         this.taskRepository = taskRepository;
+        this.batchJobService = batchJobService;
         // Create virtual thread executor
         this.virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
     }
@@ -78,27 +82,19 @@ public class VirtualThreadService {
     
     /**
      * Demonstrates virtual threads for batch processing
+     * The virtual thread drives the streaming overdue pipeline: ids are read in keyset
+     * chunks and bulk-updated, instead of loading and saving every overdue task. It runs as a
+     * checkpointed overdue-tasks job, so an interrupted run is resumed by the job sweep.
      */
     public CompletableFuture<Integer> updateOverdueTasksAsync() {
         return CompletableFuture.supplyAsync(() -> {
             logger.info("Virtual thread processing overdue tasks");
             try {
-                List<Task> overdueTasks = taskRepository.findOverdueTasks(LocalDateTime.now());
-                
-                // Process each task in parallel using virtual threads
-                List<CompletableFuture<Void>> updateFutures = overdueTasks.stream()
-                    .map(task -> CompletableFuture.runAsync(() -> {
-                        task.setStatus(TaskStatus.PENDING);
-                        task.setUpdatedAt(LocalDateTime.now());
-                        taskRepository.save(task);
-                        logger.info("Updated overdue task: {}", task.getId());
-                    }, virtualThreadExecutor))
-                    .toList();
-                
-                // Wait for all updates to complete
-                CompletableFuture.allOf(updateFutures.toArray(new CompletableFuture[0])).join();
-                return overdueTasks.size();
-                
+                BatchJobDTO job = batchJobService.run(BatchJobService.OVERDUE_TASKS, Map.of());
+                if (!"COMPLETED".equals(job.status())) {
+                    throw new IllegalStateException("Overdue tasks job " + job.id() + " failed: " + job.errorMessage());
+                }
+                return job.updatedCount().intValue();
             } catch (Exception e) {
                 logger.error("Error processing overdue tasks", e);
                 throw new RuntimeException("Failed to process overdue tasks", e);
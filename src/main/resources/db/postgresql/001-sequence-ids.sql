@@ -0,0 +1,39 @@
+-- Move primary keys from IDENTITY columns to Hibernate-managed sequences.
+--
+-- The entities now use @SequenceGenerator(allocationSize = 50) with the pooled optimizer:
+-- every nextval reserves the 50 ids below the returned value, which lets Hibernate batch
+-- inserts instead of executing them one by one to read back generated keys.
+--
+-- Scripts in this directory run once, in order, against an existing PostgreSQL database before
+-- the release that needs them is deployed: prod runs with ddl-auto=validate and refuses to start
+-- while a table or sequence is missing.
+-- Each sequence starts 50 above the current max id so the first pooled block cannot collide.
+
+BEGIN;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50, false);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+
+CREATE SEQUENCE IF NOT EXISTS projects_seq INCREMENT BY 50;
+SELECT setval('projects_seq', COALESCE((SELECT MAX(id) FROM projects), 0) + 50, false);
+ALTER TABLE projects ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE projects ALTER COLUMN id SET DEFAULT nextval('projects_seq');
+
+CREATE SEQUENCE IF NOT EXISTS tasks_seq INCREMENT BY 50;
+SELECT setval('tasks_seq', COALESCE((SELECT MAX(id) FROM tasks), 0) + 50, false);
+ALTER TABLE tasks ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tasks ALTER COLUMN id SET DEFAULT nextval('tasks_seq');
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50;
+SELECT setval('comments_seq', COALESCE((SELECT MAX(id) FROM comments), 0) + 50, false);
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+
+CREATE SEQUENCE IF NOT EXISTS refresh_tokens_seq INCREMENT BY 50;
+SELECT setval('refresh_tokens_seq', COALESCE((SELECT MAX(id) FROM refresh_tokens), 0) + 50, false);
+ALTER TABLE refresh_tokens ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE refresh_tokens ALTER COLUMN id SET DEFAULT nextval('refresh_tokens_seq');
+
+COMMIT;
@@ -0,0 +1,19 @@
+-- Access-frequency snapshot used by the startup cache warm-up.
+--
+-- CacheAccessTracker counts reads of the project, task and user caches and periodically
+-- upserts the hits into each region's decayed scores, trimmed to the top ids; CacheWarmupService reads
+-- them back after a restart.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS cache_access_stats (
+    region     VARCHAR(32)      NOT NULL,
+    entity_id  BIGINT           NOT NULL,
+    score      DOUBLE PRECISION NOT NULL,
+    updated_at TIMESTAMP        NOT NULL,
+    PRIMARY KEY (region, entity_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_cache_access_stats_region_score ON cache_access_stats (region, score);
+
+COMMIT;
@@ -0,0 +1,15 @@
+-- Per-user access token revocation epochs.
+--
+-- TokenRevocationService keeps these in memory and rejects access tokens issued before the
+-- user's epoch; rows older than the access token lifetime are deleted hourly.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS token_revocations (
+    user_id        BIGINT    NOT NULL PRIMARY KEY,
+    revoked_before TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_token_revocations_revoked_before ON token_revocations (revoked_before);
+
+COMMIT;
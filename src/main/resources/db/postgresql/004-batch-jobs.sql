@@ -0,0 +1,30 @@
+-- Resumable batch job runs.
+--
+-- BatchJobService records each run of a chunked batch job here and checkpoints last_processed_id
+-- after every committed chunk, so an interrupted job resumes where it stopped; attempt fences
+-- checkpoints from a stale worker.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS batch_jobs (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_type           VARCHAR(64)   NOT NULL,
+    parameters         VARCHAR(2000),
+    status             VARCHAR(20)   NOT NULL,
+    last_processed_id  BIGINT        NOT NULL DEFAULT 0,
+    processed_count    BIGINT        NOT NULL DEFAULT 0,
+    processed_at_start BIGINT        NOT NULL DEFAULT 0,
+    updated_count      BIGINT        NOT NULL DEFAULT 0,
+    chunks_completed   INTEGER       NOT NULL DEFAULT 0,
+    attempt            INTEGER       NOT NULL DEFAULT 0,
+    error_message      VARCHAR(1000),
+    created_at         TIMESTAMP     NOT NULL,
+    started_at         TIMESTAMP,
+    heartbeat_at       TIMESTAMP     NOT NULL,
+    completed_at       TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_batch_jobs_status_heartbeat ON batch_jobs (status, heartbeat_at);
+CREATE INDEX IF NOT EXISTS idx_batch_jobs_type_status ON batch_jobs (job_type, status);
+
+COMMIT;
@@ -54,13 +54,7 @@ public abstract class BaseTest {
      * Create a test UserDTO
      */
     protected UserDTO createTestUserDTO() {
-        UserDTO userDTO = new UserDTO();
-        userDTO.setId(TEST_USER_ID);
-        userDTO.setUsername(TEST_USERNAME);
-        userDTO.setEmail(TEST_EMAIL);
-        userDTO.setRole(Role.USER);
-        userDTO.setCreatedAt(LocalDateTime.now());
-        return userDTO;
+        return new UserDTO(TEST_USER_ID, TEST_USERNAME, TEST_EMAIL, Role.USER, LocalDateTime.now(), null, null, null);
     }
 
     /**
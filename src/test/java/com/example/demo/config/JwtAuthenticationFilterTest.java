@@ -0,0 +1,111 @@
+package com.example.demo.config;
+
+import com.example.demo.entity.Role;
+import com.example.demo.entity.User;
+import com.example.demo.factory.TestDataFactory;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.JwtClaimsCache;
+import com.example.demo.service.JwtService;
+import com.example.demo.service.TokenRevocationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stateless mode: the principal comes from the token's claims, revocations are checked in memory
+ */
+@SpringBootTest(properties = "jwt.stateless.enabled=true")
+@ActiveProfiles("test")
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private JwtAuthenticationFilter filter;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JwtClaimsCache jwtClaimsCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = TestDataFactory.createUser("statelessuser", "stateless@example.com");
+        testUser.setRole(Role.ADMIN);
+        testUser = userRepository.save(testUser);
+        jwtClaimsCache.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        userRepository.deleteById(testUser.getId());
+    }
+
+    @Test
+    void principalIsBuiltFromClaims() throws Exception {
+        String token = jwtService.generateAccessToken(testUser);
+        // Removed behind the services' back: a stateless request must not need the row
+        userRepository.deleteById(testUser.getId());
+
+        Authentication authentication = authenticate(token);
+
+        assertThat(authentication).isNotNull();
+        User principal = (User) authentication.getPrincipal();
+        assertThat(principal.getEmail()).isEqualTo("stateless@example.com");
+        assertThat(principal.getRole()).isEqualTo(Role.ADMIN);
+        assertThat(authentication.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void tokensIssuedBeforeRevocationAreRejected() throws Exception {
+        String token = jwtService.generateAccessToken(testUser);
+        assertThat(authenticate(token)).isNotNull();
+        SecurityContextHolder.clearContext();
+        // iat and the epoch have second precision; revoke in a later second than the token was issued
+        Thread.sleep(1000 - System.currentTimeMillis() % 1000);
+
+        tokenRevocationService.revokeAll(testUser.getId());
+
+        assertThat(authenticate(token)).isNull();
+        // Still revoked after reloading the epochs from the database
+        tokenRevocationService.refresh();
+        assertThat(authenticate(token)).isNull();
+    }
+
+    @Test
+    void tokensIssuedAfterRevocationAreAccepted() throws Exception {
+        tokenRevocationService.revokeAll(testUser.getId());
+
+        String token = jwtService.generateAccessToken(testUser);
+
+        assertThat(authenticate(token)).isNotNull();
+        tokenRevocationService.refresh();
+        SecurityContextHolder.clearContext();
+        assertThat(authenticate(token)).isNotNull();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MigratingPasswordEncoderTest {
+
+    private static final String PASSWORD = "correct horse battery";
+
+    @Test
+    void bcryptHashesOfTheConfiguredStrengthNeedNoUpgrade() {
+        MigratingPasswordEncoder encoder = bcrypt(4);
+
+        String hash = encoder.encode(PASSWORD);
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(encoder.matches(PASSWORD, hash)).isTrue();
+        assertThat(encoder.matches("wrong password", hash)).isFalse();
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    void changedBcryptStrengthIsUpgradedInBothDirections() {
+        String weaker = bcrypt(4).encode(PASSWORD);
+        String stronger = bcrypt(6).encode(PASSWORD);
+        MigratingPasswordEncoder encoder = bcrypt(5);
+
+        assertThat(encoder.matches(PASSWORD, weaker)).isTrue();
+        assertThat(encoder.upgradeEncoding(weaker)).isTrue();
+        assertThat(encoder.upgradeEncoding(stronger)).isTrue();
+    }
+
+    @Test
+    void switchingToArgon2KeepsBcryptHashesValidUntilRehashed() {
+        String bcryptHash = bcrypt(4).encode(PASSWORD);
+        MigratingPasswordEncoder encoder = new MigratingPasswordEncoder(MigratingPasswordEncoder.ARGON2, 4, 1024, 1, 1);
+
+        assertThat(encoder.matches(PASSWORD, bcryptHash)).isTrue();
+        assertThat(encoder.upgradeEncoding(bcryptHash)).isTrue();
+
+        String argon2Hash = encoder.encode(PASSWORD);
+        assertThat(argon2Hash).startsWith("$argon2id$").contains("$m=1024,t=1,p=1$");
+        assertThat(encoder.matches(PASSWORD, argon2Hash)).isTrue();
+        assertThat(encoder.upgradeEncoding(argon2Hash)).isFalse();
+        assertThat(new MigratingPasswordEncoder(MigratingPasswordEncoder.ARGON2, 4, 2048, 1, 1).upgradeEncoding(argon2Hash)).isTrue();
+        // And back: bcrypt still verifies Argon2 hashes
+        assertThat(bcrypt(4).matches(PASSWORD, argon2Hash)).isTrue();
+        assertThat(bcrypt(4).upgradeEncoding(argon2Hash)).isTrue();
+    }
+
+    @Test
+    void unknownAlgorithmIsRejectedAtStartup() {
+        assertThatThrownBy(() -> new MigratingPasswordEncoder("md5", 10, 1024, 1, 1))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static MigratingPasswordEncoder bcrypt(int strength) {
+        return new MigratingPasswordEncoder(MigratingPasswordEncoder.BCRYPT, strength, 1024, 1, 1);
+    }
+}
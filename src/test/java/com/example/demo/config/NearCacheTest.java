@@ -0,0 +1,132 @@
+package com.example.demo.config;
+
+import com.example.demo.service.CacheTagService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two instances sharing the in-memory L2; the publisher hands invalidations straight to the
+ * other instance, standing in for the cache-invalidations topic
+ */
+class NearCacheTest {
+
+    private InMemorySharedCacheStore shared;
+    private NearCache nodeA;
+    private NearCache nodeB;
+
+    @BeforeEach
+    void setUp() {
+        shared = new InMemorySharedCacheStore();
+        NearCache[] nodes = new NearCache[2];
+        nodes[0] = new NearCache(new ConcurrentMapCache("task"), shared, key -> !CacheTagService.isVersionedKey(key),
+                fanOutTo(() -> nodes[1]));
+        nodes[1] = new NearCache(new ConcurrentMapCache("task"), shared, key -> !CacheTagService.isVersionedKey(key),
+                fanOutTo(() -> nodes[0]));
+        nodeA = nodes[0];
+        nodeB = nodes[1];
+    }
+
+    @Test
+    void writeOnOneInstanceEvictsTheOthersCopy() {
+        AtomicInteger loads = new AtomicInteger();
+        assertThat(nodeA.get(1L, () -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+        // Served from L2, the loader does not run again
+        assertThat(nodeB.get(1L, () -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+
+        nodeA.put(1L, "v2");
+
+        assertThat(nodeB.getLocal().get(1L)).isNull();
+        assertThat(nodeB.get(1L, () -> "v" + loads.incrementAndGet())).isEqualTo("v2");
+
+        nodeB.evict(1L);
+        assertThat(nodeA.get(1L)).isNull();
+        assertThat(shared.get("task", 1L)).isNull();
+    }
+
+    @Test
+    void nullsAreSharedToo() {
+        String loaded = nodeA.get(5L, () -> null);
+        assertThat(loaded).isNull();
+
+        assertThat(nodeB.get(5L)).isNotNull();
+        assertThat(nodeB.get(5L).get()).isNull();
+    }
+
+    @Test
+    void tagVersionedKeysStayLocal() {
+        String key = "project_1#v0";
+        nodeA.get(key, () -> "list");
+
+        assertThat(shared.get("task", key)).isNull();
+        assertThat(nodeB.get(key)).isNull();
+    }
+
+    @Test
+    void clearFansOut() {
+        nodeA.put(1L, "v1");
+        nodeB.get(1L);
+
+        nodeA.clear();
+
+        assertThat(nodeB.getLocal().get(1L)).isNull();
+        assertThat(nodeB.get(1L)).isNull();
+    }
+
+    @Test
+    void evictionInsideATransactionIsRepeatedAndPublishedAfterCommit() {
+        nodeA.get(1L, () -> "old");
+        nodeB.get(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            nodeA.evict(1L);
+            // Another instance reloads the row before the commit
+            assertThat(nodeB.getLocal().get(1L)).isNotNull();
+            nodeB.evictLocal(1L);
+            nodeB.get(1L, () -> "old");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(shared.get("task", 1L)).isNull();
+        assertThat(nodeB.getLocal().get(1L)).isNull();
+        assertThat(nodeB.get(1L, () -> "new")).isEqualTo("new");
+    }
+
+    @Test
+    void sharedEntriesExpire() throws InterruptedException {
+        InMemorySharedCacheStore store = new InMemorySharedCacheStore(Duration.ofMillis(20));
+        store.put("task", 1L, "v1");
+        assertThat(store.get("task", 1L)).isEqualTo("v1");
+
+        Thread.sleep(50);
+
+        assertThat(store.get("task", 1L)).isNull();
+    }
+
+    private static CacheInvalidationPublisher fanOutTo(Supplier<NearCache> other) {
+        return new CacheInvalidationPublisher() {
+            @Override
+            public void evicted(String cacheName, Object key) {
+                other.get().evictLocal(key);
+            }
+
+            @Override
+            public void cleared(String cacheName) {
+                other.get().clearLocal();
+            }
+        };
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.demo.config;
+
+import com.example.demo.dto.TaskDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.ehcache.CacheManager;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.internal.statistics.DefaultStatisticsService;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A heap tier of 10 entries in front of 4MB off-heap, so most reads go through the serializer
+ */
+class TieredCacheTest {
+
+    private DefaultStatisticsService statisticsService;
+    private CacheManager ehcacheManager;
+    private TieredCache cache;
+
+    @BeforeEach
+    void setUp() {
+        statisticsService = new DefaultStatisticsService();
+        ehcacheManager = CacheManagerBuilder.newCacheManagerBuilder()
+                .using(statisticsService)
+                .withCache("task", CacheConfigurationBuilder
+                        .newCacheConfigurationBuilder(Object.class, Object.class,
+                                ResourcePoolsBuilder.heap(10).offheap(4, MemoryUnit.MB))
+                        .withKeySerializer(new PlainJavaSerializer<>(getClass().getClassLoader()))
+                        .withValueSerializer(new CacheValueSerializer(new ObjectMapper().findAndRegisterModules())))
+                .build(true);
+        cache = new TieredCache("task", ehcacheManager.getCache("task", Object.class, Object.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ehcacheManager.close();
+    }
+
+    @Test
+    void valuesSurviveTheOffHeapTier() {
+        for (long id = 1; id <= 500; id++) {
+            cache.put(id, task(id));
+        }
+        cache.put("list", List.of(task(1L), task(2L)));
+        cache.put("empty", List.of());
+        cache.put(999L, null);
+
+        for (long id = 1; id <= 500; id++) {
+            assertThat(cache.get(id, TaskDTO.class)).isEqualTo(task(id));
+        }
+        assertThat(cache.get("list").get()).isEqualTo(List.of(task(1L), task(2L)));
+        assertThat(cache.get("empty").get()).isEqualTo(List.of());
+        assertThat(cache.get(999L)).isNotNull();
+        assertThat(cache.get(999L).get()).isNull();
+        assertThat(cache.get(1000L)).isNull();
+    }
+
+    @Test
+    void mapValuesKeepTheirTypesOffHeap() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("projectId", 5L);
+        statistics.put("totalTasks", 3);
+        statistics.put("completedRatio", 0.5);
+        statistics.put("owner", null);
+        cache.put("statistics", statistics);
+        for (long id = 1; id <= 50; id++) {
+            cache.put(id, task(id));
+        }
+
+        Object cached = cache.get("statistics").get();
+        assertThat(cached).isEqualTo(statistics);
+        assertThat(((Map<?, ?>) cached).get("projectId")).isInstanceOf(Long.class);
+    }
+
+    @Test
+    void valueLoaderRunsOnlyOnMiss() {
+        assertThat(cache.get(7L, () -> task(7L))).isEqualTo(task(7L));
+        assertThat(cache.get(7L, () -> task(8L))).isEqualTo(task(7L));
+
+        cache.evict(7L);
+        assertThat(cache.get(7L)).isNull();
+    }
+
+    @Test
+    void metricsAreReportedPerTier() {
+        for (long id = 1; id <= 100; id++) {
+            cache.put(id, task(id));
+        }
+        for (long id = 1; id <= 100; id++) {
+            cache.get(id);
+        }
+        cache.get(-1L);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new TieredCacheMetrics(cache, statisticsService.getCacheStatistics("task"), Tags.empty()).bindTo(registry);
+
+        assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(100);
+        assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.size").gauge().value()).isEqualTo(100);
+        assertThat(registry.get("cache.tier.entries").tag("tier", "OffHeap").gauge().value()).isEqualTo(100);
+        assertThat(registry.get("cache.tier.bytes").tag("tier", "OffHeap").gauge().value()).isGreaterThan(0);
+        assertThat(registry.get("cache.tier.gets").tag("tier", "OffHeap").tag("result", "hit")
+                .functionCounter().count()).isGreaterThan(0);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<TaskDTO>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    return cache.get(42L, () -> {
+                        loads.incrementAndGet();
+                        Thread.sleep(200);
+                        return task(42L);
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<TaskDTO> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(task(42L));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.getCoalescedLoads()).isPositive();
+    }
+
+    @Test
+    void staleEntryIsServedWhileOneRefreshRuns() throws Exception {
+        ExecutorService refresher = Executors.newSingleThreadExecutor();
+        try {
+            TieredCache refreshing = new TieredCache("task", ehcacheManager.getCache("task", Object.class, Object.class),
+                    Duration.ofMillis(100), 0, refresher);
+            refreshing.get(1L, () -> task(1L));
+            Thread.sleep(150);
+
+            AtomicInteger refreshes = new AtomicInteger();
+            TaskDTO updated = new TaskDTO(1L, "Renamed", null, "DONE", "LOW", null, null, null, null, null, List.of());
+            for (int i = 0; i < 5; i++) {
+                assertThat(refreshing.get(1L, () -> {
+                    refreshes.incrementAndGet();
+                    Thread.sleep(100);
+                    return updated;
+                })).isEqualTo(task(1L));
+            }
+            // Without a loader a stale entry is a miss
+            assertThat(refreshing.get(1L)).isNull();
+
+            refresher.submit(() -> { }).get(5, TimeUnit.SECONDS);
+            assertThat(refreshes).hasValue(1);
+            assertThat(refreshing.getStaleHits()).isEqualTo(5);
+            assertThat(refreshing.get(1L, TaskDTO.class)).isEqualTo(updated);
+        } finally {
+            refresher.shutdownNow();
+        }
+    }
+
+    @Test
+    void slowLoadsAreRefreshedBeforeExpiry() throws Exception {
+        ExecutorService refresher = Executors.newSingleThreadExecutor();
+        try {
+            // With a huge beta the expected refresh gap always exceeds the remaining ttl
+            TieredCache refreshing = new TieredCache("task", ehcacheManager.getCache("task", Object.class, Object.class),
+                    Duration.ofMinutes(10), 1_000_000, refresher);
+            refreshing.get(1L, () -> {
+                Thread.sleep(20);
+                return task(1L);
+            });
+
+            TaskDTO updated = new TaskDTO(1L, "Renamed", null, "DONE", "LOW", null, null, null, null, null, List.of());
+            assertThat(refreshing.get(1L, () -> updated)).isEqualTo(task(1L));
+
+            refresher.submit(() -> { }).get(5, TimeUnit.SECONDS);
+            assertThat(refreshing.getEarlyRefreshes()).isEqualTo(1);
+            assertThat(refreshing.get(1L, TaskDTO.class)).isEqualTo(updated);
+        } finally {
+            refresher.shutdownNow();
+        }
+    }
+
+    private static TaskDTO task(Long id) {
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 9, 0).plusMinutes(id);
+        return new TaskDTO(id, "Task " + id, "Description " + id, "TODO", "HIGH",
+                created.plusDays(7), created, created, null, null, List.of());
+    }
+}
@@ -44,11 +44,7 @@ class AuthControllerTest extends BaseTest {
     void register_ShouldReturnCreatedWhenValidRequest() throws Exception {
         // Given
         AuthRegisterDTO registerDTO = new AuthRegisterDTO(TEST_USERNAME, TEST_EMAIL, TEST_PASSWORD, Role.USER);
-        UserDTO userDTO = new UserDTO();
-        userDTO.setId(TEST_USER_ID);
-        userDTO.setUsername(TEST_USERNAME);
-        userDTO.setEmail(TEST_EMAIL);
-        userDTO.setRole(Role.USER);
+        UserDTO userDTO = createTestUserDTO();
         
         AuthResponseDTO responseDTO = new AuthResponseDTO(TEST_ACCESS_TOKEN, TEST_REFRESH_TOKEN, userDTO);
         when(authService.register(any(AuthRegisterDTO.class))).thenReturn(responseDTO);
@@ -128,13 +124,10 @@ class AuthControllerTest extends BaseTest {
     void login_ShouldReturnOkWhenValidCredentials() throws Exception {
         // Given
         AuthLoginDTO loginDTO = new AuthLoginDTO(TEST_EMAIL, TEST_PASSWORD);
-        UserDTO userDTO = new UserDTO();
-        userDTO.setId(TEST_USER_ID);
-        userDTO.setUsername(TEST_USERNAME);
-        userDTO.setEmail(TEST_EMAIL);
+        UserDTO userDTO = createTestUserDTO();
         
         AuthResponseDTO responseDTO = new AuthResponseDTO(TEST_ACCESS_TOKEN, TEST_REFRESH_TOKEN, userDTO);
-        when(authService.login(any(AuthLoginDTO.class))).thenReturn(responseDTO);
+        when(authService.login(any(AuthLoginDTO.class), any())).thenReturn(responseDTO);
 
         // When & Then
         mockMvc.perform(post("/api/auth/login")
@@ -0,0 +1,95 @@
+package com.example.demo.performance;
+
+import com.example.demo.entity.Comment;
+import com.example.demo.entity.Project;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.User;
+import com.example.demo.factory.TestDataFactory;
+import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.ProjectRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert throughput with sequence-generated ids.
+ * With IDENTITY every insert had to run on its own to read back the key,
+ * so N rows meant N statements; sequence ids let Hibernate send them in JDBC batches.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class InsertBatchingPerformanceTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(InsertBatchingPerformanceTest.class);
+
+    private static final int ROWS = 2000;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private User testUser;
+    private Task testTask;
+
+    @BeforeEach
+    void setUp() {
+        testUser = userRepository.save(TestDataFactory.createUser("batchinsertuser", "batchinsert@example.com"));
+        Project project = projectRepository.save(TestDataFactory.createProject("Batch Insert Project", testUser));
+        testTask = taskRepository.saveAndFlush(TestDataFactory.createTask("Batch Insert Task", project, testUser));
+    }
+
+    @Test
+    void testCommentInsertsAreBatched() {
+        List<Comment> comments = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            comments.add(new Comment("Batched comment " + i, testTask, testUser));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long startTime = System.nanoTime();
+        commentRepository.saveAll(comments);
+        commentRepository.flush();
+        long durationNanos = System.nanoTime() - startTime;
+
+        long statements = statistics.getPrepareStatementCount();
+        double rowsPerSecond = ROWS / (durationNanos / 1_000_000_000.0);
+        logger.info("Inserted {} comments with {} prepared statements in {} ms ({} rows/sec)",
+                ROWS, statements, durationNanos / 1_000_000, String.format("%.0f", rowsPerSecond));
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        assertThat(comments).allMatch(comment -> comment.getId() != null);
+        // One statement per JDBC batch plus one nextval per 50 ids, instead of one statement per row
+        assertThat(statements).isLessThan(ROWS / 4);
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -57,4 +58,88 @@ class TaskRepositoryTest {
         var page = taskRepository.findByStatusAndPriority(TaskStatus.PENDING, Priority.MEDIUM, PageRequest.of(0, 10));
         assertThat(page.getContent()).isNotEmpty();
     }
+
+    @Test
+    void testFindSummariesWithFilters() {
+        User user = userRepository.save(new User("assignee3", "assignee3@mail.com", "password", Role.USER));
+        Project project = projectRepository.save(new Project("Proj3", "Desc3", user));
+        for (int i = 0; i < 4; i++) {
+            Task task = new Task();
+            task.setTitle("Filtered" + i);
+            task.setProject(project);
+            task.setAssignee(i % 2 == 0 ? user : null);
+            task.setStatus(i < 3 ? TaskStatus.IN_PROGRESS : TaskStatus.TODO);
+            task.setPriority(Priority.CRITICAL);
+            task.setDueDate(LocalDateTime.now().plusDays(4 - i));
+            taskRepository.save(task);
+        }
+
+        var byProjectAndStatus = taskRepository.findSummaries(
+                TaskSpecifications.withFilters(null, project.getId(), TaskStatus.IN_PROGRESS, null),
+                Sort.by("dueDate"), 100);
+        assertThat(byProjectAndStatus).extracting("title").containsExactly("Filtered2", "Filtered1", "Filtered0");
+        assertThat(byProjectAndStatus).allSatisfy(summary -> {
+            assertThat(summary.projectId()).isEqualTo(project.getId());
+            assertThat(summary.priority()).isEqualTo("URGENT");
+        });
+
+        var byAssignee = taskRepository.findSummaries(
+                TaskSpecifications.withFilters(user.getId(), null, null, Priority.CRITICAL),
+                Sort.by(Sort.Direction.DESC, "dueDate"), 100);
+        assertThat(byAssignee).extracting("title").containsExactly("Filtered0", "Filtered2");
+    }
+
+    @Test
+    void testFindSummariesSortsPriorityByRankAndCapsTheResult() {
+        User user = userRepository.save(new User("assignee5", "assignee5@mail.com", "password", Role.USER));
+        Project project = projectRepository.save(new Project("Proj5", "Desc5", user));
+        for (Priority priority : new Priority[] {Priority.MEDIUM, Priority.CRITICAL, Priority.LOW, Priority.HIGH}) {
+            Task task = new Task();
+            task.setTitle("Ranked" + priority);
+            task.setProject(project);
+            task.setStatus(TaskStatus.TODO);
+            task.setPriority(priority);
+            taskRepository.save(task);
+        }
+        var spec = TaskSpecifications.withFilters(null, project.getId(), null, null);
+
+        var ascending = taskRepository.findSummaries(spec, Sort.by("priority"), 100);
+        assertThat(ascending).extracting("title")
+                .containsExactly("RankedLOW", "RankedMEDIUM", "RankedHIGH", "RankedCRITICAL");
+
+        var topTwo = taskRepository.findSummaries(spec, Sort.by(Sort.Direction.DESC, "priority"), 2);
+        assertThat(topTwo).extracting("title").containsExactly("RankedCRITICAL", "RankedHIGH");
+    }
+
+    @Test
+    void testFindSummariesAfterWalksAllPagesInKeysetOrder() {
+        User user = userRepository.save(new User("assignee4", "assignee4@mail.com", "password", Role.USER));
+        Project project = projectRepository.save(new Project("Proj4", "Desc4", user));
+        LocalDateTime due = LocalDateTime.now().plusDays(3);
+        for (int i = 0; i < 5; i++) {
+            Task task = new Task();
+            task.setTitle("Keyset" + i);
+            task.setProject(project);
+            task.setStatus(TaskStatus.TODO);
+            task.setPriority(Priority.LOW);
+            // Two tasks share a due date, two have none
+            task.setDueDate(i < 3 ? due.plusDays(i == 2 ? 0 : i) : null);
+            taskRepository.save(task);
+        }
+
+        var spec = TaskSpecifications.withFilters(null, project.getId(), null, null);
+        java.util.List<String> titles = new java.util.ArrayList<>();
+        KeysetCursor cursor = null;
+        do {
+            var rows = taskRepository.findSummariesAfter(spec, cursor, 2);
+            if (rows.isEmpty()) {
+                break;
+            }
+            rows.forEach(row -> titles.add(row.title()));
+            var last = rows.get(rows.size() - 1);
+            cursor = KeysetCursor.decode(new KeysetCursor(last.dueDate(), last.id()).encode());
+        } while (true);
+
+        assertThat(titles).containsExactly("Keyset0", "Keyset2", "Keyset1", "Keyset3", "Keyset4");
+    }
 }
@@ -15,7 +15,6 @@ import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -31,13 +30,19 @@ class AuthServiceTest extends BaseTest {
     private UserMapper userMapper;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashing;
 
     @Mock
     private JwtService jwtService;
 
     @Mock
-    private DatabaseTokenStoreService databaseTokenStoreService;
+    private RefreshTokenStore refreshTokenStore;
+
+    @Mock
+    private LoginRateLimiter loginRateLimiter;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
 
     @InjectMocks
     private AuthService authService;
@@ -49,13 +54,10 @@ class AuthServiceTest extends BaseTest {
         User newUser = createTestUser();
         User savedUser = createTestUser();
         savedUser.setId(TEST_USER_ID);
-        UserDTO userDTO = new UserDTO();
-        userDTO.setId(TEST_USER_ID);
-        userDTO.setUsername(TEST_USERNAME);
-        userDTO.setEmail(TEST_EMAIL);
+        UserDTO userDTO = createTestUserDTO();
 
         when(userService.existsByEmail(TEST_EMAIL)).thenReturn(false);
-        when(passwordEncoder.encode(TEST_PASSWORD)).thenReturn(ENCODED_PASSWORD);
+        when(passwordHashing.encode(TEST_PASSWORD)).thenReturn(ENCODED_PASSWORD);
         when(userService.save(any(User.class))).thenReturn(savedUser);
         when(userMapper.toDTO(savedUser)).thenReturn(userDTO);
         when(jwtService.generateAccessToken(savedUser)).thenReturn(TEST_ACCESS_TOKEN);
@@ -74,7 +76,7 @@ class AuthServiceTest extends BaseTest {
         assertTrue(result.getRefreshToken().startsWith("refresh_token_"));
 
         verify(userService).existsByEmail(TEST_EMAIL);
-        verify(passwordEncoder).encode(TEST_PASSWORD);
+        verify(passwordHashing).encode(TEST_PASSWORD);
         verify(userService).save(any(User.class));
         verify(userMapper).toDTO(savedUser);
     }
@@ -93,7 +95,7 @@ class AuthServiceTest extends BaseTest {
 
         assertTrue(exception.getMessage().contains(TEST_EMAIL));
         verify(userService).existsByEmail(TEST_EMAIL);
-        verify(passwordEncoder, never()).encode(anyString());
+        verify(passwordHashing, never()).encode(anyString());
         verify(userService, never()).save(any(User.class));
     }
 
@@ -104,11 +106,10 @@ class AuthServiceTest extends BaseTest {
         AuthRegisterDTO registerDTO = new AuthRegisterDTO(TEST_USERNAME, TEST_EMAIL, TEST_PASSWORD, role);
         User savedUser = createTestUserWithRole(role);
         savedUser.setId(TEST_USER_ID);
-        UserDTO userDTO = new UserDTO();
-        userDTO.setRole(role);
+        UserDTO userDTO = new UserDTO(TEST_USER_ID, TEST_USERNAME, TEST_EMAIL, role, null, null, null, null);
 
         when(userService.existsByEmail(TEST_EMAIL)).thenReturn(false);
-        when(passwordEncoder.encode(TEST_PASSWORD)).thenReturn(ENCODED_PASSWORD);
+        when(passwordHashing.encode(TEST_PASSWORD)).thenReturn(ENCODED_PASSWORD);
         when(userService.save(any(User.class))).thenReturn(savedUser);
         when(userMapper.toDTO(savedUser)).thenReturn(userDTO);
 
@@ -117,7 +118,7 @@ class AuthServiceTest extends BaseTest {
 
         // Then
         assertNotNull(result);
-        assertEquals(role, result.getUser().getRole());
+        assertEquals(role, result.getUser().role());
     }
 
     @Test
@@ -125,12 +126,10 @@ class AuthServiceTest extends BaseTest {
         // Given
         AuthLoginDTO loginDTO = new AuthLoginDTO(TEST_EMAIL, TEST_PASSWORD);
         User user = createTestUser();
-        UserDTO userDTO = new UserDTO();
-        userDTO.setId(TEST_USER_ID);
-        userDTO.setEmail(TEST_EMAIL);
+        UserDTO userDTO = createTestUserDTO();
 
         when(userService.findByEmail(TEST_EMAIL)).thenReturn(user);
-        when(passwordEncoder.matches(TEST_PASSWORD, user.getPassword())).thenReturn(true);
+        when(passwordHashing.matches(TEST_PASSWORD, user.getPassword())).thenReturn(true);
         when(userMapper.toDTO(user)).thenReturn(userDTO);
         when(jwtService.generateAccessToken(user)).thenReturn(TEST_ACCESS_TOKEN);
         when(jwtService.generateRefreshToken(user)).thenReturn(TEST_REFRESH_TOKEN);
@@ -148,7 +147,7 @@ class AuthServiceTest extends BaseTest {
         assertTrue(result.getRefreshToken().startsWith("refresh_token_"));
 
         verify(userService).findByEmail(TEST_EMAIL);
-        verify(passwordEncoder).matches(TEST_PASSWORD, user.getPassword());
+        verify(passwordHashing).matches(TEST_PASSWORD, user.getPassword());
         verify(userMapper).toDTO(user);
     }
 
@@ -166,7 +165,7 @@ class AuthServiceTest extends BaseTest {
 
         assertEquals("Invalid email or password", exception.getMessage());
         verify(userService).findByEmail(TEST_EMAIL);
-        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(passwordHashing, never()).matches(anyString(), anyString());
     }
 
     @Test
@@ -175,7 +174,7 @@ class AuthServiceTest extends BaseTest {
         AuthLoginDTO loginDTO = new AuthLoginDTO(TEST_EMAIL, TEST_PASSWORD);
         User user = createTestUser();
         when(userService.findByEmail(TEST_EMAIL)).thenReturn(user);
-        when(passwordEncoder.matches(TEST_PASSWORD, user.getPassword())).thenReturn(false);
+        when(passwordHashing.matches(TEST_PASSWORD, user.getPassword())).thenReturn(false);
 
         // When & Then
         BusinessException exception = assertThrows(
@@ -185,7 +184,7 @@ class AuthServiceTest extends BaseTest {
 
         assertEquals("Invalid email or password", exception.getMessage());
         verify(userService).findByEmail(TEST_EMAIL);
-        verify(passwordEncoder).matches(TEST_PASSWORD, user.getPassword());
+        verify(passwordHashing).matches(TEST_PASSWORD, user.getPassword());
         verify(userMapper, never()).toDTO(any(User.class));
     }
 
@@ -193,12 +192,13 @@ class AuthServiceTest extends BaseTest {
     void refreshToken_ShouldGenerateNewTokens() {
         // Given
         AuthRefreshDTO refreshDTO = new AuthRefreshDTO(TEST_REFRESH_TOKEN);
-        User user = createTestUser();
+        User user = createTestUserWithId();
         UserDTO userDTO = createTestUserDTO();
         
-        when(databaseTokenStoreService.validateRefreshToken(TEST_REFRESH_TOKEN))
+        when(refreshTokenStore.validateRefreshToken(TEST_REFRESH_TOKEN))
             .thenReturn(TEST_USER_ID);
-        when(userService.findById(TEST_USER_ID)).thenReturn(user);
+        when(jwtService.getUsernameFromToken(TEST_REFRESH_TOKEN)).thenReturn(TEST_EMAIL);
+        when(userService.findByEmail(TEST_EMAIL)).thenReturn(user);
         when(jwtService.validateToken(TEST_REFRESH_TOKEN)).thenReturn(true);
         when(jwtService.generateAccessToken(user)).thenReturn(TEST_ACCESS_TOKEN);
         when(jwtService.generateRefreshToken(user)).thenReturn(TEST_NEW_REFRESH_TOKEN);
@@ -213,10 +213,10 @@ class AuthServiceTest extends BaseTest {
         assertEquals(TEST_NEW_REFRESH_TOKEN, result.getRefreshToken());
         assertEquals("Bearer", result.getTokenType());
         assertNotNull(result.getUser());
-        assertEquals(userDTO.getId(), result.getUser().getId());
+        assertEquals(userDTO.id(), result.getUser().id());
         
-        verify(databaseTokenStoreService).revokeRefreshToken(TEST_REFRESH_TOKEN);
-        verify(databaseTokenStoreService).storeRefreshToken(TEST_USER_ID, TEST_NEW_REFRESH_TOKEN);
+        verify(refreshTokenStore).revokeRefreshToken(TEST_REFRESH_TOKEN);
+        verify(refreshTokenStore).storeRefreshToken(TEST_USER_ID, TEST_NEW_REFRESH_TOKEN);
     }
 
     @Test
@@ -224,10 +224,10 @@ class AuthServiceTest extends BaseTest {
         // Given
         AuthRegisterDTO registerDTO = new AuthRegisterDTO(TEST_USERNAME, TEST_EMAIL, TEST_PASSWORD, Role.ADMIN);
         User savedUser = createTestUser();
-        UserDTO userDTO = new UserDTO();
+        UserDTO userDTO = createTestUserDTO();
 
         when(userService.existsByEmail(TEST_EMAIL)).thenReturn(false);
-        when(passwordEncoder.encode(TEST_PASSWORD)).thenReturn(ENCODED_PASSWORD);
+        when(passwordHashing.encode(TEST_PASSWORD)).thenReturn(ENCODED_PASSWORD);
         when(userService.save(any(User.class))).thenAnswer(invocation -> {
             User user = invocation.getArgument(0);
             assertEquals(TEST_USERNAME, user.getUsername());
@@ -250,13 +250,11 @@ class AuthServiceTest extends BaseTest {
         // Given
         AuthLoginDTO loginDTO = new AuthLoginDTO(TEST_EMAIL, TEST_PASSWORD);
         User user = createTestUser();
-        UserDTO userDTO = new UserDTO();
-        userDTO.setId(TEST_USER_ID);
-        userDTO.setEmail(TEST_EMAIL);
+        UserDTO userDTO = createTestUserDTO();
         // Ensure password is not in DTO
 
         when(userService.findByEmail(TEST_EMAIL)).thenReturn(user);
-        when(passwordEncoder.matches(TEST_PASSWORD, user.getPassword())).thenReturn(true);
+        when(passwordHashing.matches(TEST_PASSWORD, user.getPassword())).thenReturn(true);
         when(userMapper.toDTO(user)).thenReturn(userDTO);
 
         // When
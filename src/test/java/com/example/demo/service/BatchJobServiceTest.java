@@ -0,0 +1,138 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BatchJobDTO;
+import com.example.demo.entity.BatchJob;
+import com.example.demo.entity.BatchJobStatus;
+import com.example.demo.entity.Project;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.TaskStatus;
+import com.example.demo.entity.User;
+import com.example.demo.factory.TestDataFactory;
+import com.example.demo.repository.BatchJobRepository;
+import com.example.demo.repository.ProjectRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Batch jobs run on their own threads and commit per chunk, so this test is not transactional
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "app.batch.chunk-size=7")
+class BatchJobServiceTest {
+
+    @Autowired
+    private BatchJobService batchJobService;
+
+    @Autowired
+    private BatchJobRepository batchJobRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User testUser;
+    private Project testProject;
+
+    @BeforeEach
+    void setUp() {
+        testUser = userRepository.save(TestDataFactory.createUser("batchjobuser", "batchjob@example.com"));
+        testProject = projectRepository.save(TestDataFactory.createProject("Batch Job Project", testUser));
+        for (int i = 0; i < 30; i++) {
+            taskRepository.save(TestDataFactory.createTaskForPerformanceTesting(i, testProject, testUser));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchJobRepository.deleteAll();
+        taskRepository.deleteAll(taskRepository.findByProjectId(testProject.getId()));
+        projectRepository.deleteById(testProject.getId());
+        userRepository.deleteById(testUser.getId());
+    }
+
+    @Test
+    void submittedJobRunsToCompletionWithCheckpoints() throws InterruptedException {
+        BatchJobDTO submitted = batchJobService.submit(BatchJobService.STATUS_UPDATE,
+                Map.of("projectId", testProject.getId().toString(), "status", "COMPLETED"));
+
+        BatchJobDTO job = awaitFinished(submitted.id());
+
+        assertThat(job.status()).isEqualTo("COMPLETED");
+        assertThat(job.processedCount()).isEqualTo(30L);
+        assertThat(job.chunksCompleted()).isEqualTo(5);
+        assertThat(taskRepository.findByProjectId(testProject.getId()))
+                .allMatch(task -> task.getStatus() == TaskStatus.COMPLETED);
+    }
+
+    @Test
+    void staleJobResumesAfterLastCheckpoint() throws InterruptedException {
+        List<Long> ids = taskRepository.findByProjectId(testProject.getId()).stream()
+                .map(Task::getId).sorted().toList();
+        Long checkpoint = ids.get(9);
+
+        // Simulates a job interrupted by a restart after committing the first ten rows
+        BatchJob interrupted = new BatchJob(BatchJobService.STATUS_UPDATE,
+                "{\"projectId\":\"" + testProject.getId() + "\",\"status\":\"CANCELLED\"}");
+        interrupted.setStatus(BatchJobStatus.RUNNING);
+        interrupted.setAttempt(1);
+        interrupted.setLastProcessedId(checkpoint);
+        interrupted.setProcessedCount(10L);
+        interrupted.setHeartbeatAt(LocalDateTime.now().minusHours(1));
+        interrupted = batchJobRepository.save(interrupted);
+
+        batchJobService.resumeStaleJobs();
+        BatchJobDTO job = awaitFinished(interrupted.getId());
+
+        assertThat(job.status()).isEqualTo("COMPLETED");
+        assertThat(job.attempt()).isEqualTo(2);
+        assertThat(job.processedCount()).isEqualTo(30L);
+        for (Task task : taskRepository.findByProjectId(testProject.getId())) {
+            TaskStatus expected = task.getId() <= checkpoint ? TaskStatus.IN_PROGRESS : TaskStatus.CANCELLED;
+            assertThat(task.getStatus()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void overdueRunIsCheckpointedLikeSubmittedJobs() {
+        Long maxId = taskRepository.findMaxTaskIdByProjectId(testProject.getId());
+
+        BatchJobDTO job = batchJobService.run(BatchJobService.OVERDUE_TASKS,
+                Map.of("asOf", LocalDateTime.now().plusDays(30).toString()));
+
+        assertThat(job.status()).isEqualTo("COMPLETED");
+        assertThat(job.lastProcessedId()).isGreaterThanOrEqualTo(maxId);
+        assertThat(job.updatedCount()).isGreaterThanOrEqualTo(30L);
+        assertThat(taskRepository.findByProjectId(testProject.getId()))
+                .allMatch(task -> task.getStatus() == TaskStatus.PENDING);
+    }
+
+    private BatchJobDTO awaitFinished(Long jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            BatchJobDTO job = batchJobService.getJob(jobId);
+            if (job.status().equals("COMPLETED") || job.status().equals("FAILED")) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        return batchJobService.getJob(jobId);
+    }
+}
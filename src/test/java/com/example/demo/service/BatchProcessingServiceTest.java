@@ -0,0 +1,129 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Project;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.TaskStatus;
+import com.example.demo.entity.User;
+import com.example.demo.factory.TestDataFactory;
+import com.example.demo.repository.ProjectRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.BatchProcessingService.BatchProcessingResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Chunks commit on their own, so this test is not transactional; events are captured at the publisher
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "app.batch.chunk-size=4")
+class BatchProcessingServiceTest {
+
+    @Autowired
+    private BatchProcessingService batchProcessingService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private TaskUpdatePublisher taskUpdatePublisher;
+
+    private User testUser;
+    private Project testProject;
+    private final List<Long> dueSoon = new ArrayList<>();
+    private final List<Long> dueLater = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        testUser = userRepository.save(TestDataFactory.createUser("batchuser", "batchuser@example.com"));
+        testProject = projectRepository.save(TestDataFactory.createProject("Batch Project", testUser));
+        for (int i = 0; i < 15; i++) {
+            Task task = TestDataFactory.createTaskForPerformanceTesting(i, testProject, testUser);
+            if (i % 3 == 0) {
+                task.setDueDate(LocalDateTime.now().plusDays(60));
+                dueLater.add(taskRepository.save(task).getId());
+            } else {
+                dueSoon.add(taskRepository.save(task).getId());
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll(taskRepository.findByProjectId(testProject.getId()));
+        projectRepository.deleteById(testProject.getId());
+        userRepository.deleteById(testUser.getId());
+    }
+
+    @Test
+    void overdueRunPublishesOnlyTheTasksItMarked() {
+        BatchProcessingResult result = batchProcessingService.processOverdueTasksInBatch(LocalDateTime.now().plusDays(30));
+
+        assertThat(result.getTotalUpdated()).isGreaterThanOrEqualTo(dueSoon.size());
+        List<Long> published = published(TaskStatus.PENDING);
+        assertThat(published).containsAll(dueSoon).doesNotContainAnyElementsOf(dueLater);
+        assertThat(taskRepository.findAllById(dueSoon)).allMatch(task -> task.getStatus() == TaskStatus.PENDING);
+        assertThat(taskRepository.findAllById(dueLater)).allMatch(task -> task.getStatus() == TaskStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void parallelStatusUpdateCoversEveryTaskOnce() {
+        BatchProcessingResult result = batchProcessingService.updateTaskStatusInParallel(testProject.getId(), TaskStatus.COMPLETED, 3);
+
+        assertThat(result.getTotalProcessed()).isEqualTo(15);
+        assertThat(result.getTotalUpdated()).isEqualTo(15);
+        assertThat(taskRepository.findByProjectId(testProject.getId()))
+                .hasSize(15)
+                .allMatch(task -> task.getStatus() == TaskStatus.COMPLETED);
+        assertThat(published(TaskStatus.COMPLETED)).hasSize(15).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void parallelReassignmentMovesEveryTaskToTheNewAssignee() {
+        User newAssignee = userRepository.save(TestDataFactory.createUser("batchassignee", "batchassignee@example.com"));
+        try {
+            BatchProcessingResult result = batchProcessingService.reassignProjectTasksInParallel(
+                    testProject.getId(), newAssignee.getId(), 4);
+
+            assertThat(result.getTotalProcessed()).isEqualTo(15);
+            assertThat(result.getTotalUpdated()).isEqualTo(15);
+            assertThat(taskRepository.findByAssigneeId(newAssignee.getId())).hasSize(15);
+            assertThat(taskRepository.findByAssigneeId(testUser.getId())).isEmpty();
+        } finally {
+            taskRepository.deleteAll(taskRepository.findByProjectId(testProject.getId()));
+            userRepository.deleteById(newAssignee.getId());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> published(TaskStatus status) {
+        ArgumentCaptor<List<Long>> taskIds = ArgumentCaptor.forClass(List.class);
+        verify(taskUpdatePublisher, atLeastOnce()).publish(taskIds.capture(), eq(status), any());
+        return taskIds.getAllValues().stream().flatMap(Collection::stream).toList();
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Project;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.User;
+import com.example.demo.factory.TestDataFactory;
+import com.example.demo.repository.ProjectRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.BulkExportService.ExportFormat;
+import com.example.demo.service.BulkExportService.ExportResult;
+import com.example.demo.service.BulkExportService.ExportTable;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "app.export.fetch-size=4")
+class BulkExportServiceTest {
+
+    @Autowired
+    private BulkExportService bulkExportService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    Path tempDir;
+
+    private User testUser;
+    private Project testProject;
+    private List<Task> tasks;
+
+    @BeforeEach
+    void setUp() {
+        testUser = userRepository.save(TestDataFactory.createUser("exportuser", "export@example.com"));
+        testProject = projectRepository.save(TestDataFactory.createProject("Export Project", testUser));
+        List<Task> created = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            created.add(TestDataFactory.createTask(i == 0 ? "Has, comma \"quoted\"" : "Export " + i, testProject, testUser));
+        }
+        tasks = taskRepository.saveAll(created);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll(taskRepository.findByProjectId(testProject.getId()));
+        projectRepository.deleteById(testProject.getId());
+        userRepository.deleteById(testUser.getId());
+    }
+
+    @Test
+    void ndjsonExportResumesAfterLastWrittenId() throws IOException {
+        long beforeFirst = tasks.get(0).getId() - 1;
+
+        List<JsonNode> all = ownRows(exportNdjson(beforeFirst));
+        assertThat(all).hasSize(15);
+        assertThat(all.get(0).get("title").asText()).isEqualTo("Has, comma \"quoted\"");
+        assertThat(all.get(0).get("assigneeId").asLong()).isEqualTo(testUser.getId());
+        assertThat(all.get(0).has("dueDate")).isTrue();
+
+        List<JsonNode> resumed = ownRows(exportNdjson(tasks.get(9).getId()));
+        assertThat(resumed).hasSize(5);
+        assertThat(resumed.get(0).get("id").asLong()).isEqualTo(tasks.get(10).getId());
+    }
+
+    @Test
+    void csvQuotesFieldsAndWritesHeaderOnlyFromTheStart() throws IOException {
+        ByteArrayOutputStream full = new ByteArrayOutputStream();
+        ExportResult result = bulkExportService.exportTable(ExportTable.TASKS, ExportFormat.CSV, 0, full);
+        String csv = full.toString(StandardCharsets.UTF_8);
+
+        assertThat(csv).startsWith("id,title,description,status,priority,dueDate,projectId,assigneeId,createdAt,updatedAt\n");
+        assertThat(csv).contains(tasks.get(0).getId() + ",\"Has, comma \"\"quoted\"\"\",");
+        assertThat(result.lastId()).isEqualTo(tasks.get(14).getId());
+
+        ByteArrayOutputStream resumed = new ByteArrayOutputStream();
+        bulkExportService.exportTable(ExportTable.TASKS, ExportFormat.CSV, tasks.get(13).getId(), resumed);
+        assertThat(resumed.toString(StandardCharsets.UTF_8)).startsWith(tasks.get(14).getId() + ",Export 14,");
+    }
+
+    @Test
+    void usersExportNeverContainsPasswords() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bulkExportService.exportTable(ExportTable.USERS, ExportFormat.NDJSON, 0, output);
+
+        String ndjson = output.toString(StandardCharsets.UTF_8);
+        assertThat(ndjson).contains("\"username\":\"exportuser\"");
+        assertThat(ndjson).doesNotContain("password").doesNotContain(testUser.getPassword());
+    }
+
+    @Test
+    void gzipFilesAreExportedPerTableAndAppendedOnResume() throws IOException {
+        List<ExportResult> results = bulkExportService.exportAll(tempDir, ExportFormat.NDJSON, true);
+        assertThat(results).extracting(ExportResult::table).containsExactly("users", "projects", "tasks", "comments");
+
+        Path tasksFile = tempDir.resolve("tasks.ndjson.gz");
+        assertThat(ownRows(gunzip(tasksFile))).hasSize(15);
+
+        bulkExportService.exportToFile(ExportTable.TASKS, ExportFormat.NDJSON, true, tasks.get(9).getId(), tasksFile);
+        assertThat(ownRows(gunzip(tasksFile))).hasSize(20);
+    }
+
+    private String exportNdjson(long afterId) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bulkExportService.exportTable(ExportTable.TASKS, ExportFormat.NDJSON, afterId, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private List<JsonNode> ownRows(String ndjson) throws IOException {
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            JsonNode row = objectMapper.readTree(line);
+            if (row.path("projectId").asLong() == testProject.getId()) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static String gunzip(Path file) throws IOException {
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Priority;
+import com.example.demo.entity.Project;
+import com.example.demo.entity.Role;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.TaskStatus;
+import com.example.demo.entity.User;
+import com.example.demo.factory.TestDataFactory;
+import com.example.demo.repository.ProjectRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.BulkImportService.ImportFormat;
+import com.example.demo.service.BulkImportService.ImportResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Each import chunk commits on its own, so this test is not transactional
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "app.import.chunk-size=10")
+class BulkImportServiceTest {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User testUser;
+    private Project testProject;
+
+    @BeforeEach
+    void setUp() {
+        testUser = userRepository.save(TestDataFactory.createUser("importuser", "import@example.com"));
+        testProject = projectRepository.save(TestDataFactory.createProject("Import Project", testUser));
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll(taskRepository.findByProjectId(testProject.getId()));
+        projectRepository.deleteById(testProject.getId());
+        userRepository.deleteById(testUser.getId());
+    }
+
+    @Test
+    void importsNdjsonInChunksAndReportsRejectedRows() throws IOException {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 25; i++) {
+            ndjson.append(String.format(
+                    "{\"title\":\"Imported %d\",\"status\":\"IN_PROGRESS\",\"priority\":\"URGENT\",\"dueDate\":\"2020-01-01T10:00:00\",\"projectId\":%d,\"assigneeId\":%d}%n",
+                    i, testProject.getId(), testUser.getId()));
+        }
+        ndjson.append("{not json}\n");
+        ndjson.append("{\"title\":\"Orphan\",\"projectId\":999999}\n");
+        ndjson.append("\n");
+
+        ImportResult result = bulkImportService.importTasks(stream(ndjson.toString()), ImportFormat.NDJSON);
+
+        assertThat(result.rowsRead()).isEqualTo(27);
+        assertThat(result.rowsImported()).isEqualTo(25);
+        assertThat(result.rowsRejected()).isEqualTo(2);
+        assertThat(result.errors()).hasSize(2);
+        assertThat(result.errors().get(0)).startsWith("line 26: malformed JSON");
+        assertThat(result.errors().get(1)).contains("project 999999 does not exist");
+
+        List<Task> tasks = taskRepository.findByProjectId(testProject.getId());
+        assertThat(tasks).hasSize(25);
+        assertThat(tasks).allMatch(task -> task.getStatus() == TaskStatus.IN_PROGRESS && task.getPriority() == Priority.CRITICAL);
+        assertThat(tasks.stream().map(Task::getId).distinct()).hasSize(25);
+    }
+
+    @Test
+    void importsCsvWithQuotedFields() throws IOException {
+        String csv = "title,description,status,projectId\n"
+                + "\"Quoted, title\",\"Line one\nline two\",TODO," + testProject.getId() + "\n"
+                + "Plain title,,," + testProject.getId() + "\n"
+                + "X,,," + testProject.getId() + "\n";
+
+        ImportResult result = bulkImportService.importTasks(stream(csv), ImportFormat.CSV);
+
+        assertThat(result.rowsImported()).isEqualTo(2);
+        assertThat(result.rowsRejected()).isEqualTo(1);
+        assertThat(taskRepository.findByProjectId(testProject.getId()))
+                .extracting(Task::getTitle)
+                .containsExactlyInAnyOrder("Quoted, title", "Plain title");
+    }
+
+    @Test
+    void importsUsersWithHashedPasswordsAndRejectsTakenNames() throws IOException {
+        String ndjson = "{\"username\":\"bulkuser1\",\"email\":\"bulk1@example.com\",\"password\":\"secret-password\",\"role\":\"developer\"}\n"
+                + "{\"username\":\"bulkuser2\",\"email\":\"bulk2@example.com\",\"password\":\"secret-password\"}\n"
+                + "{\"username\":\"bulkuser3\",\"email\":\"bulk1@example.com\",\"password\":\"secret-password\"}\n"
+                + "{\"username\":\"importuser\",\"email\":\"other@example.com\",\"password\":\"secret-password\"}\n"
+                + "{\"username\":\"bulkuser4\",\"email\":\"bulk4@example.com\",\"password\":\"short\"}\n";
+
+        try {
+            ImportResult result = bulkImportService.importUsers(stream(ndjson), ImportFormat.NDJSON);
+
+            assertThat(result.rowsImported()).isEqualTo(2);
+            assertThat(result.rowsRejected()).isEqualTo(3);
+            assertThat(result.errors()).anyMatch(error -> error.startsWith("line 3: email bulk1@example.com"))
+                    .anyMatch(error -> error.startsWith("line 4: username importuser"));
+
+            User imported = userRepository.findByUsername("bulkuser1").orElseThrow();
+            assertThat(imported.getRole()).isEqualTo(Role.DEVELOPER);
+            assertThat(passwordEncoder.matches("secret-password", imported.getPassword())).isTrue();
+            assertThat(userRepository.findByUsername("bulkuser2").orElseThrow().getRole()).isEqualTo(Role.USER);
+        } finally {
+            userRepository.findByUsername("bulkuser1").ifPresent(userRepository::delete);
+            userRepository.findByUsername("bulkuser2").ifPresent(userRepository::delete);
+        }
+    }
+
+    @Test
+    void importsProjectsOfExistingOwners() throws IOException {
+        String csv = "name,description,ownerId\n"
+                + "Bulk Project,Imported,\"" + testUser.getId() + "\"\n"
+                + "Orphan Project,,999999\n";
+
+        ImportResult result = bulkImportService.importProjects(stream(csv), ImportFormat.CSV);
+
+        assertThat(result.rowsImported()).isEqualTo(1);
+        assertThat(result.errors()).singleElement().asString().contains("user 999999 does not exist");
+        List<Project> projects = projectRepository.findByOwnerId(testUser.getId());
+        assertThat(projects).extracting(Project::getName).containsExactlyInAnyOrder("Import Project", "Bulk Project");
+        projects.stream().filter(project -> !project.getId().equals(testProject.getId())).forEach(projectRepository::delete);
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CacheInvalidationMessageDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Applying invalidations received from other instances
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CacheInvalidationServiceTest {
+
+    @Autowired
+    private CacheInvalidationService invalidations;
+
+    @Autowired
+    private CacheTagService cacheTags;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void remoteEvictionDropsTheLocalEntry() {
+        Cache cache = cacheManager.getCache("task");
+        cache.put(901L, "task");
+        cache.put("username_alice", "user");
+
+        invalidations.apply(new CacheInvalidationMessageDTO("other-instance", CacheInvalidationMessageDTO.EVICT, "task",
+                CacheInvalidationService.encodeKey(901L), null));
+        invalidations.apply(new CacheInvalidationMessageDTO("other-instance", CacheInvalidationMessageDTO.EVICT, "task",
+                CacheInvalidationService.encodeKey("username_alice"), null));
+
+        assertThat(cache.get(901L)).isNull();
+        assertThat(cache.get("username_alice")).isNull();
+    }
+
+    @Test
+    void remoteTagInvalidationBumpsVersions() {
+        long version = cacheTags.version("project:901");
+
+        invalidations.apply(new CacheInvalidationMessageDTO("other-instance", CacheInvalidationMessageDTO.TAGS, null, null,
+                List.of("project:901")));
+
+        assertThat(cacheTags.version("project:901")).isEqualTo(version + 1);
+    }
+
+    @Test
+    void ownMessagesAreIgnored() {
+        Cache cache = cacheManager.getCache("task");
+        cache.put(902L, "task");
+
+        invalidations.apply(new CacheInvalidationMessageDTO(invalidations.getInstanceId(), CacheInvalidationMessageDTO.CLEAR,
+                "task", null, null));
+
+        assertThat(cache.get(902L)).isNotNull();
+    }
+
+    @Test
+    void bindingsAreUnderSpringCloud() {
+        // The test resources shadow application.yaml, so read the main one directly
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new FileSystemResource("src/main/resources/application.yaml"));
+        Properties properties = yaml.getObject();
+
+        assertThat(properties.getProperty("spring.cloud.function.definition")).contains("cacheInvalidationInput");
+        assertThat(properties.getProperty("spring.cloud.stream.bindings.cacheInvalidationOutput.destination"))
+                .isEqualTo("cache-invalidations");
+        assertThat(properties.getProperty("spring.cloud.stream.bindings.cacheInvalidationInput-in-0.destination"))
+                .isEqualTo("cache-invalidations");
+        assertThat(properties.getProperty("spring.cloud.stream.bindings.cacheInvalidationInput-in-0.group")).isNull();
+        assertThat(properties.stringPropertyNames()).noneMatch(name -> name.startsWith("app.cloud."));
+    }
+
+    @Test
+    void keysRoundTrip() {
+        for (Object key : List.of(7L, 7, "project_7", "S:odd")) {
+            assertThat(CacheInvalidationService.decodeKey(CacheInvalidationService.encodeKey(key))).isEqualTo(key);
+        }
+        assertThat(CacheInvalidationService.encodeKey(new Object())).isNull();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TaskSummaryDTO;
+import com.example.demo.entity.Comment;
+import com.example.demo.entity.Project;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.TaskStatus;
+import com.example.demo.entity.User;
+import com.example.demo.factory.TestDataFactory;
+import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.ProjectRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes commit before tags are bumped, so this test is not transactional
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CacheTagServiceTest {
+
+    @Autowired
+    private CacheTagService cacheTags;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User testUser;
+    private Project projectA;
+    private Project projectB;
+    private Task taskA;
+
+    @BeforeEach
+    void setUp() {
+        testUser = userRepository.save(TestDataFactory.createUser("taguser", "tag@example.com"));
+        projectA = projectRepository.save(TestDataFactory.createProject("Tag Project A", testUser));
+        projectB = projectRepository.save(TestDataFactory.createProject("Tag Project B", testUser));
+        taskA = taskRepository.save(TestDataFactory.createTask("Tag Task A", projectA, null));
+        taskRepository.save(TestDataFactory.createTask("Tag Task B", projectB, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll(commentRepository.findByTaskId(taskA.getId()));
+        taskRepository.deleteAll(taskRepository.findByProjectId(projectA.getId()));
+        taskRepository.deleteAll(taskRepository.findByProjectId(projectB.getId()));
+        projectRepository.deleteById(projectA.getId());
+        projectRepository.deleteById(projectB.getId());
+        userRepository.deleteById(testUser.getId());
+    }
+
+    @Test
+    void keyChangesOnlyWhenOneOfItsTagsIsInvalidated() {
+        String before = cacheTags.key("project_1", "project:1", "assignee:2");
+
+        cacheTags.invalidate("project:3", null);
+        assertThat(cacheTags.key("project_1", "project:1", "assignee:2")).isEqualTo(before);
+
+        cacheTags.invalidate("assignee:2");
+        assertThat(cacheTags.key("project_1", "project:1", "assignee:2")).isNotEqualTo(before);
+    }
+
+    @Test
+    void tagsSharingAStripeAreInvalidatedTogetherAndKeysNeverRepeat() {
+        CacheTagService singleStripe = new CacheTagService(1);
+        String first = singleStripe.key("list", "project:1");
+
+        singleStripe.invalidate("project:2");
+        String second = singleStripe.key("list", "project:1");
+        singleStripe.invalidate("project:3");
+
+        assertThat(second).isNotEqualTo(first);
+        assertThat(singleStripe.key("list", "project:1")).isNotIn(first, second);
+    }
+
+    @Test
+    void invalidationWaitsForCommitAndIsDroppedOnRollback() {
+        long version = cacheTags.version("project:42");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cacheTags.invalidate("project:42");
+            assertThat(cacheTags.version("project:42")).isEqualTo(version);
+        });
+        assertThat(cacheTags.version("project:42")).isEqualTo(version + 1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cacheTags.invalidate("project:42");
+            status.setRollbackOnly();
+        });
+        assertThat(cacheTags.version("project:42")).isEqualTo(version + 1);
+    }
+
+    private List<TaskSummaryDTO> list(Long projectId) {
+        return taskService.getAllTasks(null, projectId, null, null, "dueDate", "ASC");
+    }
+
+    @Test
+    void taskWriteKeepsListsOfOtherProjectsCached() {
+        List<TaskSummaryDTO> listA = list(projectA.getId());
+        List<TaskSummaryDTO> listB = list(projectB.getId());
+        List<TaskSummaryDTO> unscoped = list(null);
+        assertThat(list(projectA.getId())).isSameAs(listA);
+
+        taskService.updateTaskStatus(taskA.getId(), TaskStatus.COMPLETED);
+
+        List<TaskSummaryDTO> reloadedA = list(projectA.getId());
+        assertThat(reloadedA).isNotSameAs(listA);
+        assertThat(reloadedA).extracting(TaskSummaryDTO::status).containsExactly("COMPLETED");
+        assertThat(list(null)).isNotSameAs(unscoped);
+        assertThat(list(projectB.getId())).isSameAs(listB);
+    }
+
+    @Test
+    void userDeletionInvalidatesOtherAssigneesAndCommentedTasks() {
+        User leaving = userRepository.save(TestDataFactory.createUser("tagleaving", "tagleaving@example.com"));
+        Project ownedProject = projectRepository.save(TestDataFactory.createProject("Tag Leaving Project", leaving));
+        taskRepository.save(TestDataFactory.createTask("Tag Teammate Task", ownedProject, testUser));
+        commentRepository.save(new Comment("Tag comment", taskA, leaving));
+        long assigneeVersion = cacheTags.version(CacheTagService.assignee(testUser.getId()));
+        long commentsVersion = cacheTags.version(CacheTagService.task(taskA.getId()));
+
+        userService.deleteUser(leaving.getId());
+
+        assertThat(cacheTags.version(CacheTagService.assignee(testUser.getId()))).isGreaterThan(assigneeVersion);
+        assertThat(cacheTags.version(CacheTagService.task(taskA.getId()))).isGreaterThan(commentsVersion);
+        assertThat(taskRepository.findByAssigneeId(testUser.getId())).isEmpty();
+        assertThat(commentRepository.findByTaskId(taskA.getId())).isEmpty();
+    }
+}
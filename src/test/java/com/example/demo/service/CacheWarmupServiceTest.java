@@ -0,0 +1,183 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProjectDTO;
+import com.example.demo.dto.TaskDTO;
+import com.example.demo.dto.UserDTO;
+import com.example.demo.entity.Project;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.User;
+import com.example.demo.factory.TestDataFactory;
+import com.example.demo.repository.ProjectRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CacheWarmupServiceTest {
+
+    @Autowired
+    private CacheWarmupService warmupService;
+
+    @Autowired
+    private CacheAccessTracker accessTracker;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User testUser;
+    private Project project;
+    private Task hotTask;
+    private Task coldTask;
+
+    @BeforeEach
+    void setUp() {
+        testUser = userRepository.save(TestDataFactory.createUser("warmuser", "warm@example.com"));
+        project = projectRepository.save(TestDataFactory.createProject("Warm Project", testUser));
+        hotTask = taskRepository.save(TestDataFactory.createTask("Hot Task", project, null));
+        coldTask = taskRepository.save(TestDataFactory.createTask("Cold Task", project, null));
+        jdbcTemplate.update("DELETE FROM cache_access_stats");
+        clearCaches();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM cache_access_stats");
+        clearCaches();
+        taskRepository.deleteAll(taskRepository.findByProjectId(project.getId()));
+        projectRepository.deleteById(project.getId());
+        userRepository.deleteById(testUser.getId());
+    }
+
+    @Test
+    void preloadsMostAccessedIdsFromSnapshot() {
+        for (int i = 0; i < 5; i++) {
+            accessTracker.record("task", hotTask.getId());
+        }
+        accessTracker.record("task", coldTask.getId());
+        accessTracker.record("project", project.getId());
+        accessTracker.record("user", testUser.getId());
+        accessTracker.persistSnapshot();
+
+        assertThat(accessTracker.topKeys("task", 10)).containsExactly(hotTask.getId(), coldTask.getId());
+
+        CacheWarmupService.WarmupResult result = warmupService.warmUp();
+
+        assertThat(result.timedOut()).isFalse();
+        assertThat(result.loaded()).containsEntry("task", 2).containsEntry("project", 1).containsEntry("user", 1);
+        assertThat(warmupService.isComplete()).isTrue();
+
+        Cache.ValueWrapper task = cacheManager.getCache("task").get(hotTask.getId());
+        assertThat(task).isNotNull();
+        assertThat(((TaskDTO) task.get()).title()).isEqualTo("Hot Task");
+        assertThat(cacheManager.getCache("project").get(project.getId()).get()).isInstanceOf(ProjectDTO.class);
+        assertThat(cacheManager.getCache("user").get(testUser.getId()).get()).isInstanceOf(UserDTO.class);
+    }
+
+    @Test
+    void olderScoresDecayAtEverySnapshotInterval() {
+        for (int i = 0; i < 4; i++) {
+            accessTracker.record("task", coldTask.getId());
+        }
+        accessTracker.persistSnapshot();
+        snapshotIntervalElapsed();
+
+        // 4 * 0.5 = 2 < 3: the task read most recently now ranks first
+        for (int i = 0; i < 3; i++) {
+            accessTracker.record("task", hotTask.getId());
+        }
+        accessTracker.persistSnapshot();
+
+        assertThat(accessTracker.topKeys("task", 10)).containsExactly(hotTask.getId(), coldTask.getId());
+        assertThat(accessTracker.topKeys("task", 1)).containsExactly(hotTask.getId());
+    }
+
+    @Test
+    void snapshotsWithinOneIntervalAddUpWithoutDecayingAgain() {
+        // e.g. two instances snapshotting shortly after each other
+        accessTracker.record("task", hotTask.getId());
+        accessTracker.record("task", hotTask.getId());
+        accessTracker.persistSnapshot();
+        accessTracker.record("task", hotTask.getId());
+        accessTracker.persistSnapshot();
+
+        assertThat(score(hotTask.getId())).isEqualTo(3.0);
+
+        snapshotIntervalElapsed();
+        accessTracker.record("task", hotTask.getId());
+        accessTracker.persistSnapshot();
+
+        assertThat(score(hotTask.getId())).isEqualTo(2.5);
+    }
+
+    @Test
+    void snapshotIsTrimmedToTheBestScores() {
+        int snapshotSize = (int) ReflectionTestUtils.getField(accessTracker, "snapshotSize");
+        ReflectionTestUtils.setField(accessTracker, "snapshotSize", 1);
+        try {
+            accessTracker.record("task", coldTask.getId());
+            accessTracker.persistSnapshot();
+            accessTracker.record("task", hotTask.getId());
+            accessTracker.record("task", hotTask.getId());
+            accessTracker.persistSnapshot();
+
+            assertThat(accessTracker.topKeys("task", 10)).containsExactly(hotTask.getId());
+        } finally {
+            ReflectionTestUtils.setField(accessTracker, "snapshotSize", snapshotSize);
+        }
+    }
+
+    @Test
+    void idsNoLongerInTheDatabaseAreSkipped() {
+        accessTracker.record("task", Long.MAX_VALUE);
+        accessTracker.persistSnapshot();
+
+        CacheWarmupService.WarmupResult result = warmupService.warmUp();
+
+        assertThat(result.loaded()).containsEntry("task", 0);
+        assertThat(cacheManager.getCache("task").get(Long.MAX_VALUE)).isNull();
+    }
+
+    private void snapshotIntervalElapsed() {
+        jdbcTemplate.update("UPDATE cache_access_stats SET updated_at = ?", LocalDateTime.now().minusDays(1));
+    }
+
+    private double score(Long taskId) {
+        return jdbcTemplate.queryForObject("SELECT score FROM cache_access_stats WHERE region = 'task' AND entity_id = ?",
+                Double.class, taskId);
+    }
+
+    private void clearCaches() {
+        for (String region : CacheAccessTracker.TRACKED_REGIONS) {
+            Cache cache = cacheManager.getCache(region);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedBatchExecutorTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ChunkedBatchExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ChunkedBatchExecutor(transactionManager);
+    }
+
+    @Test
+    void execute_seeksOnLastIdAndCommitsEachChunk() {
+        List<Long> table = LongStream.of(2, 5, 7, 11, 13, 17, 19).boxed().toList();
+        List<Long> seekPositions = new ArrayList<>();
+        List<Long> written = new ArrayList<>();
+
+        var result = executor.execute("test", 0L, 3,
+                (lastId, chunkSize) -> {
+                    seekPositions.add(lastId);
+                    return table.stream().filter(id -> id > lastId).limit(chunkSize).toList();
+                },
+                ids -> {
+                    written.addAll(ids);
+                    return ids.size();
+                });
+
+        assertThat(seekPositions).containsExactly(0L, 7L, 17L);
+        assertThat(written).containsExactlyElementsOf(table);
+        assertThat(result.getTotalProcessed()).isEqualTo(7);
+        assertThat(result.getTotalUpdated()).isEqualTo(7);
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void execute_stopsWhenFirstChunkIsEmpty() {
+        var result = executor.execute("empty", 0L, 10, (lastId, chunkSize) -> List.of(), ids -> {
+            throw new AssertionError("writer must not be called");
+        });
+
+        assertThat(result.getTotalProcessed()).isZero();
+        verify(transactionManager, times(1)).commit(any());
+    }
+}
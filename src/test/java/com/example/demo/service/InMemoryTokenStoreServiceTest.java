@@ -0,0 +1,125 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.RefreshToken;
+import com.example.demo.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.token.store.type=memory",
+        "app.token.store.memory.flush-interval-ms=60000"
+})
+@ActiveProfiles("test")
+class InMemoryTokenStoreServiceTest {
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private InMemoryTokenStoreService inMemoryTokenStoreService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @AfterEach
+    void tearDown() {
+        inMemoryTokenStoreService.flush();
+        refreshTokenRepository.deleteAll();
+    }
+
+    @Test
+    void memoryStoreIsSelectedByProperty() {
+        assertThat(refreshTokenStore).isSameAs(inMemoryTokenStoreService);
+    }
+
+    @Test
+    void tokensAreServedFromMemoryAndWrittenBehind() {
+        refreshTokenStore.storeRefreshToken(1L, "token-a");
+
+        assertThat(refreshTokenStore.validateRefreshToken("token-a")).isEqualTo(1L);
+        assertThat(refreshTokenRepository.findByToken("token-a")).isEmpty();
+        assertThat(inMemoryTokenStoreService.getPendingWrites()).isEqualTo(1);
+
+        inMemoryTokenStoreService.flush();
+
+        assertThat(refreshTokenRepository.findByToken("token-a")).hasValueSatisfying(token -> {
+            assertThat(token.getUserId()).isEqualTo(1L);
+            assertThat(token.getIsRevoked()).isFalse();
+        });
+    }
+
+    @Test
+    void revocationsApplyImmediatelyAndAreWrittenInOrder() {
+        refreshTokenStore.storeRefreshToken(2L, "token-b1");
+        refreshTokenStore.storeRefreshToken(2L, "token-b2");
+        refreshTokenStore.storeRefreshToken(3L, "token-c");
+        refreshTokenStore.revokeRefreshToken("token-b1");
+
+        assertThat(refreshTokenStore.validateRefreshToken("token-b1")).isNull();
+        assertThat(refreshTokenStore.getUserRefreshTokenCount(2L)).isEqualTo(1L);
+
+        refreshTokenStore.revokeAllRefreshTokensForUser(2L);
+
+        assertThat(refreshTokenStore.validateRefreshToken("token-b2")).isNull();
+        assertThat(refreshTokenStore.validateRefreshToken("token-c")).isEqualTo(3L);
+
+        inMemoryTokenStoreService.flush();
+
+        assertThat(refreshTokenRepository.findByToken("token-b1").orElseThrow().getIsRevoked()).isTrue();
+        assertThat(refreshTokenRepository.findByToken("token-b2").orElseThrow().getIsRevoked()).isTrue();
+        assertThat(refreshTokenRepository.findByToken("token-c").orElseThrow().getIsRevoked()).isFalse();
+    }
+
+    @Test
+    void tokensWrittenElsewhereAreReadThroughOnce() {
+        refreshTokenRepository.save(new RefreshToken("token-d", 4L, LocalDateTime.now().plusHours(1)));
+
+        assertThat(refreshTokenStore.validateRefreshToken("token-d")).isEqualTo(4L);
+        assertThat(refreshTokenStore.getUserRefreshTokenCount(4L)).isEqualTo(1L);
+
+        // A revoke-all that has not reached the table yet still rejects tokens read back from it
+        refreshTokenRepository.save(new RefreshToken("token-e", 5L, LocalDateTime.now().plusHours(1)));
+        refreshTokenStore.revokeAllRefreshTokensForUser(5L);
+
+        assertThat(refreshTokenStore.validateRefreshToken("token-e")).isNull();
+    }
+
+    @Test
+    void activeTokensAreReloadedFromTheTable() {
+        refreshTokenRepository.save(new RefreshToken("token-f", 6L, LocalDateTime.now().plusHours(1)));
+        RefreshToken revoked = new RefreshToken("token-g", 6L, LocalDateTime.now().plusHours(1));
+        revoked.revoke();
+        refreshTokenRepository.save(revoked);
+
+        ReflectionTestUtils.invokeMethod(inMemoryTokenStoreService, "reload");
+
+        assertThat(refreshTokenStore.getUserRefreshTokenCount(6L)).isEqualTo(1L);
+    }
+
+    @Test
+    void aDuplicateTokenIsDroppedWithoutBlockingOtherWrites() {
+        // Two logins in the same second can produce the same refresh token
+        refreshTokenStore.storeRefreshToken(7L, "token-h");
+        refreshTokenStore.storeRefreshToken(7L, "token-h");
+        refreshTokenStore.storeRefreshToken(8L, "token-i");
+
+        inMemoryTokenStoreService.flush();
+
+        assertThat(inMemoryTokenStoreService.getPendingWrites()).isZero();
+        assertThat(refreshTokenRepository.findByToken("token-h")).isPresent();
+        assertThat(refreshTokenRepository.findByToken("token-i")).isPresent();
+
+        refreshTokenStore.storeRefreshToken(8L, "token-j");
+        inMemoryTokenStoreService.flush();
+
+        assertThat(refreshTokenRepository.findByToken("token-j")).isPresent();
+    }
+}
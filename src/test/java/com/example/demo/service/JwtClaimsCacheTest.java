@@ -0,0 +1,73 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.User;
+import com.example.demo.factory.TestDataFactory;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JwtClaimsCacheTest {
+
+    @Autowired
+    private JwtClaimsCache jwtClaimsCache;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        jwtClaimsCache.clear();
+        testUser = userRepository.save(TestDataFactory.createUser("jwtcacheuser", "jwtcache@example.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jwtClaimsCache.clear();
+        userRepository.deleteById(testUser.getId());
+    }
+
+    @Test
+    void tokenIsVerifiedOnceAndReused() {
+        String token = jwtService.generateAccessToken(testUser);
+
+        JwtClaimsCache.VerifiedToken first = jwtClaimsCache.verify(token);
+        JwtClaimsCache.VerifiedToken second = jwtClaimsCache.verify(token);
+
+        assertThat(first.subject()).isEqualTo("jwtcache@example.com");
+        assertThat(second).isSameAs(first);
+        assertThat(first.expiresAtMillis()).isGreaterThan(System.currentTimeMillis());
+    }
+
+    @Test
+    void tamperedTokenIsRejectedEvenAfterOriginalWasCached() {
+        String token = jwtService.generateAccessToken(testUser);
+        jwtClaimsCache.verify(token);
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtClaimsCache.verify(tampered)).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void principalIsLoadedOnceWithinTtl() {
+        User first = jwtClaimsCache.principal("jwtcache@example.com");
+        User second = jwtClaimsCache.principal("jwtcache@example.com");
+
+        assertThat(first.getId()).isEqualTo(testUser.getId());
+        assertThat(second).isSameAs(first);
+    }
+}
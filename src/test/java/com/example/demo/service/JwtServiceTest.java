@@ -0,0 +1,110 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Role;
+import com.example.demo.entity.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Key handling and kid-based rotation, without a Spring context
+ */
+class JwtServiceTest {
+
+    private static final String LEGACY_SECRET = "legacySecretKey1234567890123456789012345678901234567890123456789012";
+    private static final String OLD_SECRET = "oldSecretKey1234567890123456789012345678901234567890123456789012345";
+    private static final String NEW_SECRET = "newSecretKey1234567890123456789012345678901234567890123456789012345";
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("jwtuser", "jwt@example.com", "unused", Role.USER);
+        user.setId(7L);
+    }
+
+    @Test
+    void tokensCarryKidAndVerifyWithTheSameService() {
+        JwtService service = service(LEGACY_SECRET, "default", new MockEnvironment());
+
+        String token = service.generateAccessToken(user);
+
+        assertThat(header(token)).contains("\"kid\":\"default\"");
+        assertThat(service.validateToken(token)).isTrue();
+        assertThat(service.getUserIdFromToken(token)).isEqualTo(7L);
+    }
+
+    @Test
+    void rotatedKeysKeepVerifyingTokensOfThePreviousKey() {
+        JwtService before = service(LEGACY_SECRET, "2026-07", new MockEnvironment().withProperty("jwt.keys.2026-07", OLD_SECRET));
+        String oldToken = before.generateAccessToken(user);
+
+        JwtService after = service(LEGACY_SECRET, "2026-10",
+                new MockEnvironment().withProperty("jwt.keys.2026-07", OLD_SECRET).withProperty("jwt.keys.2026-10", NEW_SECRET));
+        String newToken = after.generateAccessToken(user);
+
+        assertThat(header(newToken)).contains("\"kid\":\"2026-10\"");
+        assertThat(after.validateToken(oldToken)).isTrue();
+        assertThat(after.validateToken(newToken)).isTrue();
+        // The old instance does not know the new key
+        assertThat(before.validateToken(newToken)).isFalse();
+    }
+
+    @Test
+    void tokensOfTheDefaultKeyStayValidOnceKeysAreConfigured() {
+        JwtService before = service(LEGACY_SECRET, "default", new MockEnvironment());
+        String defaultToken = before.generateAccessToken(user);
+
+        JwtService after = service(LEGACY_SECRET, "2026-10", new MockEnvironment().withProperty("jwt.keys.2026-10", NEW_SECRET));
+
+        assertThat(header(defaultToken)).contains("\"kid\":\"default\"");
+        assertThat(after.validateToken(defaultToken)).isTrue();
+        assertThat(after.getUserIdFromToken(defaultToken)).isEqualTo(7L);
+        assertThat(header(after.generateAccessToken(user))).contains("\"kid\":\"2026-10\"");
+    }
+
+    @Test
+    void tokensWithoutKidAreVerifiedWithJwtSecret() {
+        JwtService service = service(LEGACY_SECRET, "2026-10", new MockEnvironment().withProperty("jwt.keys.2026-10", NEW_SECRET));
+        String unversioned = Jwts.builder()
+                .setSubject("jwt@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(LEGACY_SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+
+        assertThat(service.getUsernameFromToken(unversioned)).isEqualTo("jwt@example.com");
+    }
+
+    @Test
+    void keysTooShortForHs512AreRejectedAtStartup() {
+        assertThatThrownBy(() -> service("tooShortSecret1234567890", "default", new MockEnvironment()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("512");
+    }
+
+    private static JwtService service(String secret, String activeKid, MockEnvironment environment) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "environment", environment);
+        ReflectionTestUtils.setField(service, "jwtSecret", secret);
+        ReflectionTestUtils.setField(service, "activeKid", activeKid);
+        ReflectionTestUtils.setField(service, "jwtExpiration", 3600);
+        ReflectionTestUtils.setField(service, "jwtRefreshExpiration", 604800);
+        service.init();
+        return service;
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.KafkaTaskMessageDTO;
+import com.example.demo.exception.ServiceBusyException;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Keys, completion callbacks and in-flight bounds, with the binder's callbacks played by the test
+ */
+class KafkaMessageProducerServiceTest {
+
+    private StreamBridge streamBridge;
+    private KafkaMessageProducerService service;
+
+    @BeforeEach
+    void setUp() {
+        streamBridge = mock(StreamBridge.class);
+        when(streamBridge.send(eq(KafkaMessageProducerService.OUTPUT_BINDING), any(Object.class))).thenReturn(true);
+        service = service(2, Duration.ofMillis(50), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void keysByTaskIdAndCompletesOnAcknowledgement() throws Exception {
+        CompletableFuture<RecordMetadata> future = service.sendAsync(message(42L));
+
+        Message<?> sent = lastSent();
+        assertThat(sent.getHeaders().get(KafkaHeaders.KEY)).isEqualTo("42");
+        assertThat(future).isNotDone();
+        assertThat(service.getInFlight()).isEqualTo(1);
+
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition("task-events", 3), 17L, 0, 0L, 0, 0);
+        service.onSent(MessageBuilder.fromMessage(sent).setHeader(KafkaHeaders.RECORD_METADATA, metadata).build());
+
+        assertThat(future.get(1, TimeUnit.SECONDS)).isSameAs(metadata);
+        assertThat(service.getInFlight()).isZero();
+    }
+
+    @Test
+    void failsOnSendError() {
+        CompletableFuture<RecordMetadata> future = service.sendAsync(message(42L));
+
+        IllegalStateException cause = new IllegalStateException("broker down");
+        service.onSendFailure(new ErrorMessage(new MessagingException(lastSent(), "send failed", cause)));
+
+        assertThatThrownBy(() -> future.get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class).hasCause(cause);
+        assertThat(service.getInFlight()).isZero();
+    }
+
+    @Test
+    void rejectsWhenTooManySendsAreUnacknowledged() throws Exception {
+        CompletableFuture<RecordMetadata> first = service.sendAsync(message(1L));
+        service.sendAsync(message(2L));
+
+        CompletableFuture<RecordMetadata> third = service.sendAsync(message(3L));
+        assertThatThrownBy(() -> third.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(ServiceBusyException.class);
+        verify(streamBridge, times(2)).send(eq(KafkaMessageProducerService.OUTPUT_BINDING), any(Object.class));
+
+        ArgumentCaptor<Message<?>> sent = messageCaptor(2);
+        service.onSent(MessageBuilder.fromMessage(sent.getAllValues().get(0))
+                .setHeader(KafkaHeaders.RECORD_METADATA, new RecordMetadata(new TopicPartition("task-events", 0), 0L, 0, 0L, 0, 0))
+                .build());
+        first.get(1, TimeUnit.SECONDS);
+
+        assertThat(service.sendAsync(message(4L))).isNotDone();
+    }
+
+    @Test
+    void unacknowledgedSendTimesOutAndFreesItsSlot() {
+        service = service(1, Duration.ofSeconds(5), Duration.ofMillis(100));
+
+        CompletableFuture<RecordMetadata> future = service.sendAsync(message(1L));
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(service.sendAsync(message(2L))).isNotDone();
+    }
+
+    @Test
+    void sendMessagesFailsWhenTheBindingRefuses() {
+        when(streamBridge.send(eq(KafkaMessageProducerService.OUTPUT_BINDING), any(Object.class))).thenReturn(false);
+
+        CompletableFuture<Void> all = service.sendMessages(List.of(message(1L)));
+
+        assertThatThrownBy(() -> all.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(service.getInFlight()).isZero();
+    }
+
+    @Test
+    void bulkUpdatesAreSentAsOneKeyedEventPerTask() {
+        service = service(10, Duration.ofMillis(50), Duration.ofSeconds(30));
+
+        service.sendTaskUpdatedEvents(List.of(7L, 8L, 9L), "PENDING", null);
+
+        assertThat(messageCaptor(3).getAllValues())
+                .extracting(sent -> sent.getHeaders().get(KafkaHeaders.KEY))
+                .containsExactly("7", "8", "9");
+        assertThat(service.getInFlight()).isEqualTo(3);
+    }
+
+    @Test
+    void sendMessageWaitsBrieflyThenReportsBusy() {
+        service = service(1, Duration.ofSeconds(5), Duration.ofSeconds(30));
+        service.sendAsync(message(1L));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> service.sendMessage(message(2L))).isInstanceOf(ServiceBusyException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        verify(streamBridge, times(1)).send(eq(KafkaMessageProducerService.OUTPUT_BINDING), any(Object.class));
+    }
+
+    private KafkaMessageProducerService service(int maxInFlight, Duration maxBlock, Duration sendTimeout) {
+        KafkaMessageProducerService producer = new KafkaMessageProducerService(streamBridge);
+        ReflectionTestUtils.setField(producer, "maxInFlight", maxInFlight);
+        ReflectionTestUtils.setField(producer, "maxBlock", maxBlock);
+        ReflectionTestUtils.setField(producer, "requestMaxBlock", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(producer, "sendTimeout", sendTimeout);
+        producer.init();
+        return producer;
+    }
+
+    private Message<?> lastSent() {
+        ArgumentCaptor<Message<?>> sent = messageCaptor(1);
+        return sent.getValue();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ArgumentCaptor<Message<?>> messageCaptor(int times) {
+        ArgumentCaptor<Message<?>> captor = (ArgumentCaptor) ArgumentCaptor.forClass(Message.class);
+        verify(streamBridge, times(times)).send(eq(KafkaMessageProducerService.OUTPUT_BINDING), captor.capture());
+        return captor;
+    }
+
+    private static KafkaTaskMessageDTO message(Long taskId) {
+        return new KafkaTaskMessageDTO("TASK_UPDATED", taskId, "Task " + taskId, "COMPLETED", 1L, "user");
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.auth.AuthLoginDTO;
+import com.example.demo.entity.User;
+import com.example.demo.exception.BusinessException;
+import com.example.demo.factory.TestDataFactory;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "app.max.failed.attempts=3",
+        "app.account.lockout.duration=900",
+        "app.auth.rate-limit.enabled=false"
+})
+@ActiveProfiles("test")
+class LoginLockoutTest {
+
+    private static final String EMAIL = "lockout@example.com";
+    private static final String PASSWORD = "correctPassword";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        User created = TestDataFactory.createUser("lockoutuser", EMAIL);
+        created.setPassword(passwordEncoder.encode(PASSWORD));
+        user = userRepository.save(created);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void lockedAccountRejectsEvenTheRightPasswordWithTheGenericError() {
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> authService.login(new AuthLoginDTO(EMAIL, "wrongPassword")))
+                    .hasMessage("Invalid email or password");
+        }
+
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(stored.getFailedLoginAttempts()).isEqualTo(3);
+        assertThat(stored.getAccountLocked()).isTrue();
+        assertThatThrownBy(() -> authService.login(new AuthLoginDTO(EMAIL, PASSWORD)))
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Invalid email or password");
+    }
+
+    @Test
+    void attemptsOnALockedAccountDoNotExtendTheLock() {
+        for (int i = 0; i < 3; i++) {
+            userService.recordFailedLogin(user.getId(), 3, Duration.ofSeconds(900));
+        }
+        LocalDateTime lockedSince = userRepository.findById(user.getId()).orElseThrow().getLastFailedLogin();
+
+        assertThatThrownBy(() -> authService.login(new AuthLoginDTO(EMAIL, "wrongPassword")))
+                .hasMessage("Invalid email or password");
+        assertThatThrownBy(() -> authService.login(new AuthLoginDTO("nobody@example.com", "wrongPassword")))
+                .hasMessage("Invalid email or password");
+
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(stored.getFailedLoginAttempts()).isEqualTo(3);
+        assertThat(stored.getLastFailedLogin()).isEqualTo(lockedSince);
+    }
+
+    @Test
+    void lockExpiresAfterLockoutDurationAndSuccessResetsCounters() {
+        userService.recordFailedLogin(user.getId(), 3, Duration.ofSeconds(900));
+        userService.recordFailedLogin(user.getId(), 3, Duration.ofSeconds(900));
+        userService.recordFailedLogin(user.getId(), 3, Duration.ofSeconds(900));
+        backdateLastFailure(LocalDateTime.now().minusSeconds(901));
+
+        assertThat(authService.login(new AuthLoginDTO(EMAIL, PASSWORD)).getAccessToken()).isNotBlank();
+
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(stored.getFailedLoginAttempts()).isZero();
+        assertThat(stored.getAccountLocked()).isFalse();
+    }
+
+    @Test
+    void failuresOutsideTheWindowStartCountingAgain() {
+        userService.recordFailedLogin(user.getId(), 3, Duration.ofSeconds(900));
+        userService.recordFailedLogin(user.getId(), 3, Duration.ofSeconds(900));
+        backdateLastFailure(LocalDateTime.now().minusSeconds(901));
+
+        userService.recordFailedLogin(user.getId(), 3, Duration.ofSeconds(900));
+
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(stored.getFailedLoginAttempts()).isEqualTo(1);
+        assertThat(stored.getAccountLocked()).isFalse();
+    }
+
+    @Test
+    void concurrentFailuresAreAllCounted() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                futures.add(executor.submit(() -> userService.recordFailedLogin(user.getId(), 100, Duration.ofSeconds(900))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getFailedLoginAttempts()).isEqualTo(40);
+    }
+
+    private void backdateLastFailure(LocalDateTime lastFailure) {
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        stored.setLastFailedLogin(lastFailure);
+        userRepository.save(stored);
+    }
+}
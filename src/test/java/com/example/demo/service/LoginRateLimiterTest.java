@@ -0,0 +1,85 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Per-key limits, without a Spring context
+ */
+class LoginRateLimiterTest {
+
+    @Test
+    void eachEmailHasItsOwnBucket() {
+        LoginRateLimiter limiter = limiter(3, Duration.ofMinutes(1), 100, 1000);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.checkLogin("busy@example.com", null);
+        }
+
+        assertThatThrownBy(() -> limiter.checkLogin("busy@example.com", null))
+                .isInstanceOf(BusinessException.class);
+        // Case and surrounding blanks do not make a new key
+        assertThatThrownBy(() -> limiter.checkLogin(" Busy@Example.com", null))
+                .isInstanceOf(BusinessException.class);
+        limiter.checkLogin("other@example.com", null);
+    }
+
+    @Test
+    void oneClientIsLimitedAcrossEmails() {
+        LoginRateLimiter limiter = limiter(5, Duration.ofMinutes(1), 2, 1000);
+
+        limiter.checkLogin("a@example.com", "10.0.0.1");
+        limiter.checkLogin("b@example.com", "10.0.0.1");
+
+        assertThatThrownBy(() -> limiter.checkLogin("c@example.com", "10.0.0.1"))
+                .isInstanceOf(BusinessException.class);
+        limiter.checkLogin("c@example.com", "10.0.0.2");
+    }
+
+    @Test
+    void bucketsRefillAndIdleKeysAreEvicted() throws InterruptedException {
+        LoginRateLimiter limiter = limiter(1, Duration.ofMillis(50), 100, 1000);
+
+        limiter.checkLogin("refill@example.com", "10.0.0.3");
+        assertThatThrownBy(() -> limiter.checkLogin("refill@example.com", null))
+                .isInstanceOf(BusinessException.class);
+        assertThat(limiter.size(LoginRateLimiter.EMAIL)).isEqualTo(1);
+
+        Thread.sleep(100);
+        limiter.evictIdle();
+
+        assertThat(limiter.size(LoginRateLimiter.EMAIL)).isZero();
+        limiter.checkLogin("refill@example.com", null);
+    }
+
+    @Test
+    void fullKeyClassLetsNewKeysThroughAndCountsThem() {
+        LoginRateLimiter limiter = limiter(1, Duration.ofMinutes(1), 100, 2);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limiter.bindTo(registry);
+
+        limiter.checkLogin("one@example.com", null);
+        limiter.checkLogin("two@example.com", null);
+        limiter.checkLogin("three@example.com", null);
+        limiter.checkLogin("three@example.com", null);
+        assertThatThrownBy(() -> limiter.checkLogin("one@example.com", null))
+                .isInstanceOf(BusinessException.class);
+
+        assertThat(limiter.size(LoginRateLimiter.EMAIL)).isEqualTo(2);
+        assertThat(registry.get("auth.ratelimit.overflows").tag("key", "email").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("auth.ratelimit.rejections").tag("key", "email").functionCounter().count()).isEqualTo(1);
+    }
+
+    private static LoginRateLimiter limiter(int emailCapacity, Duration period, int ipCapacity, int maxKeys) {
+        LoginRateLimiter limiter = new LoginRateLimiter(emailCapacity, period, ipCapacity, period, maxKeys);
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        return limiter;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.UserCreateDTO;
+import com.example.demo.entity.Role;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.cache.negative.max-entries=3")
+@ActiveProfiles("test")
+class NegativeLookupCacheTest {
+
+    private static final String EMAIL = "negative@example.com";
+
+    @Autowired
+    private NegativeLookupCache negativeLookups;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByEmail(EMAIL).ifPresent(userRepository::delete);
+        clear();
+    }
+
+    @Test
+    void missIsRememberedUntilForgotten() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(negativeLookups.find("test", 1L, () -> countedEmpty(loads))).isEmpty();
+        assertThat(negativeLookups.find("test", 1L, () -> countedEmpty(loads))).isEmpty();
+        assertThat(loads).hasValue(1);
+
+        negativeLookups.forget("test", 1L);
+        assertThat(negativeLookups.find("test", 1L, () -> Optional.of("found"))).contains("found");
+    }
+
+    @Test
+    void missIsNotRememberedWhenKeyIsForgottenDuringLoad() {
+        Optional<String> result = negativeLookups.find("test", 2L, () -> {
+            negativeLookups.forget("test", 2L);
+            return Optional.empty();
+        });
+
+        assertThat(result).isEmpty();
+        assertThat(negativeLookups.size()).isZero();
+    }
+
+    @Test
+    void sizeIsBounded() {
+        for (long id = 0; id < 10; id++) {
+            negativeLookups.find("test", id, Optional::empty);
+        }
+
+        assertThat(negativeLookups.size()).isEqualTo(3);
+    }
+
+    @Test
+    void creatingUserForgetsNotFoundEmail() {
+        assertThatThrownBy(() -> userService.getUserByEmail(EMAIL)).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(negativeLookups.size()).isEqualTo(1);
+
+        userService.createUser(new UserCreateDTO("negativeuser", EMAIL, "password123", Role.USER));
+
+        assertThat(userService.getUserByEmail(EMAIL).email()).isEqualTo(EMAIL);
+    }
+
+    private void clear() {
+        negativeLookups.clear("test");
+        negativeLookups.clear(NegativeLookupCache.USER_EMAIL);
+        cacheManager.getCache("user").clear();
+    }
+
+    private static Optional<String> countedEmpty(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.service;
+
+import com.example.demo.service.PartitionedBatchExecutor.IdRange;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedBatchExecutorTest {
+
+    @Test
+    void splitCoversWholeRangeWithoutOverlap() {
+        List<IdRange> ranges = IdRange.split(1, 10, 3);
+
+        assertEquals(3, ranges.size());
+        assertEquals(0, ranges.get(0).afterId());
+        assertEquals(10, ranges.get(2).toId());
+        for (int i = 1; i < ranges.size(); i++) {
+            assertEquals(ranges.get(i - 1).toId(), ranges.get(i).afterId());
+        }
+        assertEquals(List.of(new IdRange(0, 4), new IdRange(4, 7), new IdRange(7, 10)), ranges);
+    }
+
+    @Test
+    void splitNeverProducesMorePartitionsThanIds() {
+        assertEquals(List.of(new IdRange(4, 5), new IdRange(5, 6)), IdRange.split(5, 6, 8));
+        assertEquals(List.of(new IdRange(41, 42)), IdRange.split(42, 42, 4));
+        assertTrue(IdRange.split(10, 9, 4).isEmpty());
+    }
+}
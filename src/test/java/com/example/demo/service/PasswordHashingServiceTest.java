@@ -0,0 +1,121 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pool bounds, without a Spring context
+ */
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void hashesOnThePool() {
+        service = service(1, 1, Duration.ofSeconds(5));
+        release.countDown();
+
+        assertThat(service.encode("secret")).isEqualTo("hashed:secret");
+        assertThat(service.matches("secret", "hashed:secret")).isTrue();
+        assertThat(service.needsRehash("hashed:secret")).isFalse();
+    }
+
+    @Test
+    void fullQueueIsRejectedImmediately() throws Exception {
+        service = service(1, 1, Duration.ofSeconds(5));
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("first"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("second"));
+        waitForQueued(1);
+
+        long before = System.nanoTime();
+        assertThatThrownBy(() -> service.encode("third")).isInstanceOf(ServiceBusyException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - before)).isLessThan(Duration.ofSeconds(1));
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:second");
+    }
+
+    @Test
+    void slowHashingTimesOut() {
+        service = service(1, 1, Duration.ofMillis(100));
+
+        assertThatThrownBy(() -> service.encode("slow")).isInstanceOf(ServiceBusyException.class);
+    }
+
+    @Test
+    void bulkHashingLeavesTheLoginPoolFree() throws Exception {
+        service = service(1, 1, Duration.ofSeconds(5));
+        CompletableFuture<List<String>> bulk = CompletableFuture.supplyAsync(() -> service.encodeAll(List.of("a", "b", "c")));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(service, "executor");
+        assertThat(executor.getActiveCount()).isZero();
+        assertThat(executor.getQueue()).isEmpty();
+
+        release.countDown();
+        assertThat(bulk.get(5, TimeUnit.SECONDS)).containsExactly("hashed:a", "hashed:b", "hashed:c");
+    }
+
+    private void waitForQueued(int expected) throws InterruptedException {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(service, "executor");
+        for (int i = 0; i < 500 && executor.getQueue().size() < expected; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(executor.getQueue()).hasSize(expected);
+    }
+
+    private PasswordHashingService service(int threads, int queueCapacity, Duration timeout) {
+        PasswordHashingService hashing = new PasswordHashingService();
+        ReflectionTestUtils.setField(hashing, "passwordEncoder", new BlockingEncoder());
+        ReflectionTestUtils.setField(hashing, "threads", threads);
+        ReflectionTestUtils.setField(hashing, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(hashing, "timeout", timeout);
+        hashing.init();
+        return hashing;
+    }
+
+    /**
+     * Hashes only once released, so tests control how long the pool stays busy
+     */
+    private final class BlockingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
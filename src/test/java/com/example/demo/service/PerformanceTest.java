@@ -19,6 +19,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
@@ -52,6 +53,9 @@ public class PerformanceTest {
     @Autowired
     private BatchProcessingService batchProcessingService;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private User testUser;
     private Project testProject;
 
@@ -171,6 +175,28 @@ public class PerformanceTest {
         assertThat(duration).isLessThan(2000L); // Should complete in under 2 seconds
     }
 
+    @Test
+    void testStreamingOverdueProcessing() {
+        logger.info("Testing streaming overdue task processing...");
+
+        // Past due dates fail @Future validation on save, so they are set directly in SQL
+        taskRepository.flush();
+        List<Task> tasks = taskRepository.findByProjectId(testProject.getId());
+        for (int i = 0; i < 12; i++) {
+            jdbcTemplate.update("UPDATE tasks SET due_date = ? WHERE id = ?",
+                    LocalDateTime.now().minusDays(i + 1), tasks.get(i).getId());
+        }
+
+        LocalDateTime asOf = LocalDateTime.now();
+        int expectedOverdue = taskRepository.findOverdueTasks(asOf).size();
+
+        BatchProcessingService.BatchProcessingResult result = batchProcessingService.processOverdueTasksInBatch(asOf);
+
+        assertThat(expectedOverdue).isGreaterThanOrEqualTo(12);
+        assertThat(result.getTotalProcessed()).isEqualTo(expectedOverdue);
+        assertThat(result.getTotalUpdated()).isEqualTo(expectedOverdue);
+    }
+
     @Test
     void testOptimizedQueryPerformance() {
         logger.info("Testing optimized query performance...");
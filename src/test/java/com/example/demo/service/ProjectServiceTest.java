@@ -21,6 +21,7 @@ import static org.assertj.core.api.Assertions.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -43,15 +44,19 @@ class ProjectServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CacheTagService cacheTags;
+
+    @Mock
+    private NegativeLookupCache negativeLookups;
+
     @InjectMocks
     private ProjectService projectService;
 
     @Test
     void createProject_withOwnerId_savesAndReturnsDTO() {
         Long ownerId = 10L;
-        ProjectCreateDTO createDTO = new ProjectCreateDTO();
-        createDTO.setName("Test Project");
-        createDTO.setDescription("desc");
+        ProjectCreateDTO createDTO = new ProjectCreateDTO("Test Project", "desc", null, null, null, null);
 
         Project entity = new Project("Test Project", "desc", null);
         Project saved = new Project("Test Project", "desc", null);
@@ -60,9 +65,7 @@ class ProjectServiceTest {
         User owner = new User("owner", "o@mail.com", "password", Role.USER);
         owner.setId(ownerId);
 
-        ProjectDTO expectedDTO = new ProjectDTO();
-        expectedDTO.setId(1L);
-        expectedDTO.setName("Test Project");
+        ProjectDTO expectedDTO = projectDTO(1L, "Test Project");
 
         when(projectMapper.toEntity(any(ProjectCreateDTO.class))).thenReturn(entity);
         when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
@@ -72,7 +75,7 @@ class ProjectServiceTest {
         ProjectDTO result = projectService.createProject(createDTO, ownerId);
 
         assertThat(result).isNotNull();
-        assertThat(result.getId()).isEqualTo(1L);
+        assertThat(result.id()).isEqualTo(1L);
         verify(projectRepository).save(entity);
     }
 
@@ -80,15 +83,15 @@ class ProjectServiceTest {
     void getProjectById_found_returnsDTO() {
         Project project = new Project("P", "d", null);
         project.setId(5L);
-        ProjectDTO dto = new ProjectDTO();
-        dto.setId(5L);
+        ProjectDTO dto = projectDTO(5L, "P");
 
+        lookThroughNegativeCache();
         when(projectRepository.findById(5L)).thenReturn(Optional.of(project));
         when(projectMapper.toDTO(project)).thenReturn(dto);
 
         ProjectDTO res = projectService.getProjectById(5L);
         assertThat(res).isNotNull();
-        assertThat(res.getId()).isEqualTo(5L);
+        assertThat(res.id()).isEqualTo(5L);
     }
 
     @Test
@@ -97,13 +100,13 @@ class ProjectServiceTest {
         Project p2 = new Project("B", "b", null);
         List<Project> list = List.of(p1, p2);
 
-        ProjectDTO d1 = new ProjectDTO();
-        ProjectDTO d2 = new ProjectDTO();
+        ProjectDTO d1 = projectDTO(null, "A");
+        ProjectDTO d2 = projectDTO(null, "B");
 
         when(projectRepository.findByOwnerId(2L)).thenReturn(list);
         when(projectMapper.toDTOList(list)).thenReturn(List.of(d1, d2));
 
-        List<ProjectDTO> out = projectService.getProjectsByOwner(2L);
+        List<ProjectDTO> out = projectService.getProjectsByOwnerId(2L);
         assertThat(out).hasSize(2);
     }
 
@@ -126,9 +129,7 @@ class ProjectServiceTest {
         ProjectUpdateDTO updateDTO = new ProjectUpdateDTO();
         updateDTO.setOwnerId(newOwnerId);
 
-        ProjectDTO expectedDTO = new ProjectDTO();
-        expectedDTO.setId(projectId);
-        expectedDTO.setName("Old Project");
+        ProjectDTO expectedDTO = projectDTO(projectId, "Old Project");
 
         // Mock the repository and mapper interactions
         when(projectRepository.findById(projectId)).thenReturn(Optional.of(existing));
@@ -147,7 +148,7 @@ class ProjectServiceTest {
 
         // Verify the result
         assertThat(result).isNotNull();
-        assertThat(result.getId()).isEqualTo(projectId);
+        assertThat(result.id()).isEqualTo(projectId);
 
         // Verify that the owner was actually changed on the existing project
         assertThat(existing.getOwner()).isNotNull();
@@ -165,8 +166,7 @@ class ProjectServiceTest {
     @Test
     void createProject_ownerNotFound_throws() {
         Long ownerId = 55L;
-        ProjectCreateDTO createDTO = new ProjectCreateDTO();
-        createDTO.setName("X");
+        ProjectCreateDTO createDTO = new ProjectCreateDTO("X", null, null, null, null, null);
 
         when(projectMapper.toEntity(any(ProjectCreateDTO.class))).thenReturn(new Project("X","x",null));
         when(userRepository.findById(ownerId)).thenReturn(Optional.empty());
@@ -176,6 +176,7 @@ class ProjectServiceTest {
 
     @Test
     void getProjectById_notFound_throws() {
+        lookThroughNegativeCache();
         when(projectRepository.findById(999L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> projectService.getProjectById(999L));
     }
@@ -201,4 +202,14 @@ class ProjectServiceTest {
 
         assertThrows(ResourceNotFoundException.class, () -> projectService.updateProject(projectId, updateDTO));
     }
+
+    private static ProjectDTO projectDTO(Long id, String name) {
+        return new ProjectDTO(id, name, null, null, null, null, null, null, null, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void lookThroughNegativeCache() {
+        when(negativeLookups.find(eq(NegativeLookupCache.PROJECT), any(), any()))
+                .thenAnswer(invocation -> ((Supplier<Optional<?>>) invocation.getArgument(2)).get());
+    }
 }
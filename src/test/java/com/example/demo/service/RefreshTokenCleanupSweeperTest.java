@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.RefreshToken;
+import com.example.demo.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.token.cleanup.chunk-size=2",
+        "app.token.cleanup.max-rows-per-second=0"
+})
+@ActiveProfiles("test")
+class RefreshTokenCleanupSweeperTest {
+
+    @Autowired
+    private RefreshTokenCleanupSweeper sweeper;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+    }
+
+    @Test
+    void sweepDeletesExpiredAndOldRevokedTokensAcrossChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            refreshTokenRepository.save(new RefreshToken("expired-" + i, 1L, now.minusMinutes(1)));
+            refreshTokenRepository.save(new RefreshToken("active-" + i, 1L, now.plusDays(1)));
+        }
+        refreshTokenRepository.save(revoked("revoked-old", now.minusDays(31)));
+        refreshTokenRepository.save(revoked("revoked-recent", now.minusDays(1)));
+
+        int deleted = sweeper.sweep(Duration.ofDays(30));
+
+        assertThat(deleted).isEqualTo(6);
+        List<String> remaining = refreshTokenRepository.findAll().stream().map(RefreshToken::getToken).toList();
+        assertThat(remaining).containsExactlyInAnyOrder("active-0", "active-1", "active-2", "active-3", "active-4", "revoked-recent");
+    }
+
+    @Test
+    void emptyTableIsASweepWithNothingToDo() {
+        assertThat(sweeper.sweep(Duration.ofDays(30))).isZero();
+    }
+
+    @Test
+    void backgroundSweepDeletesExpiredTokens() throws InterruptedException {
+        // The sweep scheduled at startup may still be running
+        for (int i = 0; i < 500 && !sweeper.startSweep(); i++) {
+            Thread.sleep(10);
+        }
+        while (sweeper.isSweeping()) {
+            Thread.sleep(10);
+        }
+        refreshTokenRepository.save(new RefreshToken("expired-bg", 2L, LocalDateTime.now().minusMinutes(1)));
+
+        assertThat(sweeper.startSweep()).isTrue();
+        for (int i = 0; i < 500 && sweeper.isSweeping(); i++) {
+            Thread.sleep(10);
+        }
+
+        assertThat(sweeper.isSweeping()).isFalse();
+        assertThat(refreshTokenRepository.findByToken("expired-bg")).isEmpty();
+    }
+
+    private static RefreshToken revoked(String token, LocalDateTime createdAt) {
+        RefreshToken refreshToken = new RefreshToken(token, 1L, LocalDateTime.now().plusDays(1));
+        refreshToken.setCreatedAt(createdAt);
+        refreshToken.revoke();
+        return refreshToken;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.token.store.database.insert-batch.linger-ms=50")
+@ActiveProfiles("test")
+class RefreshTokenInsertBatcherTest {
+
+    @Autowired
+    private DatabaseTokenStoreService databaseTokenStoreService;
+
+    @Autowired
+    private RefreshTokenInsertBatcher insertBatcher;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenRepository.deleteAll();
+    }
+
+    @Test
+    void tokenIsCommittedWhenStoreReturns() {
+        databaseTokenStoreService.storeRefreshToken(1L, "single-token");
+
+        assertThat(databaseTokenStoreService.validateRefreshToken("single-token")).isEqualTo(1L);
+    }
+
+    @Test
+    void concurrentInsertsShareBatches() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        insertBatcher.bindTo(registry);
+        double batchesBefore = registry.get("token.store.insert.batches").functionCounter().count();
+
+        int logins = 20;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(logins);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < logins; i++) {
+                long userId = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    databaseTokenStoreService.storeRefreshToken(userId, "concurrent-token-" + userId);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (long i = 0; i < logins; i++) {
+            assertThat(databaseTokenStoreService.validateRefreshToken("concurrent-token-" + i)).isEqualTo(i);
+        }
+        double batches = registry.get("token.store.insert.batches").functionCounter().count() - batchesBefore;
+        assertThat(batches).isLessThan(logins);
+    }
+
+    @Test
+    void callersHoldingConnectionsDoNotStarveTheWriter() throws Exception {
+        // More callers than pooled connections, each holding one while it stores its token
+        int callers = 12;
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        long began = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                long userId = 100 + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    transactionTemplate.executeWithoutResult(status -> {
+                        refreshTokenRepository.count();
+                        databaseTokenStoreService.storeRefreshToken(userId, "held-connection-token-" + userId);
+                    });
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(Duration.ofNanos(System.nanoTime() - began)).isLessThan(Duration.ofSeconds(4));
+        for (long i = 0; i < callers; i++) {
+            assertThat(databaseTokenStoreService.validateRefreshToken("held-connection-token-" + (100 + i))).isEqualTo(100 + i);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Comment;
+import com.example.demo.entity.Project;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.User;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.exception.ValidationException;
+import com.example.demo.factory.TestDataFactory;
+import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.ProjectRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.SnapshotService.SnapshotResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A tiny map window and restore chunk force rows across window and chunk boundaries
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "app.snapshot.map-window-bytes=256",
+        "app.snapshot.restore.chunk-size=7",
+        "app.snapshot.restore.parallelism=3"
+})
+class SnapshotServiceTest {
+
+    private static final List<String> TABLES = List.of("users", "projects", "tasks", "comments");
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path tempDir;
+
+    private User testUser;
+    private Project testProject;
+
+    @BeforeEach
+    void setUp() {
+        testUser = userRepository.save(TestDataFactory.createUser("snapshotuser", "snapshot@example.com"));
+        testProject = projectRepository.save(TestDataFactory.createProject("Snapshot Project", testUser));
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Task task = TestDataFactory.createTask("Snapshot Task " + i + " ünïcödé", testProject, i % 3 == 0 ? null : testUser);
+            task.setDescription(i % 2 == 0 ? null : "x".repeat(300));
+            tasks.add(task);
+        }
+        tasks = taskRepository.saveAll(tasks);
+        commentRepository.save(new Comment("Snapshot comment", tasks.get(0), testUser));
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll(commentRepository.findAll().stream()
+                .filter(comment -> comment.getUser().getId().equals(testUser.getId())).toList());
+        taskRepository.deleteAll(taskRepository.findByProjectId(testProject.getId()));
+        projectRepository.deleteById(testProject.getId());
+        userRepository.deleteById(testUser.getId());
+    }
+
+    @Test
+    void restoreReproducesEveryRowWithOriginalIds() throws IOException {
+        Map<String, List<Map<String, Object>>> before = dumpTables();
+
+        List<SnapshotResult> written = snapshotService.createSnapshot(tempDir);
+        assertThat(written).extracting(SnapshotResult::table).containsExactlyElementsOf(TABLES);
+        assertThat(written.get(2).rows()).isEqualTo(before.get("tasks").size());
+
+        List<SnapshotResult> restored = snapshotService.restoreSnapshot(tempDir, true);
+
+        assertThat(restored).extracting(SnapshotResult::rows)
+                .containsExactlyElementsOf(written.stream().map(SnapshotResult::rows).toList());
+        assertThat(dumpTables()).isEqualTo(before);
+
+        // The next pooled id block (V - 50, V] starts above every restored id
+        Long maxTaskId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tasks", Long.class);
+        Long nextValue = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR tasks_seq", Long.class);
+        assertThat(nextValue - 50).isGreaterThanOrEqualTo(maxTaskId);
+    }
+
+    @Test
+    void restoreForgetsLookupsThatFoundNothing() throws IOException {
+        snapshotService.createSnapshot(tempDir);
+        Long taskId = taskRepository.findByProjectId(testProject.getId()).get(1).getId();
+        taskRepository.deleteById(taskId);
+        assertThatThrownBy(() -> taskService.getTaskById(taskId)).isInstanceOf(ResourceNotFoundException.class);
+
+        snapshotService.restoreSnapshot(tempDir, true);
+
+        assertThat(taskService.getTaskById(taskId).id()).isEqualTo(taskId);
+    }
+
+    @Test
+    void restoreRefusesNonEmptyTablesWithoutReplace() throws IOException {
+        snapshotService.createSnapshot(tempDir);
+
+        assertThatThrownBy(() -> snapshotService.restoreSnapshot(tempDir, false))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("not empty");
+    }
+
+    @Test
+    void truncatedSnapshotIsRejected() throws IOException {
+        snapshotService.createSnapshot(tempDir);
+        Path tasksFile = tempDir.resolve("tasks" + SnapshotService.FILE_EXTENSION);
+        byte[] bytes = Files.readAllBytes(tasksFile);
+        Files.write(tasksFile, Arrays.copyOf(bytes, bytes.length - 10));
+
+        assertThatThrownBy(() -> snapshotService.restoreSnapshot(tempDir, true))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("truncated");
+
+        // Put the data back for the other tests
+        Files.write(tasksFile, bytes);
+        snapshotService.restoreSnapshot(tempDir, true);
+    }
+
+    private Map<String, List<Map<String, Object>>> dumpTables() {
+        Map<String, List<Map<String, Object>>> tables = new LinkedHashMap<>();
+        for (String table : TABLES) {
+            tables.put(table, jdbcTemplate.queryForList("SELECT * FROM " + table + " ORDER BY id"));
+        }
+        return tables;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hand-off and back-pressure, with a Kafka producer that sends only when the test lets it
+ */
+class TaskUpdatePublisherTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private KafkaMessageProducerService producer;
+    private TaskUpdatePublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        producer = mock(KafkaMessageProducerService.class);
+        when(producer.sendTaskUpdatedEvents(anyList(), any(), any())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return CompletableFuture.completedFuture(null);
+        });
+        publisher = new TaskUpdatePublisher();
+        ReflectionTestUtils.setField(publisher, "kafkaMessageProducerService", producer);
+        ReflectionTestUtils.setField(publisher, "queueCapacity", 1);
+        publisher.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        publisher.shutdown();
+    }
+
+    @Test
+    void publishReturnsWhileKafkaIsStillBusy() {
+        long before = System.nanoTime();
+        publisher.publish(List.of(1L, 2L), TaskStatus.COMPLETED, null);
+        publisher.publish(List.of(3L), TaskStatus.COMPLETED, null);
+        publisher.publish(List.of(4L), TaskStatus.COMPLETED, null);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - before)).isLessThan(Duration.ofSeconds(1));
+        release.countDown();
+        verify(producer, timeout(5000)).sendTaskUpdatedEvents(eq(List.of(4L)), eq("COMPLETED"), isNull());
+    }
+
+    @Test
+    void awaitCapacityWaitsUntilTheQueueDrains() throws Exception {
+        publisher.publish(List.of(1L), TaskStatus.COMPLETED, null);
+        verify(producer, timeout(5000)).sendTaskUpdatedEvents(eq(List.of(1L)), any(), any());
+        publisher.publish(List.of(2L), TaskStatus.COMPLETED, null);
+
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(publisher::awaitCapacity);
+        Thread.sleep(200);
+        assertThat(waiting).isNotDone();
+
+        release.countDown();
+        waiting.get(5, TimeUnit.SECONDS);
+        assertThat(publisher.getQueued()).isZero();
+    }
+}
@@ -30,6 +30,15 @@ class UserServiceExceptionTest {
     @Mock
     private UserRepository userRepository;
     
+    @Mock
+    private NegativeLookupCache negativeLookups;
+    
+    @Mock
+    private TokenRevocationService tokenRevocations;
+    
+    @Mock
+    private PasswordHashingService passwordHashing;
+    
     @InjectMocks
     private UserService userService;
     